@@ -0,0 +1,144 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
+
+/**
+ * Classe utilisée pour réaliser l'algorithme A* (Chemin le plus court guidé) sur une copie figée du graphe.
+ * C'est l'algorithme de Djikstra, où chaque sommet est classé selon sa distance au départ
+ * augmentée d'une estimation de la distance qui le sépare de l'arrivée :
+ * la distance à vol d'oiseau entre les deux sommets, multipliée par le plus petit rapport poids/longueur des arcs.
+ * Avec ce facteur, l'estimation ne surestime jamais le chemin restant, le chemin trouvé est donc le plus court,
+ * et la recherche est attirée vers l'arrivée au lieu de s'étendre dans toutes les directions.
+ * Lorsqu'aucun facteur utile n'existe (arc de poids nul ou non numérique), l'algorithme de Djikstra bidirectionnel est utilisé,
+ * et lorsqu'un arc a un poids négatif, l'algorithme de Bellman-Ford.
+ */
+public class AlgoAEtoile{
+	/*
+	 * Marge retirée au facteur pour que les erreurs d'arrondi ne rendent pas l'estimation trop optimiste.
+	 */
+	private static final double MARGE_ARRONDI = 1e-9;
+
+	/**
+	 * Exécute l'algorithme A* sur la copie figée du graphe reçue en paramètre.
+	 * On part du point de départ et on cherche le chemin le plus court jusqu'à l'arrivée.
+	 * Comme pour Djikstra, l'algorithme s'arrête dès que le sommet arrivee est définitivement traité :
+	 * seules les distances des sommets traités sont définitives.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe
+	 *
+	 * @see AlgoDjikstra#djikstraBidirectionnel(GrapheCompact, int, int)
+	 * @see AlgoBellmanFord#bellmanFord(GrapheCompact, int, int)
+	 */
+	public static ResultatDjikstra aEtoile(GrapheCompact g, int depart, int arrivee){
+		if(g.aPoidsNegatif())
+			return AlgoBellmanFord.bellmanFord(g, depart, arrivee);
+
+		double facteur = AlgoAEtoile.facteurAdmissible(g);
+		if(facteur == 0.0)
+			return AlgoDjikstra.djikstraBidirectionnel(g, depart, arrivee);
+
+		int n = g.getNbSommets();
+		double[] distances = new double[n];
+		int[] precedents = new int[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Arrays.fill(precedents, -1);
+
+		distances[depart] = 0.0;
+		if(depart == arrivee)
+			return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents);
+
+		TasIndexe frontiere = new TasIndexe(n);
+		frontiere.ajouter(depart, 0.0);
+		AlgoAEtoile.poursuivre(g, arrivee, distances, precedents, frontiere);
+
+		return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents);
+	}
+
+	/**
+	 * Calcule le facteur par lequel multiplier la distance à vol d'oiseau pour estimer sans excès la longueur d'un chemin :
+	 * le plus petit rapport entre le poids d'un arc et la distance séparant ses extrémités.
+	 * Les boucles et les arcs entre sommets superposés ne contraignent pas le facteur.
+	 * Le rapport est gardé par la copie figée : seul le premier appel sur une copie parcourt ses arcs.
+	 *
+	 * @param g Copie figée du graphe
+	 * @return Facteur admissible, 0 si aucun facteur strictement positif ne convient
+	 */
+	public static double facteurAdmissible(GrapheCompact g){
+		double rapport = g.getRapportPoidsLongueur();
+		return (rapport == Double.POSITIVE_INFINITY ? 0.0 : rapport * (1.0 - MARGE_ARRONDI));
+	}
+
+	/**
+	 * Vérifie si le sommet reçu en paramètre est définitivement traité par une recherche menée par poursuivre :
+	 * il a été atteint et n'est plus dans la frontière.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @param distances Distance de chaque sommet au sommet de départ
+	 * @param frontiere Tas des sommets atteints mais pas encore traités
+	 * @return true si la distance du sommet est définitive, false sinon
+	 */
+	static boolean estTraite(int sommet, double[] distances, TasIndexe frontiere){
+		return distances[sommet] < Double.POSITIVE_INFINITY && !frontiere.contient(sommet);
+	}
+
+	/**
+	 * Poursuit une recherche A* jusqu'à ce que le sommet arrivee soit définitivement traité, ou que la frontière soit vide.
+	 * La recherche peut avoir été menée vers une autre arrivée : les sommets déjà traités gardent une distance exacte,
+	 * il suffit de reclasser la frontière selon l'estimation vers la nouvelle arrivée.
+	 * Un sommet sorti de la frontière voit ses arcs parcourus avant l'arrêt, pour qu'une recherche suivante reparte d'un état cohérent ;
+	 * lorsque la frontière est vide, l'arbre des plus courts chemins du départ est complet.
+	 * Les poids négatifs ne sont pas admis.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @param distances Distance de chaque sommet au sommet de départ, complétée par la recherche
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, complété par la recherche
+	 * @param frontiere Tas des sommets atteints mais pas encore traités, contenant au départ le seul sommet de départ
+	 */
+	static void poursuivre(GrapheCompact g, int arrivee, double[] distances, int[] precedents, TasIndexe frontiere){
+		if(AlgoAEtoile.estTraite(arrivee, distances, frontiere))
+			return;
+
+		double facteur = AlgoAEtoile.facteurAdmissible(g);
+		double x_arrivee = g.getX(arrivee), y_arrivee = g.getY(arrivee);
+
+		/*
+		 * Le tas classe les sommets selon leur distance au départ plus l'estimation restante,
+		 * qui dépend de l'arrivée : la frontière laissée par une recherche précédente est reclassée.
+		 */
+		int[] sommets = new int[frontiere.getTaille()];
+		for(int i=0; i<sommets.length; i++)
+			sommets[i] = frontiere.extraireMin();
+		for(int sommet: sommets)
+			frontiere.ajouter(sommet, distances[sommet] + facteur * Math.hypot(g.getX(sommet) - x_arrivee, g.getY(sommet) - y_arrivee));
+
+		/*
+		 * L'estimation étant cohérente (elle ne baisse pas plus vite que le poids des arcs parcourus),
+		 * un sommet sorti du tas ne peut plus être amélioré.
+		 */
+		while(!frontiere.estVide()){
+			int sommet_courant = frontiere.extraireMin();
+
+			for(int k=g.debutSortants(sommet_courant); k<g.finSortants(sommet_courant); k++){
+				int sommet_proche = g.getCible(k);
+				double distance_totale = distances[sommet_courant] + g.getPoids(k);
+				if(distance_totale < distances[sommet_proche]){
+					distances[sommet_proche] = distance_totale;
+					precedents[sommet_proche] = sommet_courant;
+					double estimation = facteur * Math.hypot(g.getX(sommet_proche) - x_arrivee, g.getY(sommet_proche) - y_arrivee);
+					frontiere.ajouter(sommet_proche, distance_totale + estimation);
+				}
+			}
+
+			if(sommet_courant == arrivee)
+				break;
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe utilisée pour réaliser l'algorithme de Bellman-Ford (Chemin le plus court avec des poids négatifs) sur une copie figée du graphe.
+ * L'algorithme procède par tours, comme une file (SPFA) traitée par vagues : à chaque tour, seuls les successeurs
+ * des sommets améliorés au tour précédent sont examinés. Chacun d'eux cherche parmi ses arcs entrants le meilleur passage
+ * par un sommet amélioré ; ces recherches ne lisent que les distances du tour précédent et sont menées en parallèle.
+ * Sans circuit de poids négatif, un plus court chemin compte moins de n arcs : si des sommets sont encore améliorés
+ * au n-ième tour, un circuit de poids négatif est accessible depuis le départ, et il est renvoyé à la place du chemin.
+ * Dans un graphe non-orienté, une arête de poids négatif forme à elle seule un tel circuit (aller et retour).
+ * Les arcs sans valeur numérique sont ignorés.
+ */
+public class AlgoBellmanFord{
+	private static final int CANDIDATS_PAR_TACHE = 1024;
+
+	/**
+	 * Exécute l'algorithme de Bellman-Ford sur la copie figée du graphe reçue en paramètre.
+	 * On part du point de départ et on cherche le chemin le plus court jusqu'à l'arrivée.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe,
+	 * ou le circuit de poids négatif accessible depuis depart si il en existe un
+	 */
+	public static ResultatDjikstra bellmanFord(GrapheCompact g, int depart, int arrivee){
+		int n = g.getNbSommets();
+		double[] distances = new double[n];
+		int[] precedents = new int[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Arrays.fill(precedents, -1);
+
+		distances[depart] = 0.0;
+		int[] circuit = AlgoBellmanFord.explorer(g, depart, distances, precedents);
+		return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents, circuit);
+	}
+
+	/**
+	 * Mène l'algorithme de Bellman-Ford depuis le sommet de départ, dont la distance doit déjà être nulle
+	 * et celle de tous les autres sommets infinie. L'arbre des plus courts chemins obtenu est complet.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param distances Distance de chaque sommet au sommet de départ, complétée par la recherche
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, complété par la recherche
+	 *
+	 * @return Identifiants des sommets d'un circuit de poids négatif accessible depuis depart (dans le sens des arcs), null s'il n'en existe pas
+	 */
+	static int[] explorer(GrapheCompact g, int depart, double[] distances, int[] precedents){
+		int n = g.getNbSommets();
+		int[] ameliores = new int[n];
+		boolean[] est_ameliore = new boolean[n];
+		int[] candidats = new int[n];
+		int[] tours_candidats = new int[n];
+		double[] meilleures = new double[n];
+		int[] origines = new int[n];
+		int nb_ameliores = 0;
+
+		ameliores[nb_ameliores++] = depart;
+		est_ameliore[depart] = true;
+
+		for(int tour=1; nb_ameliores > 0; tour++){
+			int nb_candidats = 0;
+			for(int i=0; i<nb_ameliores; i++){
+				int s = ameliores[i];
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+					int cible = g.getCible(k);
+					if(tours_candidats[cible] != tour){
+						tours_candidats[cible] = tour;
+						candidats[nb_candidats++] = cible;
+					}
+				}
+			}
+
+			if(nb_candidats > CANDIDATS_PAR_TACHE)
+				ForkJoinPool.commonPool().invoke(new Relaxation(g, distances, est_ameliore, candidats, meilleures, origines, 0, nb_candidats));
+			else
+				tirer(g, distances, est_ameliore, candidats, meilleures, origines, 0, nb_candidats);
+
+			/*
+			 * Les améliorations ne sont reportées qu'une fois le tour terminé,
+			 * les recherches du tour n'ayant lu que les distances du tour précédent.
+			 */
+			for(int i=0; i<nb_ameliores; i++)
+				est_ameliore[ameliores[i]] = false;
+			nb_ameliores = 0;
+			for(int i=0; i<nb_candidats; i++){
+				int s = candidats[i];
+				if(meilleures[i] < distances[s]){
+					distances[s] = meilleures[i];
+					precedents[s] = origines[i];
+					ameliores[nb_ameliores++] = s;
+					est_ameliore[s] = true;
+				}
+			}
+
+			if(tour >= n && nb_ameliores > 0)
+				return circuit(precedents, ameliores[0], n);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Renvoie le circuit de poids négatif auquel mène la remontée des prédécesseurs d'un sommet amélioré au n-ième tour.
+	 * Cette remontée ne peut pas rejoindre le départ : après n pas, elle est forcément sur le circuit.
+	 *
+	 * @param precedents Prédécesseur de chaque sommet
+	 * @param ameliore Identifiant d'un sommet amélioré au n-ième tour
+	 * @param n Nombre de sommets
+	 * @return Identifiants des sommets du circuit, dans le sens des arcs
+	 */
+	private static int[] circuit(int[] precedents, int ameliore, int n){
+		int s = ameliore;
+		for(int i=0; i<n; i++)
+			s = precedents[s];
+
+		int longueur = 0;
+		int membre = s;
+		do{
+			membre = precedents[membre];
+			longueur++;
+		}while(membre != s);
+
+		int[] circuit = new int[longueur];
+		do{
+			circuit[--longueur] = membre;
+			membre = precedents[membre];
+		}while(longueur > 0);
+
+		return circuit;
+	}
+
+	/**
+	 * Cherche, pour chaque candidat d'une tranche, le meilleur passage par un sommet amélioré au tour précédent.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param distances Distances du tour précédent, seulement lues
+	 * @param est_ameliore Indique les sommets améliorés au tour précédent
+	 * @param candidats Sommets à examiner
+	 * @param meilleures Meilleure distance trouvée pour chaque candidat
+	 * @param origines Sommet par lequel passe la meilleure distance de chaque candidat
+	 * @param debut Premier candidat de la tranche
+	 * @param fin Fin (exclue) de la tranche
+	 */
+	private static void tirer(GrapheCompact g, double[] distances, boolean[] est_ameliore, int[] candidats,
+			double[] meilleures, int[] origines, int debut, int fin){
+		for(int i=debut; i<fin; i++){
+			int s = candidats[i];
+			double meilleure = distances[s];
+			int origine = -1;
+			for(int k=g.debutEntrants(s); k<g.finEntrants(s); k++){
+				int source = g.getSource(k);
+				if(est_ameliore[source] && distances[source] + g.getPoidsEntrant(k) < meilleure){
+					meilleure = distances[source] + g.getPoidsEntrant(k);
+					origine = source;
+				}
+			}
+			meilleures[i] = meilleure;
+			origines[i] = origine;
+		}
+	}
+
+	/**
+	 * Tâche menant les recherches d'une tranche de candidats, découpée tant qu'elle est trop grande.
+	 */
+	private static class Relaxation extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final GrapheCompact g;
+		private final double[] distances;
+		private final boolean[] est_ameliore;
+		private final int[] candidats;
+		private final double[] meilleures;
+		private final int[] origines;
+		private final int debut;
+		private final int fin;
+
+		/**
+		 * Construit la tâche traitant les candidats compris entre debut (inclus) et fin (exclu).
+		 *
+		 * @param g Copie figée du graphe
+		 * @param distances Distances du tour précédent, seulement lues
+		 * @param est_ameliore Indique les sommets améliorés au tour précédent
+		 * @param candidats Sommets à examiner
+		 * @param meilleures Meilleure distance trouvée pour chaque candidat
+		 * @param origines Sommet par lequel passe la meilleure distance de chaque candidat
+		 * @param debut Premier candidat de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 */
+		Relaxation(GrapheCompact g, double[] distances, boolean[] est_ameliore, int[] candidats,
+				double[] meilleures, int[] origines, int debut, int fin){
+			this.g = g;
+			this.distances = distances;
+			this.est_ameliore = est_ameliore;
+			this.candidats = candidats;
+			this.meilleures = meilleures;
+			this.origines = origines;
+			this.debut = debut;
+			this.fin = fin;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > CANDIDATS_PAR_TACHE){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new Relaxation(g, distances, est_ameliore, candidats, meilleures, origines, debut, milieu),
+						new Relaxation(g, distances, est_ameliore, candidats, meilleures, origines, milieu, fin));
+				return;
+			}
+			tirer(g, distances, est_ameliore, candidats, meilleures, origines, debut, fin);
+		}
+	}
+}
@@ -1,149 +1,133 @@
 package fr.graphmaker.algorithmes;
 
-import java.awt.Color;
-import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
 
-import fr.graphmaker.constantes.CouleursConstantes;
-import fr.graphmaker.constantes.LanguesConstantes;
-import fr.graphmaker.outils.Arc;
-import fr.graphmaker.outils.Sommet;
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
 
 /**
- * Classe utilisée pour réaliser l'algorithme de Brélaz (Coloration) sur une liste de sommets.
+ * Classe utilisée pour réaliser l'algorithme de Brélaz (Coloration) sur une copie figée du graphe.
  *
  */
-public class AlgoBrelaz implements CouleursConstantes, LanguesConstantes{
-	private static int nb_chromatique = 0;
+public class AlgoBrelaz{
 	
 	/**
-	 * Exécute l'algorithme de Brélaz sur la liste de sommets reçue en paramètre.
+	 * Exécute l'algorithme de Brélaz sur la copie figée du graphe reçue en paramètre.
+	 * Les sommets ne sont pas modifiés : la couleur de chaque sommet est rangée dans le résultat,
+	 * sous la forme d'une classe de couleur entière, sans limite sur le nombre de classes.
 	 * 
-	 * @param sommets Liste de sommets à colorer
-	 * @param langue Langue de l'interface utilisateur appelant la méthode
+	 * @param g Copie figée du graphe à colorer
+	 * @return Résultat de la coloration
 	 * 
-	 * @see LanguesConstantes#FR
-	 * @see LanguesConstantes#CH
-	 * @see LanguesConstantes#EN
+	 * @see fr.graphmaker.outils.Palette
 	 */
-	public static int coloration(ArrayList<Sommet> sommets, int langue){
-		AlgoBrelaz.construireBrelaz(sommets);
-        return nb_chromatique;
+	public static ResultatBrelaz coloration(GrapheCompact g){
+		return AlgoBrelaz.coloration(g, null);
 	}
 	
 	/**
-	 * Renvoie le nombre chromatique.
+	 * Exécute l'algorithme de Brélaz (DSATUR) sur la copie figée du graphe reçue en paramètre,
+	 * en signalant son avancement au suivi fourni.
+	 * A chaque tour, on colore le sommet non coloré de plus grande saturation
+	 * (nombre de couleurs différentes parmi ses voisins), le plus grand degré départageant les égalités.
+	 * Il reçoit la première couleur absente de son voisinage.
 	 * 
-	 * @return Nombre chromatique
+	 * @param g Copie figée du graphe à colorer
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Résultat de la coloration
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
 	 */
-	public static int getNbChromatique(){
-		return nb_chromatique;
-	}
-	
-	/**
-	 * Uniquement sur un graphe non-orienté.
-	 * Colore les sommets de la liste sommets selon l'algorithme de Brélaz.
-	 * 
-	 * @param sommets Liste de sommets à colorer
-	 */
-	private static void construireBrelaz(ArrayList<Sommet> sommets){
-		/*
-		 *  La liste index est utilisée pour calculer 
-		 *  le nombre chromatique à la fin de la fonction.
-		 */
-		ArrayList<Integer> index = new ArrayList<Integer>();
+	public static ResultatBrelaz coloration(GrapheCompact g, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		int[] couleurs = new int[n];
+		int[] saturations = new int[n];
+		int degre_max = 0;
+		
+		for(int s=0; s<n; s++){
+			couleurs[s] = -1;
+			degre_max = Math.max(degre_max, g.getDegre(s));
+		}
 		
 		/*
-		 * On commence par initialiser la liste sommets.
-		 * On met le nombre de sommets voisins réellement colorés à 0 
-		 * pour chaque sommet de la liste.
-		 * Et on met le nombre temporaire de sommets voisins
-		 * colorés possible égal au degré du sommet (nombre d'arcs liés).
+		 * Les couleurs présentes autour de chaque sommet sont rangées dans un tableau de bits :
+		 * "mots" entiers longs par sommet, agrandi si une couleur dépasse sa capacité.
 		 */
-		AlgoBrelaz.init(sommets);
+		int mots = 1;
+		long[] voisinage = new long[n];
 		
 		/*
-		 * On fait tourner l'algorithme sur chacun des sommets.
+		 * Le tas indexé classe les sommets non colorés par saturation puis par degré décroissants.
+		 * La saturation d'un sommet ne faisant qu'augmenter, sa clé ne fait que diminuer.
 		 */
-		for(int i=0; i<sommets.size(); i++){
-			/*
-			 * On commence par sélectionner le sommet ayant le plus grand nombre temporaire 
-			 * de sommets voisins colorés.
-			 */
-			Sommet sommet_courant = sommets.get(0);
-			for(Sommet s : sommets)
-				if(s.getTmpCouleursProches() > sommet_courant.getTmpCouleursProches())
-					sommet_courant = s;
+		TasIndexe brelaz = new TasIndexe(n);
+		for(int s=0; s<n; s++)
+			brelaz.ajouter(s, cle(0, g.getDegre(s), degre_max));
+		
+		int nb_chromatique = 0;
+		for(int i=0; !brelaz.estVide(); i++){
+			if(suivi != null && i%64 == 0){
+				if(suivi.estAnnule())
+					throw new CancellationException();
+				suivi.progression(i, n);
+			}
 			
-			/*
-			 * Une fois le sommet sélectionné,
-			 * son nombre temporaire est "désactivé" (mis à -1)
-			 * et on change sa couleur par la première disponible pour lui.
-			 * Pour information, nos couleurs sont rangées dans un tableau, 
-			 * et la première couleur disponible pour un sommet est la première
-			 * du tableau qui ne corresponde pas à la couleur d'un des sommets voisins.
-			 */
-			sommet_courant.setTmpCouleursProches(-1);
-			sommet_courant.setCouleur(getPremiereCouleurDisponible(sommet_courant));
+			int sommet_courant = brelaz.extraireMin();
+			int couleur = premiereCouleurAbsente(voisinage, sommet_courant*mots, mots);
+			couleurs[sommet_courant] = couleur;
+			nb_chromatique = Math.max(nb_chromatique, couleur+1);
+			
+			if(couleur >= 64*mots){
+				int nouveaux_mots = Math.max(2*mots, couleur/64+1);
+				long[] agrandi = new long[n*nouveaux_mots];
+				for(int s=0; s<n; s++)
+					System.arraycopy(voisinage, s*mots, agrandi, s*nouveaux_mots, mots);
+				voisinage = agrandi;
+				mots = nouveaux_mots;
+			}
 			
 			/*
-			 * On met ensuite à jour le nombre de couleurs proches de chacun des sommets voisins.
+			 * Chaque voisin non coloré qui ne connaissait pas encore cette couleur
+			 * voit sa saturation augmenter et remonte dans le tas.
 			 */
-			for(Arc a : sommet_courant.getArcsSortants()){
-				a.getArrivee().setNbCouleurProche(a.getArrivee().getNbCouleursProches()+1);
-				if(a.getArrivee().getTmpCouleursProches() != -1)
-					a.getArrivee().setTmpCouleursProches(a.getArrivee().getNbCouleursProches());
+			int mot = couleur >>> 6;
+			long bit = 1L << (couleur & 63);
+			for(int k=g.debutSortants(sommet_courant); k<g.finSortants(sommet_courant); k++){
+				int voisin = g.getCible(k);
+				if(couleurs[voisin] != -1 || (voisinage[voisin*mots+mot] & bit) != 0)
+					continue;
+				voisinage[voisin*mots+mot] |= bit;
+				saturations[voisin]++;
+				brelaz.diminuerCle(voisin, cle(saturations[voisin], g.getDegre(voisin), degre_max));
 			}
 		}
 		
-		/*
-		 * On enregistre la liste des couleurs utilisées dans le graphe
-		 * puis on en stock la taille dans le nombre chromatique.
-		 */
-		for(Sommet s: sommets)
-			if(!index.contains(COULEURS.indexOf(s.getCouleur())))
-				index.add(COULEURS.indexOf(s.getCouleur()));
-		
-		nb_chromatique = index.size();
+		return new ResultatBrelaz(g, couleurs, nb_chromatique);
 	}
 	
 	/**
-	 * Renvoie la premiere couleur disponible pour le sommet reçu en paramètre.
+	 * Calcule la clé d'un sommet dans le tas : plus la saturation puis le degré sont grands, plus la clé est petite.
 	 * 
-	 * @param s Sommet dont on veut la couleur possible
-	 * @return Couleur disponible pour le sommet reçu en paramètre
+	 * @param saturation Nombre de couleurs différentes parmi les voisins du sommet
+	 * @param degre Degré du sommet
+	 * @param degre_max Degré maximal du graphe
+	 * @return Clé du sommet
 	 */
-	private static Color getPremiereCouleurDisponible(Sommet s){
-		Color couleur_courante = COULEURS.get(0);
-		ArrayList<Integer> index = new ArrayList<Integer>();
-		
-		for(Arc a: s.getArcsSortants()){
-			if(!index.contains(COULEURS.indexOf(a.getArrivee().getCouleur())))
-				index.add(COULEURS.indexOf(a.getArrivee().getCouleur()));
-		}
-		
-		for(Color c: COULEURS){
-			if(!index.contains(COULEURS.indexOf(c))){
-				couleur_courante = c;
-				break;
-			}
-		}
-		
-		return couleur_courante;
+	private static double cle(int saturation, int degre, int degre_max){
+		return -((double)saturation*(degre_max+1) + degre);
 	}
 	
 	/**
-	 * Initialise la liste de sommets reçue en paramètres.
-	 * Nombre de sommets voisins réellement colorés mis à 0 pour chaque sommet de la liste.
-	 * Nombre temporaire de sommets voisins colorés possible égal au degré du sommet (nombre d'arcs liés).
+	 * Renvoie la première couleur absente du tableau de bits reçu en paramètre.
 	 * 
-	 * @param sommets Liste de sommets à initialiser
+	 * @param voisinage Tableaux de bits des couleurs voisines de tous les sommets
+	 * @param debut Indice du premier mot du sommet concerné
+	 * @param mots Nombre de mots par sommet
+	 * @return Plus petite couleur absente du voisinage du sommet
 	 */
-	private static void init(ArrayList<Sommet> sommets){
-		nb_chromatique = 0;
-		for(Sommet s : sommets){
-			s.setTmpCouleursProches(s.getArcsSortants().size());
-			s.setNbCouleurProche(0);
-			s.setCouleur(COL_CENTRE);
-		}
+	private static int premiereCouleurAbsente(long[] voisinage, int debut, int mots){
+		for(int m=0; m<mots; m++)
+			if(voisinage[debut+m] != -1L)
+				return 64*m + Long.numberOfTrailingZeros(~voisinage[debut+m]);
+		return 64*mots;
 	}
 }
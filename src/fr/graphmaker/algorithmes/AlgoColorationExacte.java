@@ -0,0 +1,277 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.concurrent.CancellationException;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe utilisée pour calculer le nombre chromatique exact d'un graphe (séparation et évaluation sur l'ordre de Brélaz).
+ * La coloration de Brélaz fournit un premier majorant, et une clique trouvée gloutonnement un minorant :
+ * les sommets de cette clique reçoivent d'office des couleurs distinctes, ce qui élimine les colorations symétriques.
+ * La recherche colore ensuite le sommet le plus saturé en essayant chaque couleur autorisée,
+ * et abandonne toute branche qui ne peut plus faire mieux que la meilleure coloration trouvée.
+ * Les couleurs interdites de chaque sommet sont codées sous forme de bits (64 couleurs par mot).
+ * Si le délai accordé expire, la meilleure coloration trouvée est renvoyée avec la taille de la clique pour minorant.
+ * Uniquement sur un graphe non-orienté, comme l'algorithme de Brélaz.
+ */
+public class AlgoColorationExacte{
+	private static final int PERIODE_VERIFICATION = 1024;
+
+	/**
+	 * Calcule le nombre chromatique exact de la copie figée du graphe reçue en paramètre,
+	 * en s'arrêtant sur les meilleures bornes trouvées une fois le délai écoulé.
+	 *
+	 * @param g Copie figée du graphe à colorer
+	 * @param delai Durée maximale de la recherche, en millisecondes
+	 * @return Résultat de la coloration, exact si la recherche a abouti dans le délai
+	 *
+	 * @see ResultatBrelaz#estExact()
+	 */
+	public static ResultatBrelaz coloration(GrapheCompact g, long delai){
+		return AlgoColorationExacte.coloration(g, delai, null);
+	}
+
+	/**
+	 * Calcule le nombre chromatique exact de la copie figée du graphe reçue en paramètre,
+	 * en s'arrêtant sur les meilleures bornes trouvées une fois le délai écoulé.
+	 * L'avancement signalé au suivi correspond au temps écoulé par rapport au délai.
+	 *
+	 * @param g Copie figée du graphe à colorer
+	 * @param delai Durée maximale de la recherche, en millisecondes
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Résultat de la coloration, exact si la recherche a abouti dans le délai
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
+	 */
+	public static ResultatBrelaz coloration(GrapheCompact g, long delai, SuiviAlgorithme suivi){
+		long debut = System.currentTimeMillis();
+		int n = g.getNbSommets();
+
+		ResultatBrelaz heuristique = AlgoBrelaz.coloration(g, suivi);
+		int borne_sup = heuristique.getNbChromatique();
+		int[] meilleure = new int[n];
+		for(int s=0; s<n; s++)
+			meilleure[s] = heuristique.getCouleur(s);
+
+		int[] clique = cliqueGloutonne(g, borne_sup, debut+delai);
+		if(clique.length >= borne_sup)
+			return new ResultatBrelaz(g, meilleure, borne_sup, borne_sup);
+
+		/*
+		 * compteurs[s*nb_couleurs+c] compte les voisins de s ayant la couleur c,
+		 * interdites[s*mots...] en garde la trace sous forme de bits et saturations[s] le nombre de bits à 1.
+		 * Seules les couleurs inférieures au premier majorant peuvent servir.
+		 */
+		int nb_couleurs = borne_sup;
+		int mots = (nb_couleurs+63) >>> 6;
+		int[] compteurs = new int[n*nb_couleurs];
+		long[] interdites = new long[n*mots];
+		int[] saturations = new int[n];
+		int[] couleurs = new int[n];
+		for(int s=0; s<n; s++)
+			couleurs[s] = -1;
+
+		for(int i=0; i<clique.length; i++)
+			colorer(g, clique[i], i, couleurs, compteurs, interdites, saturations, nb_couleurs, mots);
+
+		/*
+		 * Pile explicite de la recherche : à chaque profondeur, le sommet choisi,
+		 * le nombre de couleurs utilisées avant de le colorer, et la dernière couleur essayée.
+		 */
+		int profondeur_max = n - clique.length;
+		int[] sommets = new int[profondeur_max];
+		int[] utilisees = new int[profondeur_max];
+		int[] essais = new int[profondeur_max];
+
+		int p = 0;
+		sommets[0] = choisirSommet(g, couleurs, saturations);
+		utilisees[0] = clique.length;
+		essais[0] = -1;
+
+		boolean interrompu = false;
+		long noeuds = 0;
+		while(p >= 0){
+			/*
+			 * Chaque noeud coûte un parcours de tous les sommets :
+			 * sur un grand graphe, l'échéance est donc vérifiée à chaque noeud.
+			 */
+			if(++noeuds % PERIODE_VERIFICATION == 0 || n > PERIODE_VERIFICATION){
+				long ecoule = System.currentTimeMillis() - debut;
+				if(suivi != null){
+					if(suivi.estAnnule())
+						throw new CancellationException();
+					suivi.progression((int)Math.min(ecoule, delai), (int)delai);
+				}
+				if(ecoule >= delai){
+					interrompu = true;
+					break;
+				}
+			}
+
+			int s = sommets[p];
+			if(essais[p] != -1)
+				decolorer(g, s, couleurs, compteurs, interdites, saturations, nb_couleurs, mots);
+
+			/*
+			 * Une nouvelle couleur ne peut être ouverte qu'une fois toutes les précédentes utilisées,
+			 * et la coloration obtenue doit rester strictement meilleure que la meilleure connue
+			 * (qui a pu s'améliorer depuis que cette branche a été ouverte).
+			 */
+			int c = -1;
+			if(utilisees[p] < borne_sup)
+				c = prochaineCouleur(interdites, s*mots, essais[p]+1, Math.min(utilisees[p], borne_sup-2));
+			if(c == -1){
+				p--;
+				continue;
+			}
+
+			essais[p] = c;
+			colorer(g, s, c, couleurs, compteurs, interdites, saturations, nb_couleurs, mots);
+			int nb_utilisees = Math.max(utilisees[p], c+1);
+
+			if(p+1 == profondeur_max){
+				borne_sup = nb_utilisees;
+				System.arraycopy(couleurs, 0, meilleure, 0, n);
+				if(borne_sup == clique.length)
+					break;
+				continue;
+			}
+
+			p++;
+			sommets[p] = choisirSommet(g, couleurs, saturations);
+			utilisees[p] = nb_utilisees;
+			essais[p] = -1;
+		}
+
+		int borne_inf = (interrompu ? clique.length : borne_sup);
+		return new ResultatBrelaz(g, meilleure, borne_sup, borne_inf);
+	}
+
+	/**
+	 * Choisit le prochain sommet à colorer : le plus saturé, puis celui de plus haut degré.
+	 *
+	 * @param g Copie figée du graphe à colorer
+	 * @param couleurs Couleur courante de chaque sommet, -1 s'il n'est pas coloré
+	 * @param saturations Nombre de couleurs différentes dans le voisinage de chaque sommet
+	 * @return Identifiant du sommet choisi
+	 */
+	private static int choisirSommet(GrapheCompact g, int[] couleurs, int[] saturations){
+		int choix = -1;
+		for(int s=0; s<couleurs.length; s++)
+			if(couleurs[s] == -1 && (choix == -1 || saturations[s] > saturations[choix]
+					|| (saturations[s] == saturations[choix] && g.getDegre(s) > g.getDegre(choix))))
+				choix = s;
+		return choix;
+	}
+
+	/**
+	 * Cherche gloutonnement une grande clique : à partir de chaque sommet, on ajoute tant que possible
+	 * le voisin commun de plus haut degré. La recherche s'arrête dès qu'une clique atteint le majorant
+	 * ou que l'échéance est dépassée.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param borne_sup Majorant du nombre chromatique
+	 * @param echeance Instant (en millisecondes) au-delà duquel la recherche s'arrête
+	 * @return Identifiants des sommets de la plus grande clique trouvée
+	 */
+	private static int[] cliqueGloutonne(GrapheCompact g, int borne_sup, long echeance){
+		int n = g.getNbSommets();
+		int[] meilleure = new int[0];
+		int[] marques = new int[n];
+		int[] candidats = new int[n];
+		int[] clique = new int[n];
+		int marque = 0;
+
+		for(int depart=0; depart<n && meilleure.length<borne_sup; depart++){
+			if(g.getDegre(depart) < meilleure.length || System.currentTimeMillis() >= echeance)
+				continue;
+
+			int taille = 0;
+			clique[taille++] = depart;
+			int nb_candidats = 0;
+			for(int k=g.debutSortants(depart); k<g.finSortants(depart); k++)
+				if(g.getCible(k) != depart)
+					candidats[nb_candidats++] = g.getCible(k);
+
+			while(nb_candidats > 0){
+				int choix = 0;
+				for(int i=1; i<nb_candidats; i++)
+					if(g.getDegre(candidats[i]) > g.getDegre(candidats[choix]))
+						choix = i;
+				int s = candidats[choix];
+				clique[taille++] = s;
+
+				/*
+				 * Les candidats restants doivent aussi être voisins du sommet ajouté.
+				 */
+				marque++;
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++)
+					marques[g.getCible(k)] = marque;
+				int restants = 0;
+				for(int i=0; i<nb_candidats; i++)
+					if(candidats[i] != s && marques[candidats[i]] == marque)
+						candidats[restants++] = candidats[i];
+				nb_candidats = restants;
+			}
+
+			if(taille > meilleure.length){
+				meilleure = new int[taille];
+				System.arraycopy(clique, 0, meilleure, 0, taille);
+			}
+		}
+
+		return meilleure;
+	}
+
+	/**
+	 * Donne la couleur c au sommet s et met à jour les couleurs interdites de ses voisins.
+	 */
+	private static void colorer(GrapheCompact g, int s, int c, int[] couleurs, int[] compteurs, long[] interdites,
+			int[] saturations, int nb_couleurs, int mots){
+		couleurs[s] = c;
+		for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+			int voisin = g.getCible(k);
+			if(voisin != s && compteurs[voisin*nb_couleurs+c]++ == 0){
+				interdites[voisin*mots + (c >>> 6)] |= 1L << c;
+				saturations[voisin]++;
+			}
+		}
+	}
+
+	/**
+	 * Retire sa couleur au sommet s et met à jour les couleurs interdites de ses voisins.
+	 */
+	private static void decolorer(GrapheCompact g, int s, int[] couleurs, int[] compteurs, long[] interdites,
+			int[] saturations, int nb_couleurs, int mots){
+		int c = couleurs[s];
+		couleurs[s] = -1;
+		for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+			int voisin = g.getCible(k);
+			if(voisin != s && --compteurs[voisin*nb_couleurs+c] == 0){
+				interdites[voisin*mots + (c >>> 6)] &= ~(1L << c);
+				saturations[voisin]--;
+			}
+		}
+	}
+
+	/**
+	 * Renvoie la première couleur autorisée comprise entre debut et limite (incluses).
+	 *
+	 * @param interdites Couleurs interdites de tous les sommets, sous forme de bits
+	 * @param decalage Position du premier mot du sommet concerné
+	 * @param debut Première couleur envisagée
+	 * @param limite Dernière couleur envisagée
+	 * @return Première couleur autorisée, -1 s'il n'y en a aucune
+	 */
+	private static int prochaineCouleur(long[] interdites, int decalage, int debut, int limite){
+		for(int mot=debut >>> 6; mot<<6 <= limite; mot++){
+			long libres = ~interdites[decalage+mot];
+			if(mot == debut >>> 6)
+				libres &= -1L << debut;
+			if(libres != 0){
+				int c = (mot << 6) + Long.numberOfTrailingZeros(libres);
+				return (c <= limite ? c : -1);
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,222 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe utilisée pour colorer en parallèle de très grands graphes (coloration spéculative de Gebremedhin et Manne).
+ * Chaque tour colore en parallèle tous les sommets restants en lisant les couleurs courantes de leurs voisins,
+ * sans synchronisation : deux voisins colorés en même temps peuvent donc recevoir la même couleur.
+ * Ces conflits sont ensuite détectés en parallèle, et seul le sommet de plus grand identifiant de chaque conflit
+ * est recoloré au tour suivant. Le sommet de plus petit identifiant restant garde sa couleur à chaque tour,
+ * ce qui garantit que l'algorithme se termine.
+ * Uniquement sur un graphe non-orienté, comme l'algorithme de Brélaz dont il fournit le même type de résultat.
+ */
+public class AlgoColorationParallele{
+	private static final int TAILLE_BLOC = 1024;
+
+	/**
+	 * Colore en parallèle la copie figée du graphe reçue en paramètre.
+	 *
+	 * @param g Copie figée du graphe à colorer
+	 * @return Résultat de la coloration
+	 *
+	 * @see AlgoBrelaz#coloration(GrapheCompact)
+	 */
+	public static ResultatBrelaz coloration(GrapheCompact g){
+		return AlgoColorationParallele.coloration(g, null);
+	}
+
+	/**
+	 * Colore en parallèle la copie figée du graphe reçue en paramètre,
+	 * en signalant son avancement au suivi fourni à chaque tour.
+	 *
+	 * @param g Copie figée du graphe à colorer
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Résultat de la coloration
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
+	 */
+	public static ResultatBrelaz coloration(GrapheCompact g, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		int[] couleurs = new int[n];
+		boolean[] conflits = new boolean[n];
+
+		/*
+		 * Les sommets sont traités par degré décroissant (tri par dénombrement) :
+		 * les plus contraints choisissent leur couleur en premier.
+		 */
+		int degre_max = 0;
+		for(int s=0; s<n; s++)
+			degre_max = Math.max(degre_max, g.getDegre(s));
+		int[] debuts = new int[degre_max+2];
+		for(int s=0; s<n; s++)
+			debuts[degre_max-g.getDegre(s)+1]++;
+		for(int d=1; d<debuts.length; d++)
+			debuts[d] += debuts[d-1];
+		int[] restants = new int[n];
+		for(int s=0; s<n; s++){
+			restants[debuts[degre_max-g.getDegre(s)]++] = s;
+			couleurs[s] = -1;
+		}
+
+		int nb_restants = n;
+		while(nb_restants > 0){
+			if(suivi != null){
+				if(suivi.estAnnule())
+					throw new CancellationException();
+				suivi.progression(n-nb_restants, n);
+			}
+
+			ForkJoinPool.commonPool().invoke(new Coloration(g, couleurs, restants, 0, nb_restants, degre_max, suivi));
+			ForkJoinPool.commonPool().invoke(new Conflits(g, couleurs, conflits, restants, 0, nb_restants));
+
+			/*
+			 * Seuls les sommets en conflit restent à colorer au tour suivant.
+			 */
+			int nb_conflits = 0;
+			for(int i=0; i<nb_restants; i++){
+				int s = restants[i];
+				if(conflits[s]){
+					conflits[s] = false;
+					restants[nb_conflits++] = s;
+				}
+			}
+			nb_restants = nb_conflits;
+		}
+
+		int nb_chromatique = 0;
+		for(int s=0; s<n; s++)
+			nb_chromatique = Math.max(nb_chromatique, couleurs[s]+1);
+
+		return new ResultatBrelaz(g, couleurs, nb_chromatique);
+	}
+
+	/**
+	 * Tâche donnant à chaque sommet d'une tranche de la liste des sommets restants
+	 * la première couleur absente de son voisinage, tel qu'il est au moment de la lecture.
+	 */
+	private static class Coloration extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final GrapheCompact g;
+		private final int[] couleurs;
+		private final int[] sommets;
+		private final int debut;
+		private final int fin;
+		private final int degre_max;
+		private final SuiviAlgorithme suivi;
+
+		/**
+		 * Construit la tâche colorant les sommets rangés entre debut (inclus) et fin (exclu).
+		 *
+		 * @param g Copie figée du graphe à colorer
+		 * @param couleurs Couleur courante de chaque sommet
+		 * @param sommets Liste des sommets restants
+		 * @param debut Début de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 * @param degre_max Degré maximal du graphe
+		 * @param suivi Suivi de l'algorithme, peut être null
+		 */
+		Coloration(GrapheCompact g, int[] couleurs, int[] sommets, int debut, int fin, int degre_max, SuiviAlgorithme suivi){
+			this.g = g;
+			this.couleurs = couleurs;
+			this.sommets = sommets;
+			this.debut = debut;
+			this.fin = fin;
+			this.degre_max = degre_max;
+			this.suivi = suivi;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > TAILLE_BLOC){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new Coloration(g, couleurs, sommets, debut, milieu, degre_max, suivi),
+						new Coloration(g, couleurs, sommets, milieu, fin, degre_max, suivi));
+				return;
+			}
+
+			if(suivi != null && suivi.estAnnule())
+				throw new CancellationException();
+
+			/*
+			 * Une couleur est interdite pour le sommet courant si elle porte sa marque :
+			 * le tableau n'a donc pas besoin d'être vidé entre deux sommets.
+			 * Un sommet ne peut pas avoir plus de degre_max voisins, donc sa couleur ne dépasse pas degre_max.
+			 */
+			int[] interdites = new int[degre_max+2];
+			for(int i=debut; i<fin; i++){
+				int s = sommets[i];
+				int marque = i+1;
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+					int c = couleurs[g.getCible(k)];
+					if(c != -1 && g.getCible(k) != s)
+						interdites[c] = marque;
+				}
+
+				int c = 0;
+				while(interdites[c] == marque)
+					c++;
+				couleurs[s] = c;
+			}
+		}
+	}
+
+	/**
+	 * Tâche repérant, dans une tranche de la liste des sommets restants,
+	 * ceux ayant la même couleur qu'un voisin de plus petit identifiant.
+	 */
+	private static class Conflits extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final GrapheCompact g;
+		private final int[] couleurs;
+		private final boolean[] conflits;
+		private final int[] sommets;
+		private final int debut;
+		private final int fin;
+
+		/**
+		 * Construit la tâche vérifiant les sommets rangés entre debut (inclus) et fin (exclu).
+		 *
+		 * @param g Copie figée du graphe colorée
+		 * @param couleurs Couleur courante de chaque sommet
+		 * @param conflits Tableau recevant true pour chaque sommet à recolorer
+		 * @param sommets Liste des sommets restants
+		 * @param debut Début de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 */
+		Conflits(GrapheCompact g, int[] couleurs, boolean[] conflits, int[] sommets, int debut, int fin){
+			this.g = g;
+			this.couleurs = couleurs;
+			this.conflits = conflits;
+			this.sommets = sommets;
+			this.debut = debut;
+			this.fin = fin;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > TAILLE_BLOC){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new Conflits(g, couleurs, conflits, sommets, debut, milieu),
+						new Conflits(g, couleurs, conflits, sommets, milieu, fin));
+				return;
+			}
+
+			for(int i=debut; i<fin; i++){
+				int s = sommets[i];
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+					int voisin = g.getCible(k);
+					if(voisin < s && couleurs[voisin] == couleurs[s]){
+						conflits[s] = true;
+						break;
+					}
+				}
+			}
+		}
+	}
+}
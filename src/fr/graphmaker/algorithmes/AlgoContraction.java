@@ -0,0 +1,531 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
+
+/**
+ * Classe utilisée pour construire une hiérarchie de contraction d'une copie figée du graphe, et pour y chercher des plus courts chemins.
+ * Les sommets sont contractés un à un, le moins important d'abord : contracter un sommet v le retire du graphe
+ * en ajoutant un raccourci (u, w) pour chaque couple d'arcs (u, v) et (v, w) dont le chemin n'a pas d'équivalent (témoin)
+ * ne passant pas par v. L'importance d'un sommet est le nombre de raccourcis que sa contraction ajouterait, moins le nombre
+ * d'arcs qu'elle retire, plus le nombre de ses voisins déjà contractés (pour étaler les contractions sur tout le graphe).
+ * La recherche d'un témoin est un algorithme de Djikstra local, limité à TEMOINS_MAX sommets traités
+ * (TEMOINS_ESTIMATION lorsqu'il ne s'agit que d'estimer l'importance d'un sommet) :
+ * faute de témoin trouvé à temps, le raccourci est ajouté, ce qui ne fausse jamais les distances.
+ * Lorsque le graphe restant devient trop dense (plus de DEGRE_COEUR arcs par sommet en moyenne), les contractions deviendraient
+ * trop coûteuses : les sommets restants forment alors le coeur de la hiérarchie, classé au-dessus de tous les autres
+ * et dont tous les arcs sont gardés, dans les deux listes. De même, un sommet trop relié (plus de PRODUIT_MAX couples d'arcs entrant et sortant)
+ * n'est jamais contracté (son importance est infinie, sans estimation) : il rejoint le coeur, avec les sommets restants,
+ * dès qu'il est le moins important de tous. La recherche de témoins ne parcourt pas non plus ses arcs,
+ * ce qui peut ajouter des raccourcis mais évite de parcourir toute sa liste à chaque recherche qui l'atteint.
+ * Une recherche ne suit ensuite que des arcs montant dans l'ordre de contraction (ou internes au coeur), depuis le départ et depuis l'arrivée,
+ * ce qui ne visite qu'une petite partie du graphe ; les raccourcis du chemin trouvé sont enfin remplacés par les arcs qu'ils contournent
+ * (voir RechercheContraction).
+ * Les arcs sans valeur numérique et les boucles sont ignorés ; les arcs de poids négatif ne sont pas pris en charge.
+ */
+public class AlgoContraction{
+	private static final int TEMOINS_MAX = 64;
+	private static final int TEMOINS_ESTIMATION = 16;
+	private static final int SOMMETS_PAR_PROGRESSION = 1024;
+	private static final int DEGRE_COEUR = 12;
+	private static final long PRODUIT_MAX = 1 << 12;
+
+	/**
+	 * Construit la hiérarchie de contraction de la copie figée du graphe reçue en paramètre.
+	 *
+	 * @param g Copie figée du graphe, sans arc de poids négatif
+	 * @return Hiérarchie de contraction du graphe
+	 */
+	public static HierarchieContraction contracter(GrapheCompact g){
+		return AlgoContraction.contracter(g, null);
+	}
+
+	/**
+	 * Construit la hiérarchie de contraction de la copie figée du graphe reçue en paramètre,
+	 * en signalant son avancement au suivi fourni.
+	 *
+	 * @param g Copie figée du graphe, sans arc de poids négatif
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Hiérarchie de contraction du graphe
+	 * @throws IllegalArgumentException Si un arc du graphe a un poids négatif
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
+	 */
+	public static HierarchieContraction contracter(GrapheCompact g, SuiviAlgorithme suivi){
+		if(g.aPoidsNegatif())
+			throw new IllegalArgumentException("Poids négatif");
+
+		Contraction contraction = new Contraction(g);
+		int n = g.getNbSommets();
+		TasIndexe ordre = new TasIndexe(n);
+		for(int s=0; s<n; s++)
+			ordre.ajouter(s, contraction.priorite(s));
+
+		/*
+		 * Seules les priorités des voisins du sommet contracté sont recalculées : celle d'un autre sommet peut aussi avoir changé
+		 * (un témoin passant par le sommet contracté a disparu), ce qui n'est vérifié qu'en sortie du tas,
+		 * où le sommet est remis s'il n'est plus le moins important.
+		 */
+		int nb_contractes = 0;
+		while(!ordre.estVide()){
+			int s = ordre.extraireMin();
+			double priorite = contraction.priorite(s);
+			if(priorite > ordre.getCleMin()){
+				ordre.ajouter(s, priorite);
+				continue;
+			}
+			if(priorite == Double.POSITIVE_INFINITY){
+				contraction.classer(s, nb_contractes++);
+				while(!ordre.estVide())
+					contraction.classer(ordre.extraireMin(), nb_contractes++);
+				continue;
+			}
+
+			if(suivi != null && nb_contractes % SOMMETS_PAR_PROGRESSION == 0){
+				if(suivi.estAnnule())
+					throw new CancellationException();
+				suivi.progression(nb_contractes, n);
+			}
+
+			int[] voisins = contraction.contracter(s, nb_contractes++);
+			for(int voisin : voisins)
+				ordre.modifierCle(voisin, contraction.priorite(voisin));
+
+			if(contraction.getNbArcs() > (long)DEGRE_COEUR*(n-nb_contractes)){
+				while(!ordre.estVide())
+					contraction.classer(ordre.extraireMin(), nb_contractes++);
+			}
+		}
+
+		return contraction.hierarchie(HierarchieContraction.empreinte(g));
+	}
+
+	/**
+	 * Cherche le chemin le plus court allant de depart à arrivee à l'aide de la hiérarchie de contraction du graphe.
+	 * Les tableaux de travail de la recherche ne servent qu'une fois : pour de nombreuses recherches dans la même hiérarchie,
+	 * une RechercheContraction les garde d'une recherche à l'autre.
+	 *
+	 * @param h Hiérarchie de contraction de la copie figée
+	 * @param g Copie figée du graphe ayant servi à construire la hiérarchie
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe ;
+	 * seules les distances des sommets du chemin sont renseignées
+	 *
+	 * @see RechercheContraction#chercher(int, int)
+	 */
+	public static ResultatDjikstra chercher(HierarchieContraction h, GrapheCompact g, int depart, int arrivee){
+		return new RechercheContraction(h, g).chercher(depart, arrivee);
+	}
+
+	/**
+	 * État de la construction d'une hiérarchie : le graphe restant (arcs entre sommets non contractés, raccourcis compris)
+	 * et les données de la recherche de témoins.
+	 * Un sommet contracté n'est pas retiré tout de suite des listes de ses voisins, ce qui coûterait un parcours de chacune :
+	 * il y est marqué comme contracté, et les listes sont compactées lorsqu'elles sont parcourues.
+	 * Les nombres d'arcs sortants et entrants de chaque sommet dans le graphe restant sont tenus à jour à part.
+	 * Les listes d'arcs d'un sommet ne sont plus modifiées une fois celui-ci contracté ou classé dans le coeur :
+	 * compactées une dernière fois, elles ne contiennent alors que des sommets classés après lui (ou du coeur), et forment ses arcs montants.
+	 */
+	private static class Contraction{
+		private final Voisins[] sortants;
+		private final Voisins[] entrants;
+		private final int[] nb_sortants;
+		private final int[] nb_entrants;
+		private final boolean[] contractes;
+		private final int[] rangs;
+		private final int[] voisins_contractes;
+		private final double[] distances_temoins;
+		private final int[] touches;
+		private final TasIndexe temoins;
+		private final int[] marques;
+		private final int[] positions_arcs;
+		private final int[] marques_arcs;
+		private int marque = 0;
+		private int marque_arcs = 0;
+		private int nb_touches = 0;
+		private long nb_arcs = 0;
+
+		/**
+		 * Construit l'état initial à partir de la copie figée du graphe.
+		 * Entre deux sommets, seul l'arc le plus léger est gardé.
+		 *
+		 * @param g Copie figée du graphe
+		 */
+		Contraction(GrapheCompact g){
+			int n = g.getNbSommets();
+			sortants = new Voisins[n];
+			entrants = new Voisins[n];
+			nb_sortants = new int[n];
+			nb_entrants = new int[n];
+			contractes = new boolean[n];
+			rangs = new int[n];
+			voisins_contractes = new int[n];
+			distances_temoins = new double[n];
+			touches = new int[n];
+			temoins = new TasIndexe(n);
+			marques = new int[n];
+			positions_arcs = new int[n];
+			marques_arcs = new int[n];
+			Arrays.fill(distances_temoins, Double.POSITIVE_INFINITY);
+
+			for(int s=0; s<n; s++){
+				sortants[s] = new Voisins();
+				entrants[s] = new Voisins();
+			}
+			for(int s=0; s<n; s++){
+				reperer(s);
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+					double poids = g.getPoids(k);
+					if(g.getCible(k) != s && poids >= 0 && poids != Double.POSITIVE_INFINITY)
+						ajouterArc(s, g.getCible(k), poids, -1);
+				}
+			}
+		}
+
+		/**
+		 * Classe dans le coeur le sommet reçu en paramètre : ses listes d'arcs sont gardées telles quelles,
+		 * une fois retirés les sommets déjà contractés.
+		 *
+		 * @param sommet Identifiant du sommet
+		 * @param rang Rang du sommet dans l'ordre de contraction
+		 */
+		void classer(int sommet, int rang){
+			rangs[sommet] = rang;
+			sortants[sommet].compacter(contractes);
+			entrants[sommet].compacter(contractes);
+		}
+
+		/**
+		 * Contracte le sommet reçu en paramètre : ajoute les raccourcis nécessaires et le retire du graphe restant.
+		 *
+		 * @param sommet Identifiant du sommet à contracter
+		 * @param rang Rang du sommet dans l'ordre de contraction
+		 * @return Voisins non contractés du sommet, dont la priorité a pu changer
+		 */
+		int[] contracter(int sommet, int rang){
+			rangs[sommet] = rang;
+			Voisins vers = sortants[sommet], depuis = entrants[sommet];
+			vers.compacter(contractes);
+			depuis.compacter(contractes);
+			raccourcis(sommet, true);
+			contractes[sommet] = true;
+
+			int[] voisins = new int[vers.taille + depuis.taille];
+			int nb_voisins = 0;
+			marque++;
+			for(int i=0; i<vers.taille; i++){
+				nb_entrants[vers.sommets[i]]--;
+				marques[vers.sommets[i]] = marque;
+				voisins[nb_voisins++] = vers.sommets[i];
+			}
+			for(int i=0; i<depuis.taille; i++){
+				nb_sortants[depuis.sommets[i]]--;
+				if(marques[depuis.sommets[i]] != marque)
+					voisins[nb_voisins++] = depuis.sommets[i];
+			}
+			nb_arcs -= vers.taille + depuis.taille;
+
+			voisins = Arrays.copyOf(voisins, nb_voisins);
+			for(int voisin : voisins)
+				voisins_contractes[voisin]++;
+
+			return voisins;
+		}
+
+		/**
+		 * Renvoie le nombre d'arcs du graphe restant, raccourcis compris.
+		 *
+		 * @return Nombre d'arcs entre sommets non contractés
+		 */
+		long getNbArcs(){
+			return nb_arcs;
+		}
+
+		/**
+		 * Construit la hiérarchie une fois tous les sommets contractés.
+		 *
+		 * @param empreinte Empreinte des arcs de la copie figée
+		 * @return Hiérarchie de contraction
+		 */
+		HierarchieContraction hierarchie(long empreinte){
+			int n = rangs.length;
+			int[] debuts_sortants = new int[n+1];
+			int[] debuts_entrants = new int[n+1];
+			for(int s=0; s<n; s++){
+				debuts_sortants[s+1] = debuts_sortants[s] + sortants[s].taille;
+				debuts_entrants[s+1] = debuts_entrants[s] + entrants[s].taille;
+			}
+
+			int[] cibles = new int[debuts_sortants[n]];
+			double[] poids_sortants = new double[debuts_sortants[n]];
+			int[] milieux_sortants = new int[debuts_sortants[n]];
+			int[] sources = new int[debuts_entrants[n]];
+			double[] poids_entrants = new double[debuts_entrants[n]];
+			int[] milieux_entrants = new int[debuts_entrants[n]];
+			for(int s=0; s<n; s++){
+				sortants[s].copier(cibles, poids_sortants, milieux_sortants, debuts_sortants[s]);
+				entrants[s].copier(sources, poids_entrants, milieux_entrants, debuts_entrants[s]);
+			}
+
+			return new HierarchieContraction(empreinte, rangs, debuts_sortants, cibles, poids_sortants, milieux_sortants,
+					debuts_entrants, sources, poids_entrants, milieux_entrants);
+		}
+
+		/**
+		 * Calcule la priorité de contraction du sommet reçu en paramètre (plus elle est faible, plus tôt il est contracté).
+		 * Elle est infinie, sans estimation des raccourcis, si le sommet a plus de PRODUIT_MAX couples d'arcs entrant et sortant.
+		 *
+		 * @param sommet Identifiant du sommet
+		 * @return Raccourcis à ajouter, moins arcs retirés, plus voisins déjà contractés
+		 */
+		double priorite(int sommet){
+			if(estTropRelie(sommet))
+				return Double.POSITIVE_INFINITY;
+			sortants[sommet].compacter(contractes);
+			entrants[sommet].compacter(contractes);
+			return raccourcis(sommet, false) - nb_sortants[sommet] - nb_entrants[sommet] + voisins_contractes[sommet];
+		}
+
+		/**
+		 * Ajoute l'arc (source, cible) au graphe restant, ou raccourcit celui qui existe déjà si le nouveau est plus léger.
+		 * Les positions des voisins sortants de source doivent avoir été repérées, et ses listes ne pas avoir été compactées depuis.
+		 *
+		 * @param source Identifiant du sommet de départ de l'arc
+		 * @param cible Identifiant du sommet d'arrivée de l'arc
+		 * @param poids Poids de l'arc
+		 * @param milieu Sommet contourné par l'arc, -1 si aucun
+		 *
+		 * @see #reperer(int)
+		 */
+		private void ajouterArc(int source, int cible, double poids, int milieu){
+			if(marques_arcs[cible] == marque_arcs){
+				if(sortants[source].raccourcir(positions_arcs[cible], poids, milieu))
+					entrants[cible].raccourcir(entrants[cible].chercher(source), poids, milieu);
+				return;
+			}
+
+			marques_arcs[cible] = marque_arcs;
+			positions_arcs[cible] = sortants[source].taille;
+			sortants[source].ajouter(cible, poids, milieu);
+			entrants[cible].ajouter(source, poids, milieu);
+			nb_sortants[source]++;
+			nb_entrants[cible]++;
+			nb_arcs++;
+		}
+
+		/**
+		 * Compte (et ajoute si demandé) les raccourcis nécessaires à la contraction du sommet reçu en paramètre.
+		 * Un raccourci (u, w) n'est pas nécessaire si la recherche de témoins depuis u, sans passer par le sommet,
+		 * trouve un chemin vers w au plus aussi court que celui passant par le sommet.
+		 * Les listes du sommet doivent avoir été compactées.
+		 *
+		 * @param sommet Identifiant du sommet
+		 * @param ajouter true pour ajouter les raccourcis au graphe restant, false pour seulement les compter
+		 * @return Nombre de raccourcis nécessaires
+		 */
+		private int raccourcis(int sommet, boolean ajouter){
+			Voisins vers = sortants[sommet], depuis = entrants[sommet];
+			if(vers.taille == 0)
+				return 0;
+
+			double max_vers = 0.0;
+			marque++;
+			for(int j=0; j<vers.taille; j++){
+				max_vers = Math.max(max_vers, vers.poids[j]);
+				marques[vers.sommets[j]] = marque;
+			}
+
+			int nb_raccourcis = 0;
+			for(int i=0; i<depuis.taille; i++){
+				int source = depuis.sommets[i];
+				boolean repere = false;
+				temoins(source, sommet, depuis.poids[i] + max_vers, vers.taille, (ajouter ? TEMOINS_MAX : TEMOINS_ESTIMATION));
+				for(int j=0; j<vers.taille; j++){
+					int cible = vers.sommets[j];
+					double par_sommet = depuis.poids[i] + vers.poids[j];
+					if(cible == source || distances_temoins[cible] <= par_sommet)
+						continue;
+					nb_raccourcis++;
+					if(ajouter){
+						if(!repere){
+							sortants[source].compacter(contractes);
+							reperer(source);
+							repere = true;
+						}
+						ajouterArc(source, cible, par_sommet, sommet);
+					}
+				}
+
+				for(int t=0; t<nb_touches; t++)
+					distances_temoins[touches[t]] = Double.POSITIVE_INFINITY;
+				nb_touches = 0;
+			}
+
+			return nb_raccourcis;
+		}
+
+		/**
+		 * Repère la position de chaque voisin sortant du sommet reçu en paramètre dans sa liste,
+		 * pour que l'ajout d'arcs partant de ce sommet trouve en temps constant l'arc existant vers un voisin.
+		 *
+		 * @param source Identifiant du sommet
+		 *
+		 * @see #ajouterArc(int, int, double, int)
+		 */
+		private void reperer(int source){
+			Voisins vers = sortants[source];
+			marque_arcs++;
+			for(int j=0; j<vers.taille; j++){
+				marques_arcs[vers.sommets[j]] = marque_arcs;
+				positions_arcs[vers.sommets[j]] = j;
+			}
+		}
+
+		/**
+		 * Vérifie si le sommet reçu en paramètre a plus de PRODUIT_MAX couples d'arcs entrant et sortant dans le graphe restant.
+		 *
+		 * @param sommet Identifiant du sommet
+		 * @return true si le sommet est trop relié pour être contracté, false sinon
+		 */
+		private boolean estTropRelie(int sommet){
+			return (long)nb_entrants[sommet]*nb_sortants[sommet] > PRODUIT_MAX;
+		}
+
+		/**
+		 * Recherche de témoins : algorithme de Djikstra dans le graphe restant depuis source, sans passer par exclu ni par un sommet trop relié,
+		 * arrêté au-delà de la distance borne, après TEMOINS_MAX sommets traités, ou dès que toutes les cibles (les sommets marqués) sont traitées.
+		 * Les distances trouvées (éventuellement provisoires, mais toujours celles de vrais chemins) sont rangées dans distances_temoins.
+		 *
+		 * @param source Identifiant du sommet de départ
+		 * @param exclu Identifiant du sommet à éviter
+		 * @param borne Distance au-delà de laquelle un chemin ne peut plus servir de témoin
+		 * @param nb_cibles Nombre de cibles
+		 * @param max_traites Nombre maximal de sommets traités
+		 */
+		private void temoins(int source, int exclu, double borne, int nb_cibles, int max_traites){
+			distances_temoins[source] = 0.0;
+			touches[nb_touches++] = source;
+			temoins.ajouter(source, 0.0);
+
+			int traites = 0;
+			while(!temoins.estVide() && temoins.getCleMin() <= borne && traites < max_traites){
+				int sommet_courant = temoins.extraireMin();
+				traites++;
+				if(marques[sommet_courant] == marque && --nb_cibles == 0)
+					break;
+				if(estTropRelie(sommet_courant))
+					continue;
+				Voisins vers = sortants[sommet_courant];
+				vers.compacter(contractes);
+				for(int j=0; j<vers.taille; j++){
+					int sommet_proche = vers.sommets[j];
+					double distance_totale = distances_temoins[sommet_courant] + vers.poids[j];
+					if(sommet_proche != exclu && distance_totale < distances_temoins[sommet_proche]){
+						if(distances_temoins[sommet_proche] == Double.POSITIVE_INFINITY)
+							touches[nb_touches++] = sommet_proche;
+						distances_temoins[sommet_proche] = distance_totale;
+						temoins.ajouter(sommet_proche, distance_totale);
+					}
+				}
+			}
+
+			temoins.vider();
+		}
+	}
+
+	/**
+	 * Listes des arcs d'un sommet dans le graphe restant : pour chaque voisin, le poids de l'arc le plus léger
+	 * et le sommet qu'il contourne (-1 pour un arc du graphe).
+	 * Une liste ne contient jamais deux fois le même voisin, ce que vérifie celui qui y ajoute un arc.
+	 */
+	private static class Voisins{
+		private int[] sommets = new int[4];
+		private double[] poids = new double[4];
+		private int[] milieux = new int[4];
+		private int taille = 0;
+
+		/**
+		 * Ajoute un arc vers le voisin reçu en paramètre, qui n'est pas déjà dans la liste.
+		 *
+		 * @param sommet Identifiant du voisin
+		 * @param poids_arc Poids de l'arc
+		 * @param milieu Sommet contourné par l'arc, -1 si aucun
+		 */
+		void ajouter(int sommet, double poids_arc, int milieu){
+			if(taille == sommets.length){
+				sommets = Arrays.copyOf(sommets, 2*taille);
+				poids = Arrays.copyOf(poids, 2*taille);
+				milieux = Arrays.copyOf(milieux, 2*taille);
+			}
+			sommets[taille] = sommet;
+			poids[taille] = poids_arc;
+			milieux[taille] = milieu;
+			taille++;
+		}
+
+		/**
+		 * Cherche la position du voisin reçu en paramètre dans la liste.
+		 *
+		 * @param sommet Identifiant du voisin
+		 * @return Position du voisin, -1 s'il n'est pas dans la liste
+		 */
+		int chercher(int sommet){
+			for(int i=0; i<taille; i++)
+				if(sommets[i] == sommet)
+					return i;
+			return -1;
+		}
+
+		/**
+		 * Retire de la liste les voisins marqués dans le tableau reçu en paramètre, sans changer l'ordre des autres.
+		 *
+		 * @param retires Pour chaque sommet, true s'il doit être retiré
+		 */
+		void compacter(boolean[] retires){
+			int garde = 0;
+			for(int i=0; i<taille; i++){
+				if(retires[sommets[i]])
+					continue;
+				sommets[garde] = sommets[i];
+				poids[garde] = poids[i];
+				milieux[garde] = milieux[i];
+				garde++;
+			}
+			taille = garde;
+		}
+
+		/**
+		 * Copie les arcs dans les tableaux d'une hiérarchie, à partir de l'indice fourni.
+		 *
+		 * @param voisins Tableau des voisins
+		 * @param poids_arcs Tableau des poids
+		 * @param milieux_arcs Tableau des sommets contournés
+		 * @param debut Indice du premier arc copié
+		 */
+		void copier(int[] voisins, double[] poids_arcs, int[] milieux_arcs, int debut){
+			System.arraycopy(sommets, 0, voisins, debut, taille);
+			System.arraycopy(poids, 0, poids_arcs, debut, taille);
+			System.arraycopy(milieux, 0, milieux_arcs, debut, taille);
+		}
+
+		/**
+		 * Raccourcit l'arc à la position reçue en paramètre si le nouveau poids est plus léger.
+		 *
+		 * @param position Position de l'arc dans la liste
+		 * @param poids_arc Nouveau poids de l'arc
+		 * @param milieu Sommet contourné par le nouvel arc, -1 si aucun
+		 * @return true si l'arc a été raccourci, false sinon
+		 */
+		boolean raccourcir(int position, double poids_arc, int milieu){
+			if(poids_arc >= poids[position])
+				return false;
+			poids[position] = poids_arc;
+			milieux[position] = milieu;
+			return true;
+		}
+	}
+}
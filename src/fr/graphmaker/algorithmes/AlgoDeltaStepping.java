@@ -0,0 +1,416 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe utilisée pour calculer en parallèle l'arbre des plus courts chemins d'un sommet de très grands graphes
+ * (delta-stepping de Meyer et Sanders).
+ * Les sommets atteints sont rangés dans des seaux de largeur delta selon leur distance au départ.
+ * Le plus petit seau non vide est vidé par vagues : tous ses sommets relâchent en parallèle leurs arcs légers (poids au plus delta),
+ * ce qui peut y remettre des sommets, puis, une fois le seau stable, tous ceux qui y sont passés relâchent leurs arcs lourds.
+ * Les distances sont abaissées par des échanges atomiques : aucun verrou n'est pris pendant les vagues.
+ * La largeur delta est déduite de la répartition des poids : environ un arc léger par sommet.
+ * Les prédécesseurs sont ensuite déduits des distances, ce qui donne les mêmes tableaux que l'algorithme de Djikstra
+ * (à égalité de distance près, le prédécesseur choisi peut différer).
+ * Les arcs sans valeur numérique sont ignorés. Les poids négatifs ne sont pas admis.
+ */
+public class AlgoDeltaStepping{
+	private static final int SOMMETS_PAR_TACHE = 512;
+	private static final int TAILLE_ECHANTILLON = 1024;
+	private static final double QUANTILE_POIDS = 0.9;
+	private static final int SEAUX_MAX = 1 << 16;
+
+	/**
+	 * Exécute le delta-stepping sur la copie figée du graphe reçue en paramètre.
+	 * L'arbre des plus courts chemins du départ est calculé entièrement, puis le chemin allant jusqu'à l'arrivée en est extrait.
+	 * Si un arc a un poids négatif, l'algorithme de Bellman-Ford est utilisé à la place.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe
+	 *
+	 * @see AlgoBellmanFord#bellmanFord(GrapheCompact, int, int)
+	 */
+	public static ResultatDjikstra deltaStepping(GrapheCompact g, int depart, int arrivee){
+		if(g.aPoidsNegatif())
+			return AlgoBellmanFord.bellmanFord(g, depart, arrivee);
+
+		int n = g.getNbSommets();
+		double[] distances = new double[n];
+		int[] precedents = new int[n];
+		AlgoDeltaStepping.explorer(g, depart, distances, precedents);
+		return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents);
+	}
+
+	/**
+	 * Calcule l'arbre complet des plus courts chemins du sommet de départ, dans des tableaux fournis.
+	 *
+	 * @param g Copie figée du graphe, sans poids négatif
+	 * @param depart Identifiant du sommet de départ
+	 * @param distances Distance de chaque sommet au sommet de départ, remplie par la recherche (infinie si le sommet n'est pas atteint)
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, rempli par la recherche (-1 si aucun)
+	 */
+	static void explorer(GrapheCompact g, int depart, double[] distances, int[] precedents){
+		int n = g.getNbSommets();
+		AtomicLongArray atomiques = new AtomicLongArray(n);
+		long infini = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+		for(int s=0; s<n; s++)
+			atomiques.set(s, infini);
+		atomiques.set(depart, Double.doubleToLongBits(0.0));
+
+		/*
+		 * Une distance tirée du seau i est au plus (i+1)*delta, et aucun arc ne l'augmente de plus que le poids maximal :
+		 * les seaux encore utiles tiennent donc dans un tableau circulaire de poids_max/delta + 2 cases.
+		 */
+		double poids_max = poidsMaximal(g);
+		double delta = Math.max(largeur(g, poids_max), poids_max / (SEAUX_MAX-2));
+		Seau[] seaux = new Seau[(int)Math.ceil(poids_max / delta) + 2];
+		seaux[0] = new Seau();
+		seaux[0].ajouter(depart);
+		int nb_en_attente = 1;
+
+		int[] vague = new int[n];
+		int[] vagues_sommets = new int[n];
+		long[] seaux_sommets = new long[n];
+		Arrays.fill(vagues_sommets, -1);
+		Arrays.fill(seaux_sommets, -1);
+		Seau passes = new Seau();
+		int numero_vague = 0;
+		ConcurrentLinkedQueue<Seau> sorties = new ConcurrentLinkedQueue<Seau>();
+
+		for(long numero_seau=0; nb_en_attente > 0; numero_seau++){
+			Seau seau = seaux[(int)(numero_seau % seaux.length)];
+			if(seau == null || seau.taille == 0)
+				continue;
+			passes.taille = 0;
+
+			while(seau.taille > 0){
+				/*
+				 * Les sommets dont la distance a baissé depuis leur entrée dans le seau sont déjà dans un seau précédent,
+				 * et un sommet entré plusieurs fois n'est traité qu'une fois par vague.
+				 */
+				int taille_vague = 0;
+				for(int i=0; i<seau.taille; i++){
+					int s = seau.sommets[i];
+					if(vagues_sommets[s] != numero_vague && numeroSeau(atomiques, s, delta) == numero_seau){
+						vagues_sommets[s] = numero_vague;
+						vague[taille_vague++] = s;
+						if(seaux_sommets[s] != numero_seau){
+							seaux_sommets[s] = numero_seau;
+							passes.ajouter(s);
+						}
+					}
+				}
+				nb_en_attente -= seau.taille;
+				seau.taille = 0;
+				numero_vague++;
+
+				relacher(g, atomiques, vague, taille_vague, delta, true, sorties);
+				nb_en_attente += repartir(atomiques, seaux, delta, sorties);
+			}
+
+			relacher(g, atomiques, passes.sommets, passes.taille, delta, false, sorties);
+			nb_en_attente += repartir(atomiques, seaux, delta, sorties);
+		}
+
+		for(int s=0; s<n; s++)
+			distances[s] = Double.longBitsToDouble(atomiques.get(s));
+		AlgoDeltaStepping.precedents(g, depart, distances, precedents);
+	}
+
+	/**
+	 * Calcule la largeur des seaux à partir d'un échantillon des poids des arcs :
+	 * un poids élevé de l'échantillon (quantile QUANTILE_POIDS) divisé par le degré moyen,
+	 * pour que chaque sommet ait en moyenne un arc léger.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param poids_max Poids fini maximal des arcs
+	 * @return Largeur des seaux, strictement positive
+	 */
+	private static double largeur(GrapheCompact g, double poids_max){
+		int m = g.getNbArcs();
+		if(m == 0 || poids_max <= 0.0)
+			return 1.0;
+
+		double[] echantillon = new double[Math.min(m, TAILLE_ECHANTILLON)];
+		int taille = 0;
+		for(int i=0; i<echantillon.length; i++){
+			double poids = g.getPoids((int)((long)i*m / echantillon.length));
+			if(poids >= 0.0 && poids != Double.POSITIVE_INFINITY)
+				echantillon[taille++] = poids;
+		}
+		Arrays.sort(echantillon, 0, taille);
+
+		double poids_eleve = (taille == 0 ? poids_max : echantillon[(int)(QUANTILE_POIDS*(taille-1))]);
+		double delta = poids_eleve / Math.max(1.0, (double)m / g.getNbSommets());
+		return (delta > 0.0 ? delta : poids_max);
+	}
+
+	/**
+	 * Renvoie le numéro du seau correspondant à la distance actuelle du sommet reçu en paramètre.
+	 *
+	 * @param distances Distances actuelles, sous forme de bits
+	 * @param s Identifiant du sommet
+	 * @param delta Largeur des seaux
+	 * @return Numéro du seau
+	 */
+	private static long numeroSeau(AtomicLongArray distances, int s, double delta){
+		return (long)(Double.longBitsToDouble(distances.get(s)) / delta);
+	}
+
+	/**
+	 * Renvoie le plus grand poids fini des arcs de la copie figée reçue en paramètre.
+	 *
+	 * @param g Copie figée du graphe
+	 * @return Poids maximal, 0 si aucun arc n'a de poids fini
+	 */
+	private static double poidsMaximal(GrapheCompact g){
+		double poids_max = 0.0;
+		for(int k=0; k<g.getNbArcs(); k++)
+			if(g.getPoids(k) > poids_max && g.getPoids(k) != Double.POSITIVE_INFINITY)
+				poids_max = g.getPoids(k);
+		return poids_max;
+	}
+
+	/**
+	 * Déduit les prédécesseurs des distances finales : chaque sommet prend un voisin entrant
+	 * dont la distance plus le poids de l'arc donne exactement la sienne.
+	 * Un voisin strictement plus proche est cherché en parallèle ; les sommets qui n'en ont pas
+	 * (arcs de poids nul) sont reliés ensuite par un parcours depuis les sommets déjà reliés, pour que l'arbre ne boucle pas.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param distances Distances finales
+	 * @param precedents Prédécesseur de chaque sommet, rempli par la méthode
+	 */
+	private static void precedents(GrapheCompact g, int depart, double[] distances, int[] precedents){
+		int n = g.getNbSommets();
+		ForkJoinPool.commonPool().invoke(new Precedents(g, distances, precedents, 0, n));
+		precedents[depart] = -1;
+
+		int[] file = new int[n];
+		int debut_file = 0, fin_file = 0;
+		boolean[] relies = new boolean[n];
+		boolean reste = false;
+		for(int s=0; s<n; s++){
+			relies[s] = s == depart || precedents[s] != -1;
+			if(relies[s] && distances[s] != Double.POSITIVE_INFINITY)
+				file[fin_file++] = s;
+			else
+				reste |= distances[s] != Double.POSITIVE_INFINITY;
+		}
+		if(!reste)
+			return;
+
+		while(debut_file < fin_file){
+			int s = file[debut_file++];
+			for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+				int cible = g.getCible(k);
+				if(!relies[cible] && distances[cible] != Double.POSITIVE_INFINITY && distances[s] + g.getPoids(k) == distances[cible]){
+					relies[cible] = true;
+					precedents[cible] = s;
+					file[fin_file++] = cible;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Relâche en parallèle les arcs légers ou lourds des sommets reçus en paramètre.
+	 * Les sommets dont la distance a baissé sont déposés dans les sorties, par lots.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param distances Distances actuelles, sous forme de bits
+	 * @param sommets Sommets dont les arcs sont relâchés
+	 * @param nb_sommets Nombre de sommets à prendre dans le tableau
+	 * @param delta Largeur des seaux
+	 * @param legers true pour relâcher les arcs légers, false pour les lourds
+	 * @param sorties Lots des sommets dont la distance a baissé
+	 */
+	private static void relacher(GrapheCompact g, AtomicLongArray distances, int[] sommets, int nb_sommets,
+			double delta, boolean legers, ConcurrentLinkedQueue<Seau> sorties){
+		Relaxation relaxation = new Relaxation(g, distances, sommets, 0, nb_sommets, delta, legers, sorties);
+		if(nb_sommets > SOMMETS_PAR_TACHE)
+			ForkJoinPool.commonPool().invoke(relaxation);
+		else
+			relaxation.compute();
+	}
+
+	/**
+	 * Range dans leur seau les sommets déposés dans les sorties, selon leur distance actuelle.
+	 *
+	 * @param distances Distances actuelles, sous forme de bits
+	 * @param seaux Tableau circulaire des seaux
+	 * @param delta Largeur des seaux
+	 * @param sorties Lots des sommets dont la distance a baissé, vidés par la méthode
+	 * @return Nombre de sommets rangés
+	 */
+	private static int repartir(AtomicLongArray distances, Seau[] seaux, double delta, ConcurrentLinkedQueue<Seau> sorties){
+		int nb_ranges = 0;
+		Seau lot;
+		while((lot = sorties.poll()) != null){
+			for(int i=0; i<lot.taille; i++){
+				int s = lot.sommets[i];
+				int case_seau = (int)(numeroSeau(distances, s, delta) % seaux.length);
+				if(seaux[case_seau] == null)
+					seaux[case_seau] = new Seau();
+				seaux[case_seau].ajouter(s);
+			}
+			nb_ranges += lot.taille;
+		}
+		return nb_ranges;
+	}
+
+	/**
+	 * Liste de sommets extensible.
+	 */
+	private static class Seau{
+		private int[] sommets = new int[16];
+		private int taille = 0;
+
+		/**
+		 * Ajoute un sommet à la fin de la liste.
+		 *
+		 * @param s Identifiant du sommet
+		 */
+		void ajouter(int s){
+			if(taille == sommets.length)
+				sommets = Arrays.copyOf(sommets, 2*taille);
+			sommets[taille++] = s;
+		}
+	}
+
+	/**
+	 * Tâche relâchant les arcs légers ou lourds d'une tranche de sommets.
+	 * Chaque distance n'est abaissée que par un échange atomique : pour des réels positifs,
+	 * l'ordre de leurs bits est celui des réels eux-mêmes.
+	 */
+	private static class Relaxation extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final GrapheCompact g;
+		private final AtomicLongArray distances;
+		private final int[] sommets;
+		private final int debut;
+		private final int fin;
+		private final double delta;
+		private final boolean legers;
+		private final ConcurrentLinkedQueue<Seau> sorties;
+
+		/**
+		 * Construit la tâche traitant les sommets compris entre debut (inclus) et fin (exclu).
+		 *
+		 * @param g Copie figée du graphe
+		 * @param distances Distances actuelles, sous forme de bits
+		 * @param sommets Sommets dont les arcs sont relâchés
+		 * @param debut Premier sommet de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 * @param delta Largeur des seaux
+		 * @param legers true pour relâcher les arcs légers, false pour les lourds
+		 * @param sorties Lots des sommets dont la distance a baissé
+		 */
+		Relaxation(GrapheCompact g, AtomicLongArray distances, int[] sommets, int debut, int fin,
+				double delta, boolean legers, ConcurrentLinkedQueue<Seau> sorties){
+			this.g = g;
+			this.distances = distances;
+			this.sommets = sommets;
+			this.debut = debut;
+			this.fin = fin;
+			this.delta = delta;
+			this.legers = legers;
+			this.sorties = sorties;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > SOMMETS_PAR_TACHE){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new Relaxation(g, distances, sommets, debut, milieu, delta, legers, sorties),
+						new Relaxation(g, distances, sommets, milieu, fin, delta, legers, sorties));
+				return;
+			}
+
+			Seau sortie = new Seau();
+			for(int i=debut; i<fin; i++){
+				int s = sommets[i];
+				double distance = Double.longBitsToDouble(distances.get(s));
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+					double poids = g.getPoids(k);
+					if(!(poids >= 0.0) || (poids <= delta) != legers)
+						continue;
+
+					int cible = g.getCible(k);
+					double distance_totale = distance + poids;
+					long actuelle = distances.get(cible);
+					while(distance_totale < Double.longBitsToDouble(actuelle)){
+						if(distances.compareAndSet(cible, actuelle, Double.doubleToLongBits(distance_totale))){
+							sortie.ajouter(cible);
+							break;
+						}
+						actuelle = distances.get(cible);
+					}
+				}
+			}
+			if(sortie.taille > 0)
+				sorties.add(sortie);
+		}
+	}
+
+	/**
+	 * Tâche cherchant, pour chaque sommet d'une tranche, un prédécesseur strictement plus proche du départ.
+	 */
+	private static class Precedents extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final GrapheCompact g;
+		private final double[] distances;
+		private final int[] precedents;
+		private final int debut;
+		private final int fin;
+
+		/**
+		 * Construit la tâche traitant les sommets compris entre debut (inclus) et fin (exclu).
+		 *
+		 * @param g Copie figée du graphe
+		 * @param distances Distances finales
+		 * @param precedents Prédécesseur de chaque sommet, -1 si aucun n'est strictement plus proche
+		 * @param debut Premier sommet de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 */
+		Precedents(GrapheCompact g, double[] distances, int[] precedents, int debut, int fin){
+			this.g = g;
+			this.distances = distances;
+			this.precedents = precedents;
+			this.debut = debut;
+			this.fin = fin;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > 8*SOMMETS_PAR_TACHE){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new Precedents(g, distances, precedents, debut, milieu), new Precedents(g, distances, precedents, milieu, fin));
+				return;
+			}
+
+			for(int s=debut; s<fin; s++){
+				precedents[s] = -1;
+				if(distances[s] == Double.POSITIVE_INFINITY)
+					continue;
+				for(int k=g.debutEntrants(s); k<g.finEntrants(s) && precedents[s] == -1; k++){
+					int source = g.getSource(k);
+					if(distances[source] < distances[s] && distances[source] + g.getPoidsEntrant(k) == distances[s])
+						precedents[s] = source;
+				}
+			}
+		}
+	}
+}
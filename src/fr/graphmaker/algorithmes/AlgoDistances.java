@@ -0,0 +1,286 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
+
+/**
+ * Classe utilisée pour calculer les plus courtes distances entre tous les couples de sommets d'une copie figée du graphe.
+ * Deux méthodes sont employées selon le graphe :
+ * 		- Graphe peu dense : un algorithme de Djikstra complet par sommet de départ, les départs étant répartis entre les coeurs
+ * 		- Graphe dense, ou ayant des arcs de poids négatif : l'algorithme de Floyd-Warshall,
+ * 		  mené par blocs de la matrice pour que les lignes utilisées restent en cache
+ * Un couple de sommets dont un chemin passe par un circuit de poids négatif n'a pas de plus courte distance :
+ * sa distance est -∞ (dans un graphe non-orienté, une seule arête de poids négatif forme déjà un tel circuit).
+ * Les arcs sans valeur numérique sont ignorés.
+ */
+public class AlgoDistances{
+	private static final int TAILLE_BLOC = 64;
+	private static final int DEPARTS_PAR_TACHE = 16;
+	private static final double DENSITE_FLOYD = 0.125;
+	private static final long TAILLE_MAX = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Calcule la matrice des plus courtes distances de la copie figée du graphe reçue en paramètre.
+	 *
+	 * @param g Copie figée du graphe
+	 * @return Résultat contenant la distance entre chaque couple de sommets
+	 * @throws IllegalArgumentException Si le graphe a trop de sommets pour que la matrice tienne dans un tableau
+	 */
+	public static ResultatDistances distances(GrapheCompact g){
+		return AlgoDistances.distances(g, null);
+	}
+
+	/**
+	 * Calcule la matrice des plus courtes distances de la copie figée du graphe reçue en paramètre,
+	 * en signalant son avancement au suivi fourni.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Résultat contenant la distance entre chaque couple de sommets
+	 * @throws IllegalArgumentException Si le graphe a trop de sommets pour que la matrice tienne dans un tableau
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
+	 */
+	public static ResultatDistances distances(GrapheCompact g, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		long taille = (long)n*n;
+		if(taille > TAILLE_MAX)
+			throw new IllegalArgumentException("Trop de sommets pour la matrice des distances : "+n);
+		double[] distances = new double[(int)taille];
+
+		boolean circuit_negatif = false;
+		if(g.aPoidsNegatif() || g.getNbArcs() >= DENSITE_FLOYD*n*n){
+			floydWarshall(g, distances, suivi);
+			circuit_negatif = marquerCircuitsNegatifs(distances, n);
+		}
+		else
+			ForkJoinPool.commonPool().invoke(new Djikstra(g, distances, 0, n, new AtomicInteger(), suivi));
+
+		return new ResultatDistances(g, distances, circuit_negatif);
+	}
+
+	/**
+	 * Remplit la matrice des distances avec l'algorithme de Floyd-Warshall par blocs.
+	 * Pour chaque bloc de sommets intermédiaires, le bloc diagonal est traité en premier,
+	 * puis les blocs de sa ligne et de sa colonne, et enfin tous les autres blocs, qui ne dépendent plus que des précédents
+	 * et sont traités en parallèle.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param distances Matrice des distances à remplir, rangée ligne par ligne
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 */
+	private static void floydWarshall(GrapheCompact g, double[] distances, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		for(int s=0; s<n; s++){
+			distances[s*n+s] = 0.0;
+			for(int k=g.debutSortants(s); k<g.finSortants(s); k++)
+				if(g.getPoids(k) < distances[s*n+g.getCible(k)])
+					distances[s*n+g.getCible(k)] = g.getPoids(k);
+		}
+
+		int nb_blocs = (n+TAILLE_BLOC-1) / TAILLE_BLOC;
+		for(int bloc=0; bloc<nb_blocs; bloc++){
+			if(suivi != null){
+				if(suivi.estAnnule())
+					throw new CancellationException();
+				suivi.progression(bloc, nb_blocs);
+			}
+
+			int debut = bloc*TAILLE_BLOC, fin = Math.min(n, debut+TAILLE_BLOC);
+			relacher(distances, n, debut, fin, debut, fin, debut, fin);
+			for(int autre=0; autre<nb_blocs; autre++){
+				if(autre == bloc)
+					continue;
+				int debut_autre = autre*TAILLE_BLOC, fin_autre = Math.min(n, debut_autre+TAILLE_BLOC);
+				relacher(distances, n, debut, fin, debut_autre, fin_autre, debut, fin);
+				relacher(distances, n, debut_autre, fin_autre, debut, fin, debut, fin);
+			}
+			ForkJoinPool.commonPool().invoke(new FloydWarshall(distances, n, bloc, 0, nb_blocs));
+		}
+	}
+
+	/**
+	 * Après l'algorithme de Floyd-Warshall, un sommet k dont la distance à lui-même est négative est sur un circuit de poids négatif :
+	 * tout couple (i, j) tel que k soit accessible depuis i et j accessible depuis k reçoit alors la distance -∞.
+	 *
+	 * @param distances Matrice des distances calculée, rangée ligne par ligne
+	 * @param n Nombre de sommets
+	 * @return true si un circuit de poids négatif a été trouvé, false sinon
+	 */
+	private static boolean marquerCircuitsNegatifs(double[] distances, int n){
+		boolean circuit_negatif = false;
+		for(int k=0; k<n; k++){
+			if(!(distances[k*n+k] < 0.0))
+				continue;
+			circuit_negatif = true;
+			for(int i=0; i<n; i++){
+				if(distances[i*n+k] == Double.POSITIVE_INFINITY)
+					continue;
+				for(int j=0; j<n; j++)
+					if(distances[k*n+j] != Double.POSITIVE_INFINITY)
+						distances[i*n+j] = Double.NEGATIVE_INFINITY;
+			}
+		}
+		return circuit_negatif;
+	}
+
+	/**
+	 * Améliore les distances d'un bloc de la matrice en passant par les sommets intermédiaires d'un autre bloc.
+	 *
+	 * @param distances Matrice des distances, rangée ligne par ligne
+	 * @param n Nombre de sommets
+	 * @param debut_lignes Première ligne du bloc à améliorer
+	 * @param fin_lignes Fin (exclue) des lignes du bloc
+	 * @param debut_colonnes Première colonne du bloc à améliorer
+	 * @param fin_colonnes Fin (exclue) des colonnes du bloc
+	 * @param debut_inter Premier sommet intermédiaire
+	 * @param fin_inter Fin (exclue) des sommets intermédiaires
+	 */
+	private static void relacher(double[] distances, int n, int debut_lignes, int fin_lignes,
+			int debut_colonnes, int fin_colonnes, int debut_inter, int fin_inter){
+		for(int k=debut_inter; k<fin_inter; k++){
+			for(int i=debut_lignes; i<fin_lignes; i++){
+				double vers_k = distances[i*n+k];
+				if(vers_k == Double.POSITIVE_INFINITY)
+					continue;
+				for(int j=debut_colonnes; j<fin_colonnes; j++){
+					double par_k = vers_k + distances[k*n+j];
+					if(par_k < distances[i*n+j])
+						distances[i*n+j] = par_k;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tâche exécutant un algorithme de Djikstra complet depuis chacun des départs d'une tranche de sommets,
+	 * chacun remplissant sa propre ligne de la matrice.
+	 */
+	private static class Djikstra extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final GrapheCompact g;
+		private final double[] distances;
+		private final int debut;
+		private final int fin;
+		private final AtomicInteger traites;
+		private final SuiviAlgorithme suivi;
+
+		/**
+		 * Construit la tâche traitant les départs compris entre debut (inclus) et fin (exclu).
+		 *
+		 * @param g Copie figée du graphe
+		 * @param distances Matrice des distances à remplir, rangée ligne par ligne
+		 * @param debut Premier départ de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 * @param traites Nombre de départs traités par l'ensemble des tâches
+		 * @param suivi Suivi de l'algorithme, peut être null
+		 */
+		Djikstra(GrapheCompact g, double[] distances, int debut, int fin, AtomicInteger traites, SuiviAlgorithme suivi){
+			this.g = g;
+			this.distances = distances;
+			this.debut = debut;
+			this.fin = fin;
+			this.traites = traites;
+			this.suivi = suivi;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > DEPARTS_PAR_TACHE){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new Djikstra(g, distances, debut, milieu, traites, suivi),
+						new Djikstra(g, distances, milieu, fin, traites, suivi));
+				return;
+			}
+
+			/*
+			 * Le tas est vide à la fin de chaque parcours complet : il sert à tous les départs de la tranche.
+			 */
+			int n = g.getNbSommets();
+			TasIndexe tas = new TasIndexe(n);
+			for(int depart=debut; depart<fin; depart++){
+				if(suivi != null){
+					if(suivi.estAnnule())
+						throw new CancellationException();
+					suivi.progression(traites.getAndIncrement(), n);
+				}
+
+				int ligne = depart*n;
+				Arrays.fill(distances, ligne, ligne+n, Double.POSITIVE_INFINITY);
+				distances[ligne+depart] = 0.0;
+				tas.ajouter(depart, 0.0);
+
+				while(!tas.estVide()){
+					int sommet_courant = tas.extraireMin();
+					for(int k=g.debutSortants(sommet_courant); k<g.finSortants(sommet_courant); k++){
+						int sommet_proche = g.getCible(k);
+						double distance_totale = distances[ligne+sommet_courant] + g.getPoids(k);
+						if(distance_totale < distances[ligne+sommet_proche]){
+							distances[ligne+sommet_proche] = distance_totale;
+							tas.ajouter(sommet_proche, distance_totale);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tâche traitant, pour un bloc de sommets intermédiaires, les blocs de lignes d'une tranche
+	 * (hors ligne et colonne du bloc intermédiaire, déjà traitées).
+	 */
+	private static class FloydWarshall extends RecursiveAction{
+		private static final long serialVersionUID = 1L;
+
+		private final double[] distances;
+		private final int n;
+		private final int bloc;
+		private final int debut;
+		private final int fin;
+
+		/**
+		 * Construit la tâche traitant les blocs de lignes compris entre debut (inclus) et fin (exclu).
+		 *
+		 * @param distances Matrice des distances, rangée ligne par ligne
+		 * @param n Nombre de sommets
+		 * @param bloc Bloc des sommets intermédiaires
+		 * @param debut Premier bloc de lignes de la tranche
+		 * @param fin Fin (exclue) de la tranche
+		 */
+		FloydWarshall(double[] distances, int n, int bloc, int debut, int fin){
+			this.distances = distances;
+			this.n = n;
+			this.bloc = bloc;
+			this.debut = debut;
+			this.fin = fin;
+		}
+
+		@Override
+		protected void compute(){
+			if(fin-debut > 1){
+				int milieu = (debut+fin) >>> 1;
+				invokeAll(new FloydWarshall(distances, n, bloc, debut, milieu), new FloydWarshall(distances, n, bloc, milieu, fin));
+				return;
+			}
+			if(debut == bloc)
+				return;
+
+			int nb_blocs = (n+TAILLE_BLOC-1) / TAILLE_BLOC;
+			int debut_inter = bloc*TAILLE_BLOC, fin_inter = Math.min(n, debut_inter+TAILLE_BLOC);
+			int debut_lignes = debut*TAILLE_BLOC, fin_lignes = Math.min(n, debut_lignes+TAILLE_BLOC);
+			for(int colonnes=0; colonnes<nb_blocs; colonnes++){
+				if(colonnes == bloc)
+					continue;
+				int debut_colonnes = colonnes*TAILLE_BLOC, fin_colonnes = Math.min(n, debut_colonnes+TAILLE_BLOC);
+				relacher(distances, n, debut_lignes, fin_lignes, debut_colonnes, fin_colonnes, debut_inter, fin_inter);
+			}
+		}
+	}
+}
@@ -1,156 +1,228 @@
 package fr.graphmaker.algorithmes;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
-import fr.graphmaker.constantes.GrapheConstantes;
-import fr.graphmaker.outils.Arc;
-import fr.graphmaker.outils.Sommet;
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
 
 /**
- * Classe utilisée pour réaliser l'algorithme de Djikstra (Chemin le plus court) sur une liste de sommets.
+ * Classe utilisée pour réaliser l'algorithme de Djikstra (Chemin le plus court) sur une copie figée du graphe.
  *
  */
 public class AlgoDjikstra{
 	
 	/**
-	 * Exécute l'algorithme de Djikstra sur la liste de sommets reçue en paramètre.
+	 * Exécute l'algorithme de Djikstra sur la copie figée du graphe reçue en paramètre.
 	 * On part du point de départ et on cherche le chemin le plus court jusqu'à l'arrivée.
-	 * 
-	 * @param depart Sommet de départ de l'algorithme
-	 * @param arrivee Sommet d'arrivée de l'algorithme
-	 * @param sommets Liste de sommets contenant les sommets de départ et d'arrivée, nécessaire pour l'initialisation.
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
-	 * 
-	 * @return Chemin le plus court (sous forme d'une liste de sommets) allant de depart à arrivee si il existe, null sinon.
+	 * Aucun sommet ni arc n'est modifié : distances, prédécesseurs et chemin sont rangés dans le résultat.
+	 * L'algorithme s'arrête dès que le sommet arrivee est définitivement traité.
 	 *
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe
 	 */
-	public static ArrayList<Sommet> djikstra(Sommet depart, Sommet arrivee, ArrayList<Sommet> sommets, int type_orientation){
-		ArrayList<Sommet> chemin = new ArrayList<Sommet>();
-		if(depart != arrivee){
-			AlgoDjikstra.init(sommets, type_orientation);
-			AlgoDjikstra.construireDjikstra(depart, arrivee, chemin, type_orientation);
-		}
-		
-		if(chemin.size() == 1)
-			chemin = null;
-		
-		return chemin;
+	public static ResultatDjikstra djikstra(GrapheCompact g, int depart, int arrivee){
+		int n = g.getNbSommets();
+		double[] distances = new double[n];
+		int[] precedents = new int[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Arrays.fill(precedents, -1);
+
+		distances[depart] = 0.0;
+		if(depart == arrivee)
+			return new ResultatDjikstra(g, depart, arrivee, distances, precedents, new int[0]);
+
+		AlgoDjikstra.explorer(g, depart, arrivee, distances, precedents);
+		return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents);
 	}
-	
+
 	/**
-	 * Uniquement dans un graphe valué (métrique).
-	 * Construit le chemin le plus court à partir du Sommet depart vers le Sommet arrivee.
-	 * Ce chemin est enregistré dans la liste chemin.
-	 * Cette fonction ne doit être appelée que lorsque tous les sommets du graphe ont été initialisés du point de vue de Djisktra. 
-	 * 
-	 * @param depart Sommet de départ de l'algorithme
-	 * @param arrivee Sommet de fin de l'algorithme
-	 * @param chemin Liste de sommets correspondant au chemin construit par l'algorithme
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
-	 * 
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
+	 * Exécute l'algorithme de Djikstra dans les deux sens sur la copie figée du graphe reçue en paramètre :
+	 * une recherche part de depart en suivant les arcs, l'autre part de arrivee en les remontant,
+	 * et la recherche dont le prochain sommet est le plus proche avance d'un sommet à chaque tour.
+	 * Chaque arc touchant un sommet atteint par les deux recherches donne un chemin candidat ;
+	 * les recherches s'arrêtent dès que la somme de leurs plus petites distances restantes
+	 * atteint le meilleur candidat, qui est alors le chemin le plus court.
+	 * Les distances du résultat sont celles de la recherche partie de depart, complétées le long du chemin.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe
 	 */
-	private static void construireDjikstra(Sommet depart, Sommet arrivee, 
-			ArrayList<Sommet> chemin, int type_orientation){
-		
-		/*
-		 * On commence par mettre la distance du sommet depart à 0,
-		 * puis on lance notre algorithme.
-		 * La file de priorité va classer les sommets qu'elle reçoit
-		 * selon leur distance de djikstra respectives.
-		 */
-		depart.setDistanceDjikstra(0.0);
-		PriorityQueue<Sommet> djikstra = new PriorityQueue<Sommet>();
-		djikstra.add(depart);
-		
-		/*
-		 * L'algorithme va tourner tant que la file de priorité n'est pas vide.
-		 * Ici chaque sommet membre du chemin va retenir son prédécesseur
-		 * ce qui permettra d'idientifier la chaine du graphe correspondant
-		 * au chemin le plus court entre depart et arrivee.
-		 */
-		while (!djikstra.isEmpty()) {
-			/*
-			 * On récupère le sommet ayant la plus grande distance de djikstra
-			 * dans la file.
-			 */
-			Sommet sommet_courant = djikstra.poll();
-			
-			/*
-			 * On va parcourir tous les arcs partants
-			 * du sommet_courant pour trouver celui ayant la plus
-			 * petite valeur associée.
-			 */
-			for (Arc arc_courant : sommet_courant.getArcsSortants()){
-				/*
-				 * On considère le sommet à l'autre bout de l'arc comme le
-				 * potentiel sommet_proche du sommet_courant.
-				 */
-				Sommet sommet_proche = arc_courant.getArrivee();
-				double distance_arc = Double.parseDouble(arc_courant.getDistance());
-				double distance_totale = sommet_courant.getDistanceDjikstra() + distance_arc;
-				
-				/*
-				 * Si la distance de djikstra totale 
-				 * (celle du sommet_courant + celle de l'arc) est plus petite
-				 * que la distance de djikstra du sommet_proche,
-				 * on met à jour ce dernier.
-				 * Sa distance de djikstra devient la distance_totale,
-				 * son prédécesseur dans Djikstra devient le sommet_courant,
-				 * et on le reclasse dans la file de priorité.
-				 */
-				if (distance_totale < sommet_proche.getDistanceDjikstra()) {
-					djikstra.remove(sommet_proche);
-					sommet_proche.setDistanceDjikstra(distance_totale);
-					sommet_proche.setPrecedentDjikstra(sommet_courant);
-					djikstra.add(sommet_proche);
+	public static ResultatDjikstra djikstraBidirectionnel(GrapheCompact g, int depart, int arrivee){
+		int n = g.getNbSommets();
+		double[] distances = new double[n];
+		int[] precedents = new int[n];
+		double[] distances_arrivee = new double[n];
+		int[] suivants = new int[n];
+		double[] poids_suivants = new double[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Arrays.fill(precedents, -1);
+		Arrays.fill(distances_arrivee, Double.POSITIVE_INFINITY);
+
+		distances[depart] = 0.0;
+		distances_arrivee[arrivee] = 0.0;
+		if(depart == arrivee)
+			return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents);
+
+		TasIndexe avant = new TasIndexe(n);
+		TasIndexe arriere = new TasIndexe(n);
+		avant.ajouter(depart, 0.0);
+		arriere.ajouter(arrivee, 0.0);
+		double meilleur = Double.POSITIVE_INFINITY;
+		int rencontre = -1;
+
+		while(!avant.estVide() && !arriere.estVide()){
+			if(avant.getCleMin() + arriere.getCleMin() >= meilleur)
+				break;
+
+			if(avant.getCleMin() <= arriere.getCleMin()){
+				int sommet_courant = avant.extraireMin();
+				for(int k=g.debutSortants(sommet_courant); k<g.finSortants(sommet_courant); k++){
+					int sommet_proche = g.getCible(k);
+					double distance_totale = distances[sommet_courant] + g.getPoids(k);
+					if(distance_totale < distances[sommet_proche]){
+						distances[sommet_proche] = distance_totale;
+						precedents[sommet_proche] = sommet_courant;
+						avant.ajouter(sommet_proche, distance_totale);
+						if(distance_totale + distances_arrivee[sommet_proche] < meilleur){
+							meilleur = distance_totale + distances_arrivee[sommet_proche];
+							rencontre = sommet_proche;
+						}
+					}
+				}
+			}
+			else{
+				int sommet_courant = arriere.extraireMin();
+				for(int k=g.debutEntrants(sommet_courant); k<g.finEntrants(sommet_courant); k++){
+					int sommet_proche = g.getSource(k);
+					double distance_totale = distances_arrivee[sommet_courant] + g.getPoidsEntrant(k);
+					if(distance_totale < distances_arrivee[sommet_proche]){
+						distances_arrivee[sommet_proche] = distance_totale;
+						suivants[sommet_proche] = sommet_courant;
+						poids_suivants[sommet_proche] = g.getPoidsEntrant(k);
+						arriere.ajouter(sommet_proche, distance_totale);
+						if(distances[sommet_proche] + distance_totale < meilleur){
+							meilleur = distances[sommet_proche] + distance_totale;
+							rencontre = sommet_proche;
+						}
+					}
 				}
 			}
 		}
-		
+
 		/*
-		 * Puisque chaque sommet membre du chemin le plus court
-		 * connait son prédécesseur dans la chaine correspondante,
-		 * on remonte la chaine à partir du sommet arrivee jusqu'au sommet depart
-		 * pour construire la liste correspondant au chemin.
+		 * Le chemin suit les prédécesseurs jusqu'au sommet de rencontre,
+		 * puis les successeurs trouvés par la recherche arrière, qui sont reportés dans les prédécesseurs.
+		 * Avec des arcs de poids nul, la partie arrière peut repasser par un sommet de la partie avant :
+		 * la rencontre est alors avancée au dernier de ces sommets, pour que le chemin ne boucle pas.
 		 */
-		for (Sommet sommet_courant = arrivee; sommet_courant != null; 
-				sommet_courant = sommet_courant.getPrecedentDjikstra()){
-			chemin.add(sommet_courant);
-			sommet_courant.setSelectionne(true, type_orientation);
-			if(sommet_courant.getPrecedentDjikstra() != null)
-				for(Arc a: sommet_courant.getPrecedentDjikstra().getArcsSortants())
-					if(a.getArrivee() == sommet_courant)
-						a.setSelectionne(true, type_orientation);
+		if(rencontre != -1){
+			boolean[] avant_rencontre = new boolean[n];
+			for(int s = rencontre; s != -1; s = precedents[s])
+				avant_rencontre[s] = true;
+			for(int s = rencontre; s != arrivee; s = suivants[s])
+				if(avant_rencontre[suivants[s]])
+					rencontre = suivants[s];
+
+			for(int s = rencontre; s != arrivee; s = suivants[s]){
+				distances[suivants[s]] = distances[s] + poids_suivants[s];
+				precedents[suivants[s]] = s;
+			}
 		}
-		
+
+		return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents);
+	}
+
+	/**
+	 * Mène l'algorithme de Djikstra depuis le sommet de départ, dont la distance doit déjà être nulle
+	 * et celle de tous les autres sommets infinie.
+	 * Si arrivee vaut -1, la recherche n'est pas arrêtée : l'arbre des plus courts chemins est alors complet.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée, -1 pour atteindre tous les sommets accessibles
+	 * @param distances Distance de chaque sommet au sommet de départ, complétée par la recherche
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, complété par la recherche
+	 */
+	static void explorer(GrapheCompact g, int depart, int arrivee, double[] distances, int[] precedents){
 		/*
-		 *  Enfin on renverse la liste chemin pour qu'elle soit classée
-		 *  de depart à arrivee et pas l'inverse.
+		 * Le tas indexé classe les sommets selon leur distance au départ.
+		 * Une fois sorti du tas, la distance d'un sommet est définitive :
+		 * si c'est le sommet arrivee, inutile d'aller plus loin.
 		 */
-		Collections.reverse(chemin);
+		TasIndexe djikstra = new TasIndexe(g.getNbSommets());
+		djikstra.ajouter(depart, 0.0);
+
+		while(!djikstra.estVide()){
+			int sommet_courant = djikstra.extraireMin();
+			if(sommet_courant == arrivee)
+				break;
+
+			for(int k=g.debutSortants(sommet_courant); k<g.finSortants(sommet_courant); k++){
+				int sommet_proche = g.getCible(k);
+				double distance_totale = distances[sommet_courant] + g.getPoids(k);
+				if(distance_totale < distances[sommet_proche]){
+					distances[sommet_proche] = distance_totale;
+					precedents[sommet_proche] = sommet_courant;
+					djikstra.ajouter(sommet_proche, distance_totale);
+				}
+			}
+		}
 	}
-	
+
+	/**
+	 * Construit le résultat d'une recherche de plus court chemin en remontant les prédécesseurs depuis l'arrivée.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @param distances Distance de chaque sommet au sommet de départ
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, -1 si aucun
+	 *
+	 * @return Résultat contenant le chemin le plus court allant de depart à arrivee si il existe
+	 */
+	static ResultatDjikstra resultat(GrapheCompact g, int depart, int arrivee, double[] distances, int[] precedents){
+		return AlgoDjikstra.resultat(g, depart, arrivee, distances, precedents, null);
+	}
+
 	/**
-	 * Initialise la liste de sommets pour la préparer à l'algorithme.
-	 * Chaque sommet du graphe est considéré à une distance infinie du sommet depart et aucun n'a pour l'instant de sommet proche.
-	 * 
-	 * @param sommets Liste de sommets à initialiser
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
-	 * 
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
+	 * Construit le résultat d'une recherche de plus court chemin en remontant les prédécesseurs depuis l'arrivée,
+	 * sauf si la recherche a trouvé un circuit de poids négatif : le résultat ne contient alors que ce circuit.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @param distances Distance de chaque sommet au sommet de départ
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, -1 si aucun
+	 * @param circuit Identifiants des sommets du circuit de poids négatif accessible depuis depart, null s'il n'existe pas
+	 *
+	 * @return Résultat contenant le chemin le plus court allant de depart à arrivee si il existe, ou le circuit
 	 */
-	private static void init(ArrayList<Sommet> sommets, int type_orientation){
-		for(Sommet s: sommets){
-			s.setSelectionne(false, type_orientation);
-			s.resetDessinArcs(type_orientation);
-			s.resetDjikstra();
-		}
+	static ResultatDjikstra resultat(GrapheCompact g, int depart, int arrivee, double[] distances, int[] precedents, int[] circuit){
+		if(circuit != null)
+			return new ResultatDjikstra(g, depart, arrivee, distances, precedents, null, circuit);
+		if(depart == arrivee)
+			return new ResultatDjikstra(g, depart, arrivee, distances, precedents, new int[0]);
+		if(precedents[arrivee] == -1)
+			return new ResultatDjikstra(g, depart, arrivee, distances, precedents, null);
+
+		/*
+		 * On remonte les prédécesseurs une première fois pour connaître
+		 * la longueur du chemin, puis une seconde pour le remplir à l'endroit.
+		 */
+		int longueur = 0;
+		for(int s = arrivee; s != -1; s = precedents[s])
+			longueur++;
+
+		int[] chemin = new int[longueur];
+		for(int s = arrivee; s != -1; s = precedents[s])
+			chemin[--longueur] = s;
+
+		return new ResultatDjikstra(g, depart, arrivee, distances, precedents, chemin);
 	}
 }
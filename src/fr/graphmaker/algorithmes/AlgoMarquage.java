@@ -1,162 +1,149 @@
 package fr.graphmaker.algorithmes;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
 
 import fr.graphmaker.constantes.GrapheConstantes;
-import fr.graphmaker.outils.Arc;
-import fr.graphmaker.outils.Sommet;
+import fr.graphmaker.modele.GrapheCompact;
 
 /**
- * Classe utilisée pour réaliser l'algorithme du marquage (Descendants et ascendants) sur une liste de sommets.
+ * Classe utilisée pour réaliser l'algorithme du marquage (Descendants et ascendants) sur une copie figée du graphe.
  *
  */
 public class AlgoMarquage implements GrapheConstantes{
 	
 	/**
-	 * Vérifie si la liste de sommets reçue constitue un graphe connexe ou non.
+	 * Vérifie si la copie figée du graphe reçue constitue un graphe connexe ou non.
+	 * Le graphe est considéré connexe si tout sommet est un descendant ou un ascendant du premier sommet.
+	 * Les descendants et ascendants sont lus sur le graphe réduit aux composantes fortement connexes :
+	 * ses composantes étant numérotées dans l'ordre topologique, un seul passage dans chaque sens suffit.
 	 * 
-	 * @param sommets Liste de sommets dont on veut vérifier la connexité
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
+	 * @param g Copie figée du graphe dont on veut vérifier la connexité
 	 * 
-	 * @return true si le graphe formé par la liste de sommets est connexe, false sinon
-	 * 
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
+	 * @return true si le graphe est connexe, false sinon
 	 */
-	public static boolean connexite(ArrayList<Sommet> sommets, int type_orientation){
-		boolean connexe = true;
+	public static boolean connexite(GrapheCompact g){
+		int n = g.getNbSommets();
 		
-		if(sommets.size() > 0){
-			AlgoMarquage.init(sommets, type_orientation);
-			AlgoMarquage.construireMarquage(sommets.get(0), sommets, type_orientation, sommets.size());
-			AlgoMarquage.construireMarquage(sommets.get(0), sommets, type_orientation, -sommets.size());
-			for(Sommet s: sommets){
-				connexe &= s.isSelectionne();
-				s.setSelectionne(false, type_orientation);
-			}
-		}
+		if(n == 0)
+			return false;
+		if(n == 1 && g.getTypeOrientation() == ORIENTE)
+			return g.getDegre(0) > 0;
+		
+		ResultatTarjan reduit = AlgoTarjan.composantes(g);
+		int nb_composantes = reduit.getNbComposantes();
+		int premiere = reduit.getComposante(0);
+		boolean[] descendantes = new boolean[nb_composantes];
+		boolean[] ascendantes = new boolean[nb_composantes];
+		descendantes[premiere] = ascendantes[premiere] = true;
+		
+		/*
+		 * Les descendantes suivent la première composante, les ascendantes la précèdent :
+		 * en remontant l'ordre topologique, les successeurs d'une composante sont déjà traités.
+		 */
+		for(int c=premiere; c<nb_composantes; c++)
+			if(descendantes[c])
+				for(int k=reduit.debutSuccesseurs(c); k<reduit.finSuccesseurs(c); k++)
+					descendantes[reduit.getSuccesseur(k)] = true;
+		for(int c=premiere-1; c>=0; c--)
+			for(int k=reduit.debutSuccesseurs(c); k<reduit.finSuccesseurs(c) && !ascendantes[c]; k++)
+				ascendantes[c] = ascendantes[reduit.getSuccesseur(k)];
 		
-		if(sommets.size() == 1 && type_orientation == ORIENTE)
-			if(sommets.get(0).getArcsSortants().size() == 0)
-				connexe = false;
+		for(int c=0; c<nb_composantes; c++)
+			if(!descendantes[c] && !ascendantes[c])
+				return false;
 		
-		return (connexe && sommets.size()>0);
+		return true;
 	}
 	
 	/**
-	 * Exécute l'algorithme de marquage sur la liste de sommets reçue en paramètre.
-	 * On part du point de départ et on cherche la liste des ascendants/descendants sur le nombre de niveaux demandés.
+	 * Exécute l'algorithme de marquage sur la copie figée du graphe reçue en paramètre.
+	 * On part du point de départ et on cherche les ascendants/descendants sur le nombre de niveaux demandés.
+	 * Aucun sommet n'est sélectionné : le résultat contient pour chaque sommet le niveau auquel il a été atteint.
 	 * Si le nombre de niveaux est négatif, on cherche les ascendants.
 	 * Sinon, on cherche les descendants.
 	 * 
-	 * @param depart Sommet de départ de l'algorithme
-	 * @param sommets Liste de sommets contenant le sommet de départ
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ de l'algorithme
 	 * @param nb_niveaux Nombre de niveaux sur lequel on cherche les descendants/ascendants
 	 * 
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
+	 * @return Résultat du marquage, donnant le niveau de chaque sommet (0 pour le sommet de départ, -1 pour les sommets non atteints)
 	 */
-	public static void marquage(Sommet depart, ArrayList<Sommet> sommets, int type_orientation, int nb_niveaux){
-		AlgoMarquage.init(sommets, type_orientation);
-		AlgoMarquage.construireMarquage(depart, sommets, type_orientation, nb_niveaux);
+	public static ResultatMarquage marquage(GrapheCompact g, int depart, int nb_niveaux){
+		return AlgoMarquage.marquage(g, depart, nb_niveaux, null);
 	}
 	
-	@SuppressWarnings("unchecked")
 	/**
-	 * Construit le marquage à partir du Sommet depart sur un nombre nb_niveaux de niveaux.
-	 * Si nb_niveaux < 0, on cherche les prédécesseurs, sinon on cherche les successeurs.
+	 * Exécute l'algorithme de marquage sur la copie figée du graphe reçue en paramètre,
+	 * en signalant son avancement au suivi fourni.
+	 * Le parcours en largeur est toujours mené jusqu'au bout : le résultat connaît le niveau de chaque sommet accessible,
+	 * ainsi que le nombre de niveaux à partir duquel le marquage est complet, quel que soit le nombre de niveaux demandé.
 	 * 
-	 * @param depart Sommet de départ de l'algorithme
-	 * @param sommets Liste de sommets à laquelle appartient le sommet de départ
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
+	 * @param g Copie figée du graphe
+	 * @param depart Identifiant du sommet de départ de l'algorithme
 	 * @param nb_niveaux Nombre de niveaux sur lequel on cherche les descendants/ascendants
+	 * @param suivi Suivi de l'algorithme, peut être null
 	 * 
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
+	 * @return Résultat du marquage, donnant le niveau de chaque sommet (0 pour le sommet de départ, -1 pour les sommets non atteints)
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
 	 */
-	private static void construireMarquage(Sommet depart, ArrayList<Sommet> sommets, int type_orientation, int nb_niveaux){
-		/*
-		 *  On utilise une liste pour parcourir le marquage en cours, 
-		 *  l'autre pour construire le prochain marquage.
-		 *  On initialise notre nombre de niveaux local pour 
-		 *  qu'il soit toujours positif (valeur absolue)
-		 *  On commence l'algorithme avec le sommet sélectionné reçu en paramètre.
-		 */
-		ArrayList<Sommet> marquage = new ArrayList<Sommet>();
-		ArrayList<Sommet> next_marquage = new ArrayList<Sommet>();
-		int tmp_niveaux = Math.abs(nb_niveaux);
-		marquage.add(depart);
+	public static ResultatMarquage marquage(GrapheCompact g, int depart, int nb_niveaux, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		boolean ascendants = (nb_niveaux < 0);
+		boolean non_oriente = (g.getTypeOrientation() == NON_ORIENTE);
+		int[] niveaux = new int[n];
+		BitSet visites = new BitSet(n);
+		int[] frontiere = new int[n];
+		int[] suivante = new int[n];
+		int taille = 0, traites = 0, niveau_complet = 0;
+		
+		Arrays.fill(niveaux, -1);
+		niveaux[depart] = 0;
+		visites.set(depart);
+		frontiere[taille++] = depart;
 		
 		/*
-		 * Tant que le nombre de niveaux local n'est pas inférieur à 0
-		 * et que la liste de marquage n'est pas vide, on fait tourner l'algorithme. 
+		 * Parcours en largeur niveau par niveau : la frontière contient les sommets du niveau courant,
+		 * et les sommets découverts en les développant forment la frontière suivante.
 		 */
-		while(tmp_niveaux >= 0 && !marquage.isEmpty()){
-			/*
-			 * Pour chacun des sommets de la liste de marquage
-			 * on cherche les successeurs/prédécesseurs directs selon le signe de nb_niveaux.
-			 */
-			for(Sommet sommet_courant: marquage){
-				// On cherche les successeurs.
-				if(nb_niveaux >= 0){
-					/*
-					 * On marque chacun des arcs sortants et
-					 * on ajoute les sommets d'arrivée de ces arcs 
-					 * à la liste du prochain marquage,
-					 * si elle ne les contient pas déjà et qu'on a 
-					 * un nombre de niveaux local supérieur à 0.
-					 */
-					for(Arc a: sommet_courant.getArcsSortants())
-						if(tmp_niveaux > 0){
-							if(!next_marquage.contains(a.getArrivee()))
-								next_marquage.add(a.getArrivee());
-							a.setSelectionne(true, type_orientation);
-						}
+		for(int niveau=0; taille>0; niveau++){
+			int taille_suivante = 0;
+			
+			for(int i=0; i<taille; i++){
+				if(suivi != null && traites%1024 == 0){
+					if(suivi.estAnnule())
+						throw new CancellationException();
+					suivi.progression(traites, n);
 				}
-				// On cherche les prédécesseurs.
-				else{
+				traites++;
+				
+				int sommet_courant = frontiere[i];
+				int debut = (ascendants ? g.debutEntrants(sommet_courant) : g.debutSortants(sommet_courant));
+				int fin = (ascendants ? g.finEntrants(sommet_courant) : g.finSortants(sommet_courant));
+				for(int k=debut; k<fin; k++){
+					int voisin = (ascendants ? g.getSource(k) : g.getCible(k));
+					if(!visites.get(voisin)){
+						visites.set(voisin);
+						niveaux[voisin] = niveau+1;
+						suivante[taille_suivante++] = voisin;
+					}
+					
 					/*
-					 * Même procédure qu'au-dessus, sauf que comme on cherche les
-					 * prédécesseurs il faut regarder les arcs du graphe ayant pour arrivée
-					 * notre sommet_courant.
+					 * L'arc est marqué dès que son origine est atteinte avant le dernier niveau,
+					 * ou, dans un graphe non-orienté, dès que l'une de ses extrémités l'est.
 					 */
-					for(Sommet s: sommets)
-						for(Arc a: s.getArcsSortants())
-							if(a.getArrivee() == sommet_courant)
-								if(tmp_niveaux > 0){
-									if(!next_marquage.contains(s))
-										next_marquage.add(s);
-									a.setSelectionne(true, type_orientation);
-								}
+					int requis = (non_oriente ? Math.min(niveau, niveaux[voisin]) : niveau) + 1;
+					niveau_complet = Math.max(niveau_complet, requis);
 				}
-				// On marque le sommet_courant avant de passer au suivant de la liste.
-				sommet_courant.setSelectionne(true, type_orientation);
 			}
-			/*
-			 * On copie la liste du prochain marquage dans la liste du marquage actuel.
-			 * On vide la liste du prochain marquage.
-			 * On décrémente le nombre de niveaux local.
-			 */
-			marquage = (ArrayList<Sommet>)next_marquage.clone();
-			next_marquage.clear();
-			tmp_niveaux--;
+			
+			int[] echange = frontiere;
+			frontiere = suivante;
+			suivante = echange;
+			taille = taille_suivante;
 		}
+		
+		return new ResultatMarquage(g, depart, nb_niveaux, niveaux, niveau_complet);
 	}
-	
-	/**
-	 * Initialise la liste de sommets pour la préparer à l'algorithme.
-	 * Chaque sommet est dé-sélectionné.
-	 * 
-	 * @param sommets Liste de sommets à préparer
-	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
-	 * 
-	 * @see GrapheConstantes#ORIENTE
-	 * @see GrapheConstantes#NON_ORIENTE
-	 */
-	private static void init(ArrayList<Sommet> sommets, int type_orientation){
-		for(Sommet s : sommets)
-			s.setSelectionne(false, type_orientation);
-	}
-
 }
@@ -0,0 +1,161 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe utilisée pour calculer les composantes fortement connexes d'une copie figée du graphe (algorithme de Tarjan).
+ * Le parcours en profondeur est mené avec une pile explicite, il n'est donc pas limité par la profondeur de la pile d'appels.
+ * Les composantes sont numérotées dans l'ordre topologique du graphe réduit :
+ * tout arc reliant deux composantes différentes va de la plus petite à la plus grande.
+ * Dans un graphe non-orienté, les composantes fortement connexes sont les composantes connexes.
+ */
+public class AlgoTarjan{
+
+	/**
+	 * Calcule les composantes fortement connexes de la copie figée du graphe reçue en paramètre.
+	 *
+	 * @param g Copie figée du graphe
+	 * @return Résultat donnant la composante de chaque sommet et le graphe réduit
+	 */
+	public static ResultatTarjan composantes(GrapheCompact g){
+		return AlgoTarjan.composantes(g, null);
+	}
+
+	/**
+	 * Calcule les composantes fortement connexes de la copie figée du graphe reçue en paramètre,
+	 * en signalant son avancement au suivi fourni.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Résultat donnant la composante de chaque sommet et le graphe réduit
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
+	 */
+	public static ResultatTarjan composantes(GrapheCompact g, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		int[] ordres = new int[n];
+		int[] minimums = new int[n];
+		int[] composantes = new int[n];
+		int[] pile = new int[n];
+		int[] appels = new int[n];
+		int[] prochains = new int[n];
+		int hauteur_pile = 0, nb_composantes = 0, nb_visites = 0;
+
+		Arrays.fill(ordres, -1);
+		Arrays.fill(composantes, -1);
+
+		for(int racine=0; racine<n; racine++){
+			if(ordres[racine] != -1)
+				continue;
+
+			/*
+			 * appels simule la pile d'appels du parcours en profondeur,
+			 * et prochains[s] donne l'indice du prochain arc sortant de s à explorer.
+			 */
+			int hauteur_appels = 0;
+			ordres[racine] = minimums[racine] = nb_visites++;
+			pile[hauteur_pile++] = racine;
+			prochains[racine] = g.debutSortants(racine);
+			appels[hauteur_appels++] = racine;
+
+			while(hauteur_appels > 0){
+				int s = appels[hauteur_appels-1];
+
+				if(prochains[s] < g.finSortants(s)){
+					int voisin = g.getCible(prochains[s]++);
+					if(ordres[voisin] == -1){
+						if(suivi != null && nb_visites%1024 == 0){
+							if(suivi.estAnnule())
+								throw new CancellationException();
+							suivi.progression(nb_visites, n);
+						}
+						ordres[voisin] = minimums[voisin] = nb_visites++;
+						pile[hauteur_pile++] = voisin;
+						prochains[voisin] = g.debutSortants(voisin);
+						appels[hauteur_appels++] = voisin;
+					}
+					else if(composantes[voisin] == -1)
+						minimums[s] = Math.min(minimums[s], ordres[voisin]);
+					continue;
+				}
+
+				/*
+				 * Tous les arcs de s ont été explorés : s est la racine d'une composante
+				 * si aucun sommet encore sur la pile n'est accessible depuis sa descendance.
+				 */
+				hauteur_appels--;
+				if(minimums[s] == ordres[s]){
+					int membre;
+					do{
+						membre = pile[--hauteur_pile];
+						composantes[membre] = nb_composantes;
+					}while(membre != s);
+					nb_composantes++;
+				}
+				if(hauteur_appels > 0){
+					int parent = appels[hauteur_appels-1];
+					minimums[parent] = Math.min(minimums[parent], minimums[s]);
+				}
+			}
+		}
+
+		/*
+		 * Tarjan termine les composantes dans l'ordre topologique inverse :
+		 * la numérotation est retournée pour que les arcs du graphe réduit aillent vers les plus grands numéros.
+		 */
+		for(int s=0; s<n; s++)
+			composantes[s] = nb_composantes-1 - composantes[s];
+
+		return reduire(g, composantes, nb_composantes);
+	}
+
+	/**
+	 * Construit le graphe réduit, dont les sommets sont les composantes et où deux composantes
+	 * sont reliées (une seule fois) dès qu'un arc du graphe va de l'une à l'autre.
+	 *
+	 * @param g Copie figée du graphe
+	 * @param composantes Composante de chaque sommet
+	 * @param nb_composantes Nombre de composantes
+	 * @return Résultat de l'algorithme
+	 */
+	private static ResultatTarjan reduire(GrapheCompact g, int[] composantes, int nb_composantes){
+		int n = g.getNbSommets();
+
+		/*
+		 * Tri des sommets par composante (tri par dénombrement), pour parcourir chaque composante d'un bloc.
+		 */
+		int[] debuts_membres = new int[nb_composantes+1];
+		for(int s=0; s<n; s++)
+			debuts_membres[composantes[s]+1]++;
+		for(int c=0; c<nb_composantes; c++)
+			debuts_membres[c+1] += debuts_membres[c];
+		int[] membres = new int[n];
+		int[] positions = Arrays.copyOf(debuts_membres, nb_composantes);
+		for(int s=0; s<n; s++)
+			membres[positions[composantes[s]]++] = s;
+
+		int[] debuts = new int[nb_composantes+1];
+		int[] successeurs = new int[g.getNbArcs()];
+		int[] vus = new int[nb_composantes];
+		int nb_arcs = 0;
+		Arrays.fill(vus, -1);
+
+		for(int c=0; c<nb_composantes; c++){
+			for(int i=debuts_membres[c]; i<debuts_membres[c+1]; i++){
+				int s = membres[i];
+				for(int k=g.debutSortants(s); k<g.finSortants(s); k++){
+					int cible = composantes[g.getCible(k)];
+					if(cible != c && vus[cible] != c){
+						vus[cible] = c;
+						successeurs[nb_arcs++] = cible;
+					}
+				}
+			}
+			debuts[c+1] = nb_arcs;
+		}
+
+		return new ResultatTarjan(g, composantes, nb_composantes, debuts, Arrays.copyOf(successeurs, nb_arcs));
+	}
+}
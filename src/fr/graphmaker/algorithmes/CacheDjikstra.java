@@ -0,0 +1,142 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
+
+/**
+ * Classe gardant en mémoire les arbres des plus courts chemins des derniers sommets de départ utilisés.
+ * La première recherche depuis un départ se fait par l'algorithme A*, qui ne traite qu'une partie du graphe,
+ * et son état est gardé : une nouvelle arrivée depuis le même départ reprend la recherche là où elle s'était arrêtée,
+ * sans retraiter les sommets déjà traités, et ne demande que de remonter les prédécesseurs si l'arrivée est déjà traitée.
+ * Au fil des recherches, l'arbre se complète jusqu'à contenir tous les sommets accessibles.
+ * Il est calculé entièrement dès la première recherche par le delta-stepping parallèle sur les très grands graphes
+ * (à partir de ARCS_PARALLELES arcs, si plusieurs coeurs sont disponibles ; ce seuil est une estimation, il n'a pas été mesuré sur une machine à plusieurs coeurs),
+ * ou par l'algorithme de Bellman-Ford si un arc a un poids négatif ; le circuit de poids négatif éventuellement trouvé est gardé avec l'arbre.
+ * Au-delà de CAPACITE arbres, celui du départ utilisé le moins récemment est oublié.
+ * Les arbres sont rattachés à une copie figée du graphe et à un nombre de modifications :
+ * dès que ce nombre change, tous les arbres sont oubliés.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ */
+public class CacheDjikstra{
+	private static final int CAPACITE = 8;
+	private static final int ARCS_PARALLELES = 1 << 20;
+
+	private final LinkedHashMap<Integer, Arbre> arbres = new LinkedHashMap<Integer, Arbre>(2*CAPACITE, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Arbre> plus_ancien){
+			return size() > CAPACITE;
+		}
+	};
+	private GrapheCompact graphe;
+	private int modifications;
+
+	/**
+	 * Cherche le chemin le plus court allant de depart à arrivee dans la copie figée courante.
+	 * Si l'arbre du départ est en mémoire, la recherche reprend là où la précédente s'était arrêtée,
+	 * ou se contente de remonter les prédécesseurs si arrivee est déjà traitée.
+	 *
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @return Résultat contenant le chemin le plus court allant de depart à arrivee si il existe
+	 * @throws IllegalStateException Si aucune copie figée n'a été fournie
+	 *
+	 * @see #vider(GrapheCompact, int)
+	 */
+	public ResultatDjikstra djikstra(int depart, int arrivee){
+		if(graphe == null)
+			throw new IllegalStateException("Aucune copie figée du graphe");
+
+		Arbre arbre = arbres.get(depart);
+		if(arbre == null){
+			int n = graphe.getNbSommets();
+			double[] distances = new double[n];
+			int[] precedents = new int[n];
+			int[] circuit = null;
+			TasIndexe frontiere = null;
+			Arrays.fill(distances, Double.POSITIVE_INFINITY);
+			Arrays.fill(precedents, -1);
+			distances[depart] = 0.0;
+			if(graphe.aPoidsNegatif())
+				circuit = AlgoBellmanFord.explorer(graphe, depart, distances, precedents);
+			else if(graphe.getNbArcs() >= ARCS_PARALLELES && Runtime.getRuntime().availableProcessors() > 1)
+				AlgoDeltaStepping.explorer(graphe, depart, distances, precedents);
+			else{
+				frontiere = new TasIndexe(n);
+				frontiere.ajouter(depart, 0.0);
+			}
+			arbre = new Arbre(distances, precedents, circuit, frontiere);
+			arbres.put(depart, arbre);
+		}
+
+		if(arbre.frontiere != null){
+			AlgoAEtoile.poursuivre(graphe, arrivee, arbre.distances, arbre.precedents, arbre.frontiere);
+			if(arbre.frontiere.estVide())
+				arbre.frontiere = null;
+		}
+
+		return AlgoDjikstra.resultat(graphe, depart, arrivee, arbre.distances, arbre.precedents, arbre.circuit);
+	}
+
+	/**
+	 * Vérifie si les arbres en mémoire correspondent au nombre de modifications reçu en paramètre.
+	 *
+	 * @param modifications Nombre de modifications actuel du graphe
+	 * @return true si les arbres sont utilisables, false s'il faut vider le cache
+	 */
+	public boolean estAJour(int modifications){
+		return graphe != null && this.modifications == modifications;
+	}
+
+	/**
+	 * Renvoie la copie figée à laquelle les arbres en mémoire sont rattachés.
+	 *
+	 * @return Copie figée du graphe, null si aucune n'a été fournie
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+
+	/**
+	 * Oublie tous les arbres en mémoire et rattache les suivants à une nouvelle copie figée.
+	 *
+	 * @param graphe Nouvelle copie figée du graphe
+	 * @param modifications Nombre de modifications du graphe correspondant à cette copie
+	 */
+	public void vider(GrapheCompact graphe, int modifications){
+		arbres.clear();
+		this.graphe = graphe;
+		this.modifications = modifications;
+	}
+
+	/**
+	 * Arbre des plus courts chemins d'un sommet de départ, éventuellement incomplet.
+	 * Tant que la frontière existe, seules les distances des sommets qui n'y sont pas (et ont été atteints) sont définitives.
+	 */
+	private static class Arbre{
+		private final double[] distances;
+		private final int[] precedents;
+		private final int[] circuit;
+		private TasIndexe frontiere;
+
+		/**
+		 * Construit l'arbre à partir de ses tableaux, qui en deviennent la propriété.
+		 *
+		 * @param distances Distance de chaque sommet au sommet de départ
+		 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, -1 si aucun
+		 * @param circuit Circuit de poids négatif accessible depuis le départ, null s'il n'existe pas
+		 * @param frontiere Sommets atteints mais pas encore traités, null si l'arbre est complet
+		 */
+		Arbre(double[] distances, int[] precedents, int[] circuit, TasIndexe frontiere){
+			this.distances = distances;
+			this.precedents = precedents;
+			this.circuit = circuit;
+			this.frontiere = frontiere;
+		}
+	}
+}
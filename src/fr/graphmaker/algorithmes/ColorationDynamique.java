@@ -0,0 +1,260 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import fr.graphmaker.constantes.GrapheConstantes;
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.Arc;
+import fr.graphmaker.outils.EcouteurGraphe;
+import fr.graphmaker.outils.Sommet;
+
+/**
+ * Classe maintenant une coloration valide d'un graphe au fil de ses modifications, sans la recalculer entièrement.
+ * Elle part du résultat d'une coloration complète, puis, comme écouteur du graphe, répare localement chaque modification :
+ * 		- Arc ajouté entre deux sommets de même couleur : celui des deux qui peut prendre la plus petite couleur libre est recoloré,
+ * 		  puis ses voisins essaient de reprendre la couleur qu'il a libérée
+ * 		- Arête supprimée : ses deux extrémités essaient de descendre vers une plus petite couleur libre
+ * 		- Sommet ajouté : il reçoit la première couleur libre
+ * Le minorant du nombre chromatique reste valable après un ajout, et baisse au plus de 1 après chaque suppression.
+ * Lorsque le nombre de couleurs dépasse de plus de DERIVE_COLORATION celui de la coloration complète,
+ * la coloration est considérée comme dérivée et doit être recalculée entièrement.
+ * Les sommets y sont désignés directement (et non par leur identifiant, qui change lors des suppressions).
+ */
+public class ColorationDynamique implements EcouteurGraphe, GrapheConstantes{
+	private IdentityHashMap<Sommet, Integer> couleurs = new IdentityHashMap<Sommet, Integer>();
+	private int[] effectifs = new int[1];
+	private int nb_couleurs = 0;
+	private int nb_reference;
+	private int borne_inferieure;
+
+	/**
+	 * Construit la coloration à partir du résultat d'une coloration complète.
+	 * Le graphe a pu être modifié depuis la création de la copie figée colorée :
+	 * les sommets ajoutés depuis sont colorés, les conflits éventuels réparés,
+	 * et le minorant n'est conservé que si le nombre de sommets et d'arcs n'a pas changé.
+	 *
+	 * @param resultat Résultat de la coloration complète
+	 * @param sommets Liste actuelle des sommets du graphe
+	 */
+	public ColorationDynamique(ResultatBrelaz resultat, ArrayList<Sommet> sommets){
+		GrapheCompact g = resultat.getGraphe();
+		nb_reference = resultat.getNbChromatique();
+		borne_inferieure = resultat.getBorneInferieure();
+
+		int nb_arcs = 0;
+		for(Sommet s: sommets){
+			int id = g.getIdentifiant(s);
+			if(id != -1)
+				affecter(s, resultat.getCouleur(id));
+			nb_arcs += s.getArcsSortants().size();
+		}
+		if(sommets.size() != g.getNbSommets() || nb_arcs != g.getNbArcs())
+			borne_inferieure = 0;
+		for(Sommet s: sommets){
+			Integer c = couleurs.get(s);
+			if(c == null || !estLibre(s, c))
+				affecter(s, premiereCouleurLibre(s));
+		}
+	}
+
+	@Override
+	public void arcAjoute(Arc a){
+		Sommet depart = a.getDepart(), arrivee = a.getArrivee();
+		if(depart == arrivee || !couleurs.containsKey(depart) || !couleurs.containsKey(arrivee))
+			return;
+
+		borne_inferieure = Math.max(borne_inferieure, 2);
+		int c = couleurs.get(depart);
+		if(c != couleurs.get(arrivee))
+			return;
+
+		/*
+		 * Le sommet recoloré est celui qui trouve la plus petite couleur libre,
+		 * puis ses voisins essaient de reprendre la couleur qu'il laisse.
+		 */
+		Sommet recolore = arrivee;
+		int nouvelle = premiereCouleurLibre(arrivee);
+		int nouvelle_depart = premiereCouleurLibre(depart);
+		if(nouvelle_depart < nouvelle){
+			recolore = depart;
+			nouvelle = nouvelle_depart;
+		}
+
+		affecter(recolore, nouvelle);
+		for(Arc voisin: recolore.getArcsSortants())
+			abaisser(voisin.getArrivee());
+		for(Arc voisin: recolore.getArcsEntrants())
+			abaisser(voisin.getDepart());
+	}
+
+	@Override
+	public void arcSupprime(Arc a){
+		Sommet depart = a.getDepart(), arrivee = a.getArrivee();
+		if(depart == arrivee || depart.getArcSortant(arrivee) != null || arrivee.getArcSortant(depart) != null)
+			return;
+
+		borne_inferieure = Math.max(0, borne_inferieure-1);
+		abaisser(depart);
+		abaisser(arrivee);
+	}
+
+	/**
+	 * Vérifie si la coloration s'est trop éloignée de la dernière coloration complète et doit être recalculée.
+	 *
+	 * @return true si le nombre de couleurs a augmenté de plus de DERIVE_COLORATION, false sinon
+	 *
+	 * @see GrapheConstantes#DERIVE_COLORATION
+	 */
+	public boolean estDerivee(){
+		return nb_couleurs - nb_reference > DERIVE_COLORATION;
+	}
+
+	/**
+	 * Vérifie si le nombre de couleurs utilisées est prouvé égal au nombre chromatique.
+	 *
+	 * @return true si le nombre de couleurs est égal à son minorant, false sinon
+	 */
+	public boolean estExact(){
+		return borne_inferieure == nb_couleurs;
+	}
+
+	/**
+	 * Renvoie le minorant du nombre chromatique.
+	 *
+	 * @return Minorant du nombre chromatique
+	 */
+	public int getBorneInferieure(){
+		return borne_inferieure;
+	}
+
+	/**
+	 * Renvoie la classe de couleur du sommet reçu en paramètre.
+	 *
+	 * @param s Sommet dont on veut la couleur
+	 * @return Classe de couleur du sommet, -1 s'il ne fait pas partie du graphe coloré
+	 */
+	public int getCouleur(Sommet s){
+		Integer c = couleurs.get(s);
+		return (c == null ? -1 : c);
+	}
+
+	/**
+	 * Renvoie le nombre de couleurs utilisées, qui majore le nombre chromatique.
+	 *
+	 * @return Nombre de couleurs utilisées
+	 */
+	public int getNbChromatique(){
+		return nb_couleurs;
+	}
+
+	@Override
+	public void sommetAjoute(Sommet s){
+		borne_inferieure = Math.max(borne_inferieure, 1);
+		affecter(s, premiereCouleurLibre(s));
+	}
+
+	@Override
+	public void sommetSupprime(Sommet s){
+		Integer c = couleurs.remove(s);
+		if(c != null){
+			borne_inferieure = Math.max(0, borne_inferieure-1);
+			effectifs[c]--;
+			ajusterNbCouleurs();
+		}
+	}
+
+	/**
+	 * Donne au sommet reçu en paramètre la première couleur libre si elle est plus petite que la sienne.
+	 *
+	 * @param s Sommet à recolorer
+	 */
+	private void abaisser(Sommet s){
+		Integer c = couleurs.get(s);
+		if(c != null){
+			int libre = premiereCouleurLibre(s);
+			if(libre < c)
+				affecter(s, libre);
+		}
+	}
+
+	/**
+	 * Donne la couleur reçue en paramètre au sommet, en tenant à jour le nombre de sommets de chaque couleur.
+	 *
+	 * @param s Sommet à colorer
+	 * @param c Classe de couleur
+	 */
+	private void affecter(Sommet s, int c){
+		Integer ancienne = couleurs.put(s, c);
+		if(ancienne != null)
+			effectifs[ancienne]--;
+
+		if(c >= effectifs.length){
+			int[] agrandi = new int[Math.max(c+1, 2*effectifs.length)];
+			System.arraycopy(effectifs, 0, agrandi, 0, effectifs.length);
+			effectifs = agrandi;
+		}
+		effectifs[c]++;
+		nb_couleurs = Math.max(nb_couleurs, c+1);
+		ajusterNbCouleurs();
+	}
+
+	/**
+	 * Recalcule le nombre de couleurs utilisées après que des couleurs ont pu se vider.
+	 */
+	private void ajusterNbCouleurs(){
+		while(nb_couleurs > 0 && effectifs[nb_couleurs-1] == 0)
+			nb_couleurs--;
+	}
+
+	/**
+	 * Vérifie qu'aucun voisin du sommet reçu en paramètre n'a la couleur c.
+	 *
+	 * @param s Sommet concerné
+	 * @param c Classe de couleur
+	 * @return true si la couleur est libre, false sinon
+	 */
+	private boolean estLibre(Sommet s, int c){
+		for(Arc a: s.getArcsSortants())
+			if(a.getArrivee() != s && Integer.valueOf(c).equals(couleurs.get(a.getArrivee())))
+				return false;
+		for(Arc a: s.getArcsEntrants())
+			if(a.getDepart() != s && Integer.valueOf(c).equals(couleurs.get(a.getDepart())))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Marque la couleur du voisin reçu en paramètre comme prise, si elle fait partie des couleurs envisagées.
+	 *
+	 * @param prises Couleurs prises autour du sommet
+	 * @param s Sommet concerné
+	 * @param voisin Voisin du sommet
+	 */
+	private void marquer(boolean[] prises, Sommet s, Sommet voisin){
+		Integer c = couleurs.get(voisin);
+		if(voisin != s && c != null && c < prises.length)
+			prises[c] = true;
+	}
+
+	/**
+	 * Renvoie la plus petite couleur qu'aucun voisin du sommet reçu en paramètre n'utilise.
+	 * Un sommet de degré d a toujours une couleur libre parmi les d+1 premières.
+	 *
+	 * @param s Sommet concerné
+	 * @return Première couleur libre
+	 */
+	private int premiereCouleurLibre(Sommet s){
+		int degre = s.getArcsSortants().size() + s.getArcsEntrants().size();
+		boolean[] prises = new boolean[degre+1];
+		for(Arc a: s.getArcsSortants())
+			marquer(prises, s, a.getArrivee());
+		for(Arc a: s.getArcsEntrants())
+			marquer(prises, s, a.getDepart());
+
+		int c = 0;
+		while(prises[c])
+			c++;
+		return c;
+	}
+}
@@ -0,0 +1,148 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.ArrayList;
+
+import fr.graphmaker.outils.Arc;
+import fr.graphmaker.outils.EcouteurGraphe;
+import fr.graphmaker.outils.Sommet;
+
+/**
+ * Classe tenant à jour les composantes connexes d'un graphe (arcs pris sans leur orientation) avec une structure union-find.
+ * Comme écouteur du graphe, elle réunit les composantes des deux extrémités de chaque arc ajouté,
+ * et crée une nouvelle composante pour chaque sommet ajouté.
+ * Une suppression ne pouvant pas être défaite dans une structure union-find, elle marque seulement la structure
+ * comme à reconstruire : la reconstruction est faite lors de la consultation suivante.
+ * Les sommets y sont désignés par leur identifiant, qui correspond à leur position dans la liste du graphe.
+ */
+public class ComposantesConnexes implements EcouteurGraphe{
+	private final ArrayList<Sommet> sommets;
+	private int[] parents = new int[16];
+	private int[] tailles = new int[16];
+	private int nb_sommets = 0;
+	private int nb_composantes = 0;
+	private boolean a_reconstruire = true;
+
+	/**
+	 * Construit la structure pour la liste de sommets du graphe reçue en paramètre.
+	 * La liste est celle du graphe lui-même : elle est relue à chaque reconstruction.
+	 *
+	 * @param sommets Liste des sommets du graphe
+	 */
+	public ComposantesConnexes(ArrayList<Sommet> sommets){
+		this.sommets = sommets;
+	}
+
+	@Override
+	public void arcAjoute(Arc a){
+		if(!a_reconstruire)
+			reunir(a.getDepart().getIdentifiant(), a.getArrivee().getIdentifiant());
+	}
+
+	@Override
+	public void arcSupprime(Arc a){
+		a_reconstruire = true;
+	}
+
+	/**
+	 * Vérifie si le graphe est connexe, c'est-à-dire s'il est constitué d'une seule composante.
+	 *
+	 * @return true si le graphe est connexe, false sinon (et pour un graphe vide)
+	 */
+	public boolean estConnexe(){
+		return getNbComposantes() == 1;
+	}
+
+	/**
+	 * Renvoie le nombre de composantes connexes du graphe.
+	 *
+	 * @return Nombre de composantes connexes
+	 */
+	public int getNbComposantes(){
+		if(a_reconstruire)
+			reconstruire();
+		return nb_composantes;
+	}
+
+	@Override
+	public void sommetAjoute(Sommet s){
+		if(!a_reconstruire){
+			if(s.getIdentifiant() == nb_sommets)
+				ajouter();
+			else
+				a_reconstruire = true;
+		}
+	}
+
+	@Override
+	public void sommetSupprime(Sommet s){
+		a_reconstruire = true;
+	}
+
+	/**
+	 * Ajoute un sommet isolé, formant sa propre composante.
+	 */
+	private void ajouter(){
+		if(nb_sommets == parents.length){
+			int[] agrandi = new int[2*parents.length];
+			System.arraycopy(parents, 0, agrandi, 0, nb_sommets);
+			parents = agrandi;
+			agrandi = new int[2*tailles.length];
+			System.arraycopy(tailles, 0, agrandi, 0, nb_sommets);
+			tailles = agrandi;
+		}
+		parents[nb_sommets] = nb_sommets;
+		tailles[nb_sommets] = 1;
+		nb_sommets++;
+		nb_composantes++;
+	}
+
+	/**
+	 * Reconstruit entièrement la structure à partir des sommets et des arcs actuels du graphe.
+	 */
+	private void reconstruire(){
+		nb_sommets = 0;
+		nb_composantes = 0;
+		for(int i=0; i<sommets.size(); i++)
+			ajouter();
+		for(Sommet s: sommets)
+			for(Arc a: s.getArcsSortants())
+				reunir(s.getIdentifiant(), a.getArrivee().getIdentifiant());
+		a_reconstruire = false;
+	}
+
+	/**
+	 * Réunit les composantes des deux sommets reçus en paramètre, la plus petite étant rattachée à la plus grande.
+	 *
+	 * @param a Identifiant du premier sommet
+	 * @param b Identifiant du second sommet
+	 */
+	private void reunir(int a, int b){
+		int racine_a = trouver(a), racine_b = trouver(b);
+		if(racine_a == racine_b)
+			return;
+
+		if(tailles[racine_a] < tailles[racine_b]){
+			int echange = racine_a;
+			racine_a = racine_b;
+			racine_b = echange;
+		}
+		parents[racine_b] = racine_a;
+		tailles[racine_a] += tailles[racine_b];
+		nb_composantes--;
+	}
+
+	/**
+	 * Renvoie le représentant de la composante du sommet reçu en paramètre.
+	 * Le chemin parcouru est raccourci au passage (chaque sommet pointe vers son grand-parent).
+	 *
+	 * @param s Identifiant du sommet
+	 * @return Identifiant du représentant de sa composante
+	 */
+	private int trouver(int s){
+		while(parents[s] != s){
+			parents[s] = parents[parents[s]];
+			s = parents[s];
+		}
+		return s;
+	}
+}
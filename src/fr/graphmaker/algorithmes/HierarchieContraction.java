@@ -0,0 +1,339 @@
+package fr.graphmaker.algorithmes;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe représentant (de façon non modifiable) une hiérarchie de contraction d'une copie figée du graphe.
+ * 		- Tableau d'entiers : Le rang de chaque sommet, c'est-à-dire sa position dans l'ordre de contraction
+ * 		- Les arcs montants sortants : pour chaque sommet, ses arcs vers des sommets de rang plus élevé (format CSR)
+ * 		- Les arcs montants entrants : pour chaque sommet, les arcs venant de sommets de rang plus élevé (format CSR)
+ * 		- Tableaux d'entiers : Le sommet contourné par chaque arc, -1 pour un arc du graphe et un sommet de rang plus faible pour un raccourci
+ * 		- Entier long : L'empreinte des arcs de la copie figée, pour savoir si la hiérarchie correspond toujours au graphe
+ * Un raccourci (u, w) contournant v remplace le chemin formé par l'arc entrant (u, v) et l'arc sortant (v, w) de v.
+ * Les sommets du coeur (les derniers classés, jamais contractés) gardent tous leurs arcs entre eux, quel que soit leur rang.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ *
+ * @see AlgoContraction
+ */
+public class HierarchieContraction{
+	private final int nb_sommets;
+	private final long empreinte;
+	private final int[] rangs;
+	private final int[] debuts_sortants;
+	private final int[] cibles;
+	private final double[] poids_sortants;
+	private final int[] milieux_sortants;
+	private final int[] debuts_entrants;
+	private final int[] sources;
+	private final double[] poids_entrants;
+	private final int[] milieux_entrants;
+
+	/**
+	 * Construit la hiérarchie à partir des tableaux calculés par l'algorithme (ou relus), qui en deviennent la propriété.
+	 *
+	 * @param empreinte Empreinte des arcs de la copie figée contractée
+	 * @param rangs Rang de chaque sommet
+	 * @param debuts_sortants Pour chaque sommet, l'indice de début de ses arcs montants sortants
+	 * @param cibles Sommet d'arrivée de chaque arc montant sortant
+	 * @param poids_sortants Poids de chaque arc montant sortant
+	 * @param milieux_sortants Sommet contourné par chaque arc montant sortant, -1 si aucun
+	 * @param debuts_entrants Pour chaque sommet, l'indice de début de ses arcs montants entrants
+	 * @param sources Sommet de départ de chaque arc montant entrant
+	 * @param poids_entrants Poids de chaque arc montant entrant
+	 * @param milieux_entrants Sommet contourné par chaque arc montant entrant, -1 si aucun
+	 */
+	HierarchieContraction(long empreinte, int[] rangs, int[] debuts_sortants, int[] cibles, double[] poids_sortants, int[] milieux_sortants,
+			int[] debuts_entrants, int[] sources, double[] poids_entrants, int[] milieux_entrants){
+		this.nb_sommets = rangs.length;
+		this.empreinte = empreinte;
+		this.rangs = rangs;
+		this.debuts_sortants = debuts_sortants;
+		this.cibles = cibles;
+		this.poids_sortants = poids_sortants;
+		this.milieux_sortants = milieux_sortants;
+		this.debuts_entrants = debuts_entrants;
+		this.sources = sources;
+		this.poids_entrants = poids_entrants;
+		this.milieux_entrants = milieux_entrants;
+	}
+
+	/**
+	 * Cherche parmi les arcs montants entrants du sommet reçu en paramètre celui qui vient de source.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @param source Identifiant du sommet de départ de l'arc
+	 * @return Indice de l'arc, -1 s'il n'existe pas
+	 */
+	public int chercherEntrant(int sommet, int source){
+		for(int k=debuts_entrants[sommet]; k<debuts_entrants[sommet+1]; k++)
+			if(sources[k] == source)
+				return k;
+		return -1;
+	}
+
+	/**
+	 * Cherche parmi les arcs montants sortants du sommet reçu en paramètre celui qui va vers cible.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @param cible Identifiant du sommet d'arrivée de l'arc
+	 * @return Indice de l'arc, -1 s'il n'existe pas
+	 */
+	public int chercherSortant(int sommet, int cible){
+		for(int k=debuts_sortants[sommet]; k<debuts_sortants[sommet+1]; k++)
+			if(cibles[k] == cible)
+				return k;
+		return -1;
+	}
+
+	/**
+	 * Vérifie si la hiérarchie a été construite à partir d'un graphe ayant les mêmes sommets et les mêmes arcs
+	 * (avec les mêmes poids) que la copie figée reçue en paramètre.
+	 *
+	 * @param g Copie figée du graphe
+	 * @return true si la hiérarchie correspond à la copie, false sinon
+	 */
+	public boolean correspond(GrapheCompact g){
+		return g.getNbSommets() == nb_sommets && HierarchieContraction.empreinte(g) == empreinte;
+	}
+
+	/**
+	 * Renvoie l'indice de début des arcs montants entrants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de début de ses arcs montants entrants
+	 */
+	public int debutEntrants(int sommet){
+		return debuts_entrants[sommet];
+	}
+
+	/**
+	 * Renvoie l'indice de début des arcs montants sortants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de début de ses arcs montants sortants
+	 */
+	public int debutSortants(int sommet){
+		return debuts_sortants[sommet];
+	}
+
+	/**
+	 * Écrit la hiérarchie dans le flux fourni, au format texte (une ligne par sommet puis par arc, valeurs séparées par des virgules).
+	 * Le flux n'est pas fermé par cette méthode.
+	 *
+	 * @param w Flux de sortie
+	 * @throws IOException Si l'écriture échoue
+	 *
+	 * @see #lire(Reader)
+	 */
+	public void ecrire(Writer w) throws IOException{
+		w.write(nb_sommets+","+empreinte+","+cibles.length+","+sources.length+"\n");
+		for(int s=0; s<nb_sommets; s++)
+			w.write(rangs[s]+"\n");
+		for(int s=0; s<nb_sommets; s++)
+			for(int k=debuts_sortants[s]; k<debuts_sortants[s+1]; k++)
+				w.write(s+","+cibles[k]+","+poids_sortants[k]+","+milieux_sortants[k]+"\n");
+		for(int s=0; s<nb_sommets; s++)
+			for(int k=debuts_entrants[s]; k<debuts_entrants[s+1]; k++)
+				w.write(s+","+sources[k]+","+poids_entrants[k]+","+milieux_entrants[k]+"\n");
+		w.flush();
+	}
+
+	/**
+	 * Renvoie l'indice de fin (exclu) des arcs montants entrants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de fin de ses arcs montants entrants
+	 */
+	public int finEntrants(int sommet){
+		return debuts_entrants[sommet+1];
+	}
+
+	/**
+	 * Renvoie l'indice de fin (exclu) des arcs montants sortants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de fin de ses arcs montants sortants
+	 */
+	public int finSortants(int sommet){
+		return debuts_sortants[sommet+1];
+	}
+
+	/**
+	 * Renvoie le sommet d'arrivée de l'arc montant sortant reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc
+	 * @return Identifiant du sommet d'arrivée
+	 */
+	public int getCible(int arc){
+		return cibles[arc];
+	}
+
+	/**
+	 * Renvoie le sommet contourné par l'arc montant entrant reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc
+	 * @return Identifiant du sommet contourné, -1 si l'arc est un arc du graphe
+	 */
+	public int getMilieuEntrant(int arc){
+		return milieux_entrants[arc];
+	}
+
+	/**
+	 * Renvoie le sommet contourné par l'arc montant sortant reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc
+	 * @return Identifiant du sommet contourné, -1 si l'arc est un arc du graphe
+	 */
+	public int getMilieuSortant(int arc){
+		return milieux_sortants[arc];
+	}
+
+	/**
+	 * Renvoie le nombre de sommets de la hiérarchie.
+	 *
+	 * @return Nombre de sommets
+	 */
+	public int getNbSommets(){
+		return nb_sommets;
+	}
+
+	/**
+	 * Renvoie le poids de l'arc montant entrant reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc
+	 * @return Poids de l'arc
+	 */
+	public double getPoidsEntrant(int arc){
+		return poids_entrants[arc];
+	}
+
+	/**
+	 * Renvoie le poids de l'arc montant sortant reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc
+	 * @return Poids de l'arc
+	 */
+	public double getPoidsSortant(int arc){
+		return poids_sortants[arc];
+	}
+
+	/**
+	 * Renvoie le rang du sommet reçu en paramètre dans l'ordre de contraction.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Rang du sommet (0 pour le premier contracté)
+	 */
+	public int getRang(int sommet){
+		return rangs[sommet];
+	}
+
+	/**
+	 * Renvoie le sommet de départ de l'arc montant entrant reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc
+	 * @return Identifiant du sommet de départ
+	 */
+	public int getSource(int arc){
+		return sources[arc];
+	}
+
+	/**
+	 * Lit une hiérarchie depuis le flux reçu en paramètre, au format écrit par ecrire.
+	 * Le flux n'est pas fermé par cette méthode.
+	 *
+	 * @param r Flux contenant la hiérarchie
+	 * @return Hiérarchie lue depuis le flux
+	 * @throws Exception Si le flux est vide ou que son contenu n'est pas une hiérarchie valide
+	 *
+	 * @see #ecrire(Writer)
+	 */
+	public static HierarchieContraction lire(Reader r) throws Exception{
+		BufferedReader br = new BufferedReader(r);
+		String[] infos = br.readLine().split(",");
+		int nb_sommets = Integer.parseInt(infos[0]);
+		long empreinte = Long.parseLong(infos[1]);
+
+		int[] rangs = new int[nb_sommets];
+		for(int s=0; s<nb_sommets; s++)
+			rangs[s] = Integer.parseInt(br.readLine());
+
+		int nb_sortants = Integer.parseInt(infos[2]);
+		int[] debuts_sortants = new int[nb_sommets+1];
+		int[] cibles = new int[nb_sortants];
+		double[] poids_sortants = new double[nb_sortants];
+		int[] milieux_sortants = new int[nb_sortants];
+		lireArcs(br, debuts_sortants, cibles, poids_sortants, milieux_sortants);
+
+		int nb_entrants = Integer.parseInt(infos[3]);
+		int[] debuts_entrants = new int[nb_sommets+1];
+		int[] sources = new int[nb_entrants];
+		double[] poids_entrants = new double[nb_entrants];
+		int[] milieux_entrants = new int[nb_entrants];
+		lireArcs(br, debuts_entrants, sources, poids_entrants, milieux_entrants);
+
+		return new HierarchieContraction(empreinte, rangs, debuts_sortants, cibles, poids_sortants, milieux_sortants,
+				debuts_entrants, sources, poids_entrants, milieux_entrants);
+	}
+
+	/**
+	 * Calcule l'empreinte des arcs (extrémités et poids) de la copie figée reçue en paramètre.
+	 * L'empreinte ne dépend pas de l'ordre des arcs d'un sommet, qui peut changer d'un chargement du graphe à l'autre.
+	 *
+	 * @param g Copie figée du graphe
+	 * @return Empreinte des arcs
+	 */
+	static long empreinte(GrapheCompact g){
+		long empreinte = g.getNbSommets();
+		for(int s=0; s<g.getNbSommets(); s++)
+			for(int k=g.debutSortants(s); k<g.finSortants(s); k++)
+				empreinte += melanger((((long)s << 32) | g.getCible(k)) ^ melanger(Double.doubleToLongBits(g.getPoids(k))));
+		return empreinte;
+	}
+
+	/**
+	 * Lit une suite d'arcs rangés par sommet, et en déduit les indices de début des arcs de chaque sommet.
+	 *
+	 * @param br Flux positionné sur le premier arc
+	 * @param debuts Indices de début des arcs de chaque sommet, remplis par la méthode
+	 * @param voisins Autre extrémité de chaque arc, remplie par la méthode
+	 * @param poids Poids de chaque arc, remplis par la méthode
+	 * @param milieux Sommet contourné par chaque arc, remplis par la méthode
+	 * @throws Exception Si un arc est illisible ou que les arcs ne sont pas rangés par sommet
+	 */
+	private static void lireArcs(BufferedReader br, int[] debuts, int[] voisins, double[] poids, int[] milieux) throws Exception{
+		int sommet_courant = 0;
+		for(int k=0; k<voisins.length; k++){
+			String[] arc = br.readLine().split(",");
+			int sommet = Integer.parseInt(arc[0]);
+			if(sommet < sommet_courant || sommet >= debuts.length-1)
+				throw new Exception();
+			while(sommet_courant < sommet)
+				debuts[++sommet_courant] = k;
+			voisins[k] = Integer.parseInt(arc[1]);
+			poids[k] = Double.parseDouble(arc[2]);
+			milieux[k] = Integer.parseInt(arc[3]);
+		}
+		while(sommet_courant < debuts.length-1)
+			debuts[++sommet_courant] = voisins.length;
+	}
+
+	/**
+	 * Mélange les bits de l'entier reçu en paramètre, pour que des arcs proches aient des empreintes très différentes.
+	 *
+	 * @param x Entier à mélanger
+	 * @return Entier mélangé
+	 */
+	private static long melanger(long x){
+		x ^= x >>> 33;
+		x *= 0xff51afd7ed558ccdL;
+		x ^= x >>> 33;
+		x *= 0xc4ceb9fe1a85ec53L;
+		x ^= x >>> 33;
+		return x;
+	}
+}
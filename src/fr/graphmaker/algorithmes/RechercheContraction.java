@@ -0,0 +1,304 @@
+package fr.graphmaker.algorithmes;
+
+import java.util.Arrays;
+
+import fr.graphmaker.modele.GrapheCompact;
+import fr.graphmaker.outils.TasIndexe;
+
+/**
+ * Classe cherchant des plus courts chemins dans une hiérarchie de contraction, pour de nombreuses recherches successives.
+ * Deux recherches de Djikstra ne suivant que des arcs montants partent l'une du départ, l'autre de l'arrivée (en remontant les arcs) ;
+ * les raccourcis du chemin trouvé sont ensuite remplacés par les arcs qu'ils contournent.
+ * Les tableaux de travail sont gardés d'une recherche à l'autre : seuls les sommets atteints par une recherche
+ * (rangés dans touches) sont remis à leur état initial à sa fin, si bien qu'une recherche ne coûte que la partie de la hiérarchie qu'elle visite,
+ * en plus de la construction de son résultat.
+ * Une même instance ne doit pas servir à plusieurs recherches à la fois.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ *
+ * @see AlgoContraction
+ */
+public class RechercheContraction{
+	private final HierarchieContraction h;
+	private final GrapheCompact graphe;
+	private final double[] distances_avant;
+	private final double[] distances_arriere;
+	private final int[] precedents_avant;
+	private final int[] suivants_arriere;
+	private final int[] arcs_avant;
+	private final int[] arcs_arriere;
+	private final TasIndexe avant;
+	private final TasIndexe arriere;
+	private final int[] touches;
+	private int nb_touches = 0;
+	private final Deroulement deroulement;
+
+	/**
+	 * Prépare les recherches dans la hiérarchie reçue en paramètre.
+	 *
+	 * @param h Hiérarchie de contraction de la copie figée
+	 * @param graphe Copie figée du graphe ayant servi à construire la hiérarchie
+	 */
+	public RechercheContraction(HierarchieContraction h, GrapheCompact graphe){
+		int n = graphe.getNbSommets();
+		this.h = h;
+		this.graphe = graphe;
+		distances_avant = new double[n];
+		distances_arriere = new double[n];
+		precedents_avant = new int[n];
+		suivants_arriere = new int[n];
+		arcs_avant = new int[n];
+		arcs_arriere = new int[n];
+		avant = new TasIndexe(n);
+		arriere = new TasIndexe(n);
+		touches = new int[n];
+		deroulement = new Deroulement(h, n);
+		Arrays.fill(distances_avant, Double.POSITIVE_INFINITY);
+		Arrays.fill(distances_arriere, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Cherche le chemin le plus court allant de depart à arrivee.
+	 * Chacune des deux recherches s'arrête dès que sa plus petite distance restante atteint le meilleur chemin
+	 * passant par un sommet atteint des deux côtés.
+	 *
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin le plus court allant de depart à arrivee (vide si depart == arrivee) si il existe ;
+	 * seules les distances des sommets du chemin sont renseignées
+	 */
+	public ResultatDjikstra chercher(int depart, int arrivee){
+		int n = graphe.getNbSommets();
+		double[] distances = new double[n];
+		int[] precedents = new int[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Arrays.fill(precedents, -1);
+
+		distances[depart] = 0.0;
+		if(depart == arrivee)
+			return AlgoDjikstra.resultat(graphe, depart, arrivee, distances, precedents);
+
+		distances_avant[depart] = 0.0;
+		distances_arriere[arrivee] = 0.0;
+		precedents_avant[depart] = -1;
+		suivants_arriere[arrivee] = -1;
+		touches[nb_touches++] = depart;
+		touches[nb_touches++] = arrivee;
+		avant.ajouter(depart, 0.0);
+		arriere.ajouter(arrivee, 0.0);
+		double meilleur = Double.POSITIVE_INFINITY;
+		int rencontre = -1;
+
+		/*
+		 * Le sommet de rang maximal d'un plus court chemin est atteint par les deux recherches, mais pas forcément au même moment :
+		 * aucune ne peut s'arrêter avant que sa plus petite distance restante n'atteigne le meilleur chemin.
+		 * Un sommet n'est rangé dans touches que la première fois qu'il est atteint, par l'une ou l'autre recherche.
+		 */
+		while(avant.getCleMin() < meilleur || arriere.getCleMin() < meilleur){
+			if(avant.getCleMin() <= arriere.getCleMin()){
+				int sommet_courant = avant.extraireMin();
+				for(int k=h.debutSortants(sommet_courant); k<h.finSortants(sommet_courant); k++){
+					int sommet_proche = h.getCible(k);
+					double distance_totale = distances_avant[sommet_courant] + h.getPoidsSortant(k);
+					if(distance_totale < distances_avant[sommet_proche]){
+						if(distances_avant[sommet_proche] == Double.POSITIVE_INFINITY && distances_arriere[sommet_proche] == Double.POSITIVE_INFINITY)
+							touches[nb_touches++] = sommet_proche;
+						distances_avant[sommet_proche] = distance_totale;
+						precedents_avant[sommet_proche] = sommet_courant;
+						arcs_avant[sommet_proche] = k;
+						avant.ajouter(sommet_proche, distance_totale);
+						if(distance_totale + distances_arriere[sommet_proche] < meilleur){
+							meilleur = distance_totale + distances_arriere[sommet_proche];
+							rencontre = sommet_proche;
+						}
+					}
+				}
+			}
+			else{
+				int sommet_courant = arriere.extraireMin();
+				for(int k=h.debutEntrants(sommet_courant); k<h.finEntrants(sommet_courant); k++){
+					int sommet_proche = h.getSource(k);
+					double distance_totale = distances_arriere[sommet_courant] + h.getPoidsEntrant(k);
+					if(distance_totale < distances_arriere[sommet_proche]){
+						if(distances_avant[sommet_proche] == Double.POSITIVE_INFINITY && distances_arriere[sommet_proche] == Double.POSITIVE_INFINITY)
+							touches[nb_touches++] = sommet_proche;
+						distances_arriere[sommet_proche] = distance_totale;
+						suivants_arriere[sommet_proche] = sommet_courant;
+						arcs_arriere[sommet_proche] = k;
+						arriere.ajouter(sommet_proche, distance_totale);
+						if(distances_avant[sommet_proche] + distance_totale < meilleur){
+							meilleur = distances_avant[sommet_proche] + distance_totale;
+							rencontre = sommet_proche;
+						}
+					}
+				}
+			}
+		}
+
+		if(rencontre != -1){
+			/*
+			 * Les arcs de la hiérarchie formant le chemin sont empilés du dernier au premier :
+			 * ceux de la recherche arrière en partant de l'arrivée, puis ceux de la recherche avant en remontant depuis la rencontre.
+			 */
+			int nb_arriere = 0;
+			for(int s = rencontre; s != arrivee; s = suivants_arriere[s])
+				nb_arriere++;
+			int[] suite = new int[nb_arriere];
+			for(int s = rencontre, i = 0; s != arrivee; s = suivants_arriere[s])
+				suite[i++] = s;
+
+			deroulement.commencer(depart);
+			for(int i=nb_arriere-1; i>=0; i--){
+				int s = suite[i];
+				deroulement.empiler(s, suivants_arriere[s], h.getPoidsEntrant(arcs_arriere[s]), h.getMilieuEntrant(arcs_arriere[s]));
+			}
+			for(int s = rencontre; s != depart; s = precedents_avant[s])
+				deroulement.empiler(precedents_avant[s], s, h.getPoidsSortant(arcs_avant[s]), h.getMilieuSortant(arcs_avant[s]));
+			deroulement.derouler(distances, precedents);
+		}
+
+		for(int t=0; t<nb_touches; t++){
+			distances_avant[touches[t]] = Double.POSITIVE_INFINITY;
+			distances_arriere[touches[t]] = Double.POSITIVE_INFINITY;
+		}
+		nb_touches = 0;
+		avant.vider();
+		arriere.vider();
+
+		return AlgoDjikstra.resultat(graphe, depart, arrivee, distances, precedents);
+	}
+
+	/**
+	 * Renvoie la copie figée du graphe ayant servi à construire la hiérarchie.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+
+	/**
+	 * Renvoie la hiérarchie de contraction dans laquelle se font les recherches.
+	 *
+	 * @return Hiérarchie de contraction
+	 */
+	public HierarchieContraction getHierarchie(){
+		return h;
+	}
+
+	/**
+	 * Remplacement des raccourcis d'un chemin de la hiérarchie par les arcs du graphe qu'ils contournent.
+	 * Les arcs à traiter sont sur une pile, le prochain arc du chemin au sommet : un raccourci (u, w) contournant v
+	 * y est remplacé par ses deux moitiés, l'arc montant entrant (u, v) de v au sommet, puis son arc montant sortant (v, w).
+	 * Avec des arcs de poids nul, le chemin déplié peut repasser par un sommet : la boucle ainsi formée, de poids nul, est retirée.
+	 * Les tableaux sont gardés d'un déroulement à l'autre, les positions des sommets du chemin étant effacées à la fin de chacun.
+	 */
+	private static class Deroulement{
+		private final HierarchieContraction h;
+		private int[] departs = new int[16];
+		private int[] arrivees = new int[16];
+		private double[] poids = new double[16];
+		private int[] milieux = new int[16];
+		private int taille = 0;
+		private final int[] chemin;
+		private final double[] cumuls;
+		private final int[] positions;
+		private int longueur = 0;
+
+		/**
+		 * Construit un déroulement vide.
+		 *
+		 * @param h Hiérarchie de contraction
+		 * @param n Nombre de sommets
+		 */
+		Deroulement(HierarchieContraction h, int n){
+			this.h = h;
+			chemin = new int[n];
+			cumuls = new double[n];
+			positions = new int[n];
+			Arrays.fill(positions, -1);
+		}
+
+		/**
+		 * Commence un nouveau chemin, partant du sommet de départ.
+		 *
+		 * @param depart Identifiant du sommet de départ
+		 */
+		void commencer(int depart){
+			chemin[0] = depart;
+			cumuls[0] = 0.0;
+			positions[depart] = 0;
+			longueur = 1;
+		}
+
+		/**
+		 * Empile un arc de la hiérarchie.
+		 *
+		 * @param depart Sommet de départ de l'arc
+		 * @param arrivee Sommet d'arrivée de l'arc
+		 * @param poids_arc Poids de l'arc
+		 * @param milieu Sommet contourné par l'arc, -1 si c'est un arc du graphe
+		 */
+		void empiler(int depart, int arrivee, double poids_arc, int milieu){
+			if(taille == departs.length){
+				departs = Arrays.copyOf(departs, 2*taille);
+				arrivees = Arrays.copyOf(arrivees, 2*taille);
+				poids = Arrays.copyOf(poids, 2*taille);
+				milieux = Arrays.copyOf(milieux, 2*taille);
+			}
+			departs[taille] = depart;
+			arrivees[taille] = arrivee;
+			poids[taille] = poids_arc;
+			milieux[taille] = milieu;
+			taille++;
+		}
+
+		/**
+		 * Vide la pile en dépliant les raccourcis, puis renseigne les distances et prédécesseurs des sommets du chemin obtenu.
+		 *
+		 * @param distances Distance de chaque sommet au départ, complétée le long du chemin
+		 * @param precedents Prédécesseur de chaque sommet, complété le long du chemin
+		 */
+		void derouler(double[] distances, int[] precedents){
+			while(taille > 0){
+				taille--;
+				int depart = departs[taille], arrivee = arrivees[taille], milieu = milieux[taille];
+				if(milieu == -1){
+					suivre(arrivee, poids[taille]);
+					continue;
+				}
+
+				int sortant = h.chercherSortant(milieu, arrivee);
+				int entrant = h.chercherEntrant(milieu, depart);
+				empiler(milieu, arrivee, h.getPoidsSortant(sortant), h.getMilieuSortant(sortant));
+				empiler(depart, milieu, h.getPoidsEntrant(entrant), h.getMilieuEntrant(entrant));
+			}
+
+			for(int i=1; i<longueur; i++){
+				distances[chemin[i]] = cumuls[i];
+				precedents[chemin[i]] = chemin[i-1];
+			}
+			for(int i=0; i<longueur; i++)
+				positions[chemin[i]] = -1;
+			longueur = 0;
+		}
+
+		/**
+		 * Prolonge le chemin par un arc du graphe, ou le ramène au sommet d'arrivée de l'arc s'il y est déjà passé.
+		 *
+		 * @param arrivee Sommet d'arrivée de l'arc
+		 * @param poids_arc Poids de l'arc
+		 */
+		private void suivre(int arrivee, double poids_arc){
+			if(positions[arrivee] != -1){
+				for(int i=positions[arrivee]+1; i<longueur; i++)
+					positions[chemin[i]] = -1;
+				longueur = positions[arrivee]+1;
+				return;
+			}
+			chemin[longueur] = arrivee;
+			cumuls[longueur] = cumuls[longueur-1] + poids_arc;
+			positions[arrivee] = longueur++;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package fr.graphmaker.algorithmes;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe représentant le résultat (non modifiable) de l'algorithme de Brélaz sur une copie figée du graphe.
+ * 		- Tableau d'entiers : La classe de couleur de chaque sommet (0 pour la première, sans limite supérieure)
+ * 		- Entier : Le nombre chromatique obtenu (nombre de couleurs différentes utilisées), qui majore le vrai nombre chromatique
+ * 		- Entier : Un minorant du vrai nombre chromatique (0 si aucun n'a été calculé)
+ * Lorsque les deux bornes sont égales, le nombre chromatique est prouvé exact.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ */
+public class ResultatBrelaz{
+	private final GrapheCompact graphe;
+	private final int[] couleurs;
+	private final int nb_chromatique;
+	private final int borne_inferieure;
+
+	/**
+	 * Construit le résultat à partir du tableau calculé par l'algorithme, qui en devient la propriété.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param couleurs Classe de couleur de chaque sommet
+	 * @param nb_chromatique Nombre chromatique obtenu
+	 */
+	ResultatBrelaz(GrapheCompact graphe, int[] couleurs, int nb_chromatique){
+		this(graphe, couleurs, nb_chromatique, 0);
+	}
+
+	/**
+	 * Construit le résultat à partir du tableau calculé par l'algorithme, qui en devient la propriété,
+	 * en y joignant un minorant du nombre chromatique.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param couleurs Classe de couleur de chaque sommet
+	 * @param nb_chromatique Nombre chromatique obtenu
+	 * @param borne_inferieure Minorant du nombre chromatique
+	 */
+	ResultatBrelaz(GrapheCompact graphe, int[] couleurs, int nb_chromatique, int borne_inferieure){
+		this.graphe = graphe;
+		this.couleurs = couleurs;
+		this.nb_chromatique = nb_chromatique;
+		this.borne_inferieure = borne_inferieure;
+	}
+
+	/**
+	 * Vérifie si le nombre chromatique obtenu est prouvé exact.
+	 *
+	 * @return true si le nombre chromatique est égal à son minorant, false sinon
+	 */
+	public boolean estExact(){
+		return borne_inferieure == nb_chromatique;
+	}
+
+	/**
+	 * Renvoie le minorant du nombre chromatique.
+	 *
+	 * @return Minorant du nombre chromatique, 0 si aucun n'a été calculé
+	 */
+	public int getBorneInferieure(){
+		return borne_inferieure;
+	}
+
+	/**
+	 * Renvoie la classe de couleur du sommet reçu en paramètre.
+	 * La couleur affichée correspondante est donnée par la Palette.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Classe de couleur du sommet
+	 *
+	 * @see fr.graphmaker.outils.Palette#getCouleur(int)
+	 */
+	public int getCouleur(int sommet){
+		return couleurs[sommet];
+	}
+
+	/**
+	 * Renvoie la copie figée sur laquelle l'algorithme a été exécuté.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+
+	/**
+	 * Renvoie le nombre chromatique obtenu.
+	 *
+	 * @return Nombre chromatique
+	 */
+	public int getNbChromatique(){
+		return nb_chromatique;
+	}
+}
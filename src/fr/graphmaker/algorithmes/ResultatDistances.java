@@ -0,0 +1,71 @@
+package fr.graphmaker.algorithmes;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe représentant le résultat (non modifiable) du calcul des plus courtes distances entre tous les couples de sommets
+ * d'une copie figée du graphe.
+ * 		- Tableau de réels : La matrice des distances rangée ligne par ligne (ligne du départ, colonne de l'arrivée),
+ * 		  infinie lorsqu'aucun chemin ne relie les deux sommets, -∞ lorsqu'un chemin les reliant passe par un circuit de poids négatif
+ * 		- Booléen : La présence d'un circuit de poids négatif dans le graphe
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ */
+public class ResultatDistances{
+	private final GrapheCompact graphe;
+	private final double[] distances;
+	private final boolean circuit_negatif;
+
+	/**
+	 * Construit le résultat à partir de la matrice calculée par l'algorithme, qui en devient la propriété.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param distances Matrice des distances rangée ligne par ligne
+	 * @param circuit_negatif true si un circuit de poids négatif a été trouvé
+	 */
+	ResultatDistances(GrapheCompact graphe, double[] distances, boolean circuit_negatif){
+		this.graphe = graphe;
+		this.distances = distances;
+		this.circuit_negatif = circuit_negatif;
+	}
+
+	/**
+	 * Vérifie si un chemin relie les deux sommets reçus en paramètre.
+	 *
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @return true si arrivee est accessible depuis depart, false sinon
+	 */
+	public boolean existeChemin(int depart, int arrivee){
+		return getDistance(depart, arrivee) != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Vérifie si le graphe contient un circuit de poids négatif, certaines distances valant alors -∞.
+	 *
+	 * @return true si un circuit de poids négatif existe, false sinon
+	 */
+	public boolean existeCircuitNegatif(){
+		return circuit_negatif;
+	}
+
+	/**
+	 * Renvoie la longueur du plus court chemin allant de depart à arrivee.
+	 *
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @return Distance entre les deux sommets, infinie si aucun chemin ne les relie,
+	 * -∞ si un chemin les reliant passe par un circuit de poids négatif
+	 */
+	public double getDistance(int depart, int arrivee){
+		return distances[depart*graphe.getNbSommets() + arrivee];
+	}
+
+	/**
+	 * Renvoie la copie figée sur laquelle l'algorithme a été exécuté.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+}
@@ -0,0 +1,176 @@
+package fr.graphmaker.algorithmes;
+
+import fr.graphmaker.constantes.GrapheConstantes;
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe représentant le résultat (non modifiable) de l'algorithme de Djikstra sur une copie figée du graphe.
+ * 		- Tableau de réels : La distance de chaque sommet au sommet de départ (infinie si le sommet n'a pas été atteint)
+ * 		- Tableau d'entiers : Le prédécesseur de chaque sommet sur son plus court chemin (-1 si aucun)
+ * 		- Tableau d'entiers : Les identifiants des sommets du chemin le plus court, du départ à l'arrivée
+ * 		- Tableau d'entiers : Les identifiants des sommets du circuit de poids négatif accessible depuis le départ, si il en existe un
+ * Lorsqu'un tel circuit existe, les distances ne sont pas bornées : aucun chemin n'est donné, et le circuit est affiché à sa place.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ */
+public class ResultatDjikstra implements GrapheConstantes{
+	private final GrapheCompact graphe;
+	private final int depart;
+	private final int arrivee;
+	private final double[] distances;
+	private final int[] precedents;
+	private final int[] chemin;
+	private final int[] circuit;
+	private final boolean[] sur_chemin;
+
+	/**
+	 * Construit le résultat à partir des tableaux calculés par l'algorithme, qui en deviennent la propriété.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @param distances Distance de chaque sommet au sommet de départ
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, -1 si aucun
+	 * @param chemin Identifiants des sommets du chemin le plus court (vide si depart == arrivee), null s'il n'existe pas
+	 */
+	ResultatDjikstra(GrapheCompact graphe, int depart, int arrivee, double[] distances, int[] precedents, int[] chemin){
+		this(graphe, depart, arrivee, distances, precedents, chemin, null);
+	}
+
+	/**
+	 * Construit le résultat à partir des tableaux calculés par l'algorithme, qui en deviennent la propriété.
+	 * Les sommets du circuit sont considérés comme faisant partie du chemin, pour être affichés de la même façon.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param depart Identifiant du sommet de départ
+	 * @param arrivee Identifiant du sommet d'arrivée
+	 * @param distances Distance de chaque sommet au sommet de départ
+	 * @param precedents Prédécesseur de chaque sommet sur son plus court chemin, -1 si aucun
+	 * @param chemin Identifiants des sommets du chemin le plus court (vide si depart == arrivee), null s'il n'existe pas
+	 * @param circuit Identifiants des sommets du circuit de poids négatif, dans le sens des arcs, null s'il n'existe pas
+	 */
+	ResultatDjikstra(GrapheCompact graphe, int depart, int arrivee, double[] distances, int[] precedents, int[] chemin, int[] circuit){
+		this.graphe = graphe;
+		this.depart = depart;
+		this.arrivee = arrivee;
+		this.distances = distances;
+		this.precedents = precedents;
+		this.chemin = chemin;
+		this.circuit = circuit;
+		sur_chemin = new boolean[graphe.getNbSommets()];
+		if(chemin != null)
+			for(int s: chemin)
+				sur_chemin[s] = true;
+		if(circuit != null)
+			for(int s: circuit)
+				sur_chemin[s] = true;
+	}
+
+	/**
+	 * Vérifie si l'arc allant de depart à arrivee fait partie du chemin le plus court.
+	 * Dans un graphe non-orienté, l'arête est considérée dans les deux sens.
+	 *
+	 * @param depart Identifiant du sommet de départ de l'arc
+	 * @param arrivee Identifiant du sommet d'arrivée de l'arc
+	 * @return true si l'arc fait partie du chemin, false sinon
+	 */
+	public boolean estArcSurChemin(int depart, int arrivee){
+		boolean sur_arc = sur_chemin[arrivee] && precedents[arrivee] == depart;
+		if(graphe.getTypeOrientation() == NON_ORIENTE)
+			sur_arc |= sur_chemin[depart] && precedents[depart] == arrivee;
+		return sur_arc;
+	}
+
+	/**
+	 * Vérifie si un circuit de poids négatif est accessible depuis le départ.
+	 *
+	 * @return true si le circuit existe, false sinon
+	 */
+	public boolean existeCircuitNegatif(){
+		return circuit != null;
+	}
+
+	/**
+	 * Vérifie si le sommet reçu en paramètre fait partie du chemin le plus court.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return true si le sommet fait partie du chemin, false sinon
+	 */
+	public boolean estSurChemin(int sommet){
+		return sur_chemin[sommet];
+	}
+
+	/**
+	 * Vérifie qu'un chemin a été trouvé entre le départ et l'arrivée.
+	 *
+	 * @return true si le chemin existe, false sinon
+	 */
+	public boolean existeChemin(){
+		return chemin != null;
+	}
+
+	/**
+	 * Renvoie l'identifiant du sommet d'arrivée.
+	 *
+	 * @return Identifiant du sommet d'arrivée
+	 */
+	public int getArrivee(){
+		return arrivee;
+	}
+
+	/**
+	 * Renvoie une copie du chemin le plus court.
+	 *
+	 * @return Identifiants des sommets du chemin, du départ à l'arrivée (vide si depart == arrivee), null s'il n'existe pas
+	 */
+	public int[] getChemin(){
+		return (chemin == null ? null : chemin.clone());
+	}
+
+	/**
+	 * Renvoie une copie du circuit de poids négatif accessible depuis le départ.
+	 *
+	 * @return Identifiants des sommets du circuit, dans le sens des arcs, null s'il n'existe pas
+	 */
+	public int[] getCircuitNegatif(){
+		return (circuit == null ? null : circuit.clone());
+	}
+
+	/**
+	 * Renvoie l'identifiant du sommet de départ.
+	 *
+	 * @return Identifiant du sommet de départ
+	 */
+	public int getDepart(){
+		return depart;
+	}
+
+	/**
+	 * Renvoie la distance du sommet reçu en paramètre au sommet de départ.
+	 * Seules les distances des sommets traités avant l'arrivée sont définitives.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Distance calculée, infinie si le sommet n'a pas été atteint
+	 */
+	public double getDistance(int sommet){
+		return distances[sommet];
+	}
+
+	/**
+	 * Renvoie la copie figée sur laquelle l'algorithme a été exécuté.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+
+	/**
+	 * Renvoie le prédécesseur du sommet reçu en paramètre sur son plus court chemin.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Identifiant du prédécesseur, -1 si aucun
+	 */
+	public int getPrecedent(int sommet){
+		return precedents[sommet];
+	}
+}
@@ -0,0 +1,151 @@
+package fr.graphmaker.algorithmes;
+
+import fr.graphmaker.constantes.GrapheConstantes;
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe représentant le résultat (non modifiable) de l'algorithme du marquage sur une copie figée du graphe.
+ * 		- Tableau d'entiers : Le niveau auquel chaque sommet accessible est atteint, même au-delà du nombre de niveaux demandé (-1 si non accessible)
+ * 		- Entier : Le nombre de niveaux à partir duquel le marquage couvre tous les arcs accessibles
+ * Un sommet est marqué lorsque son niveau ne dépasse pas le nombre de niveaux demandé.
+ * Un arc est marqué lorsqu'il a été parcouru, c'est-à-dire lorsque le sommet à partir duquel on l'emprunte
+ * (départ pour les descendants, arrivée pour les ascendants) a été atteint avant le dernier niveau.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ */
+public class ResultatMarquage implements GrapheConstantes{
+	private final GrapheCompact graphe;
+	private final int depart;
+	private final int nb_niveaux;
+	private final int[] niveaux;
+	private final int niveau_complet;
+
+	/**
+	 * Construit le résultat à partir du tableau calculé par l'algorithme, qui en devient la propriété.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param depart Identifiant du sommet de départ
+	 * @param nb_niveaux Nombre de niveaux demandé (négatif pour les ascendants)
+	 * @param niveaux Niveau de chaque sommet, -1 pour les sommets non accessibles
+	 * @param niveau_complet Nombre de niveaux à partir duquel le marquage couvre tous les arcs accessibles
+	 */
+	ResultatMarquage(GrapheCompact graphe, int depart, int nb_niveaux, int[] niveaux, int niveau_complet){
+		this.graphe = graphe;
+		this.depart = depart;
+		this.nb_niveaux = nb_niveaux;
+		this.niveaux = niveaux;
+		this.niveau_complet = niveau_complet;
+	}
+
+	/**
+	 * Renvoie le même marquage lu sur un autre nombre de niveaux, sans refaire le parcours.
+	 * Le parcours ayant été mené jusqu'au bout, seule la direction doit être la même
+	 * (un nombre nul convient toujours, un marquage à 0 niveau ayant été fait sur les descendants).
+	 *
+	 * @param nb_niveaux Nombre de niveaux, négatif pour les ascendants
+	 * @return Marquage au nombre de niveaux demandé, partageant les niveaux de celui-ci
+	 * @throws IllegalArgumentException Si le nombre de niveaux est dans la direction opposée
+	 */
+	public ResultatMarquage auNiveau(int nb_niveaux){
+		if(nb_niveaux != 0 && (nb_niveaux < 0) != (this.nb_niveaux < 0))
+			throw new IllegalArgumentException();
+		return new ResultatMarquage(graphe, depart, nb_niveaux, niveaux, niveau_complet);
+	}
+
+	/**
+	 * Vérifie si l'arc allant de depart à arrivee a été parcouru par le marquage.
+	 * Dans un graphe non-orienté, l'arête est considérée dans les deux sens.
+	 *
+	 * @param depart Identifiant du sommet de départ de l'arc
+	 * @param arrivee Identifiant du sommet d'arrivée de l'arc
+	 * @return true si l'arc est marqué, false sinon
+	 */
+	public boolean estArcMarque(int depart, int arrivee){
+		boolean marque = estParcouru(depart, arrivee);
+		if(graphe.getTypeOrientation() == NON_ORIENTE)
+			marque |= estParcouru(arrivee, depart);
+		return marque;
+	}
+
+	/**
+	 * Vérifie si le sommet reçu en paramètre a été atteint par le marquage.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return true si le sommet est marqué, false sinon
+	 */
+	public boolean estMarque(int sommet){
+		return niveaux[sommet] != -1 && niveaux[sommet] <= Math.abs(nb_niveaux);
+	}
+
+	/**
+	 * Renvoie l'identifiant du sommet de départ.
+	 *
+	 * @return Identifiant du sommet de départ
+	 */
+	public int getDepart(){
+		return depart;
+	}
+
+	/**
+	 * Renvoie la copie figée sur laquelle l'algorithme a été exécuté.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+
+	/**
+	 * Compte le nombre d'arcs marqués (chaque arête d'un graphe non-orienté compte pour ses deux arcs).
+	 *
+	 * @return Nombre d'arcs marqués
+	 */
+	public int getNbArcsMarques(){
+		int compteur = 0;
+		for(int s=0; s<graphe.getNbSommets(); s++)
+			for(int k=graphe.debutSortants(s); k<graphe.finSortants(s); k++)
+				if(estArcMarque(s, graphe.getCible(k)))
+					compteur++;
+		return compteur;
+	}
+
+	/**
+	 * Renvoie le nombre de niveaux demandé.
+	 *
+	 * @return Nombre de niveaux, négatif pour les ascendants
+	 */
+	public int getNbNiveaux(){
+		return nb_niveaux;
+	}
+
+	/**
+	 * Renvoie le niveau auquel le sommet reçu en paramètre a été atteint.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Niveau du sommet (0 pour le départ), -1 s'il n'a pas été atteint
+	 */
+	public int getNiveau(int sommet){
+		return (estMarque(sommet) ? niveaux[sommet] : -1);
+	}
+
+	/**
+	 * Renvoie le nombre de niveaux (en valeur absolue) à partir duquel le marquage, dans sa direction,
+	 * couvre tous les arcs accessibles depuis le départ : en ajouter ne marquerait plus rien.
+	 *
+	 * @return Nombre de niveaux du marquage complet, 0 si aucun arc n'est accessible
+	 */
+	public int getNiveauComplet(){
+		return niveau_complet;
+	}
+
+	/**
+	 * Vérifie si l'arc allant de depart à arrivee a été emprunté dans le sens du marquage.
+	 *
+	 * @param depart Identifiant du sommet de départ de l'arc
+	 * @param arrivee Identifiant du sommet d'arrivée de l'arc
+	 * @return true si l'arc a été emprunté, false sinon
+	 */
+	private boolean estParcouru(int depart, int arrivee){
+		int origine = (nb_niveaux >= 0 ? depart : arrivee);
+		return niveaux[origine] != -1 && niveaux[origine] < Math.abs(nb_niveaux);
+	}
+}
@@ -0,0 +1,116 @@
+package fr.graphmaker.algorithmes;
+
+import fr.graphmaker.modele.GrapheCompact;
+
+/**
+ * Classe représentant le résultat (non modifiable) du calcul des composantes fortement connexes sur une copie figée du graphe.
+ * 		- Tableau d'entiers : La composante de chaque sommet (0 pour la première)
+ * 		- Entier : Le nombre de composantes
+ * 		- Le graphe réduit, dont les sommets sont les composantes, rangé comme les arcs de la copie figée (format CSR)
+ * Les composantes sont numérotées dans l'ordre topologique du graphe réduit, qui est sans circuit :
+ * chacun de ses arcs va d'une composante vers une composante de numéro plus grand.
+ * Les sommets y sont désignés par leur identifiant dans la copie figée.
+ */
+public class ResultatTarjan{
+	private final GrapheCompact graphe;
+	private final int[] composantes;
+	private final int nb_composantes;
+	private final int[] debuts;
+	private final int[] successeurs;
+
+	/**
+	 * Construit le résultat à partir des tableaux calculés par l'algorithme, qui en deviennent la propriété.
+	 *
+	 * @param graphe Copie figée sur laquelle l'algorithme a été exécuté
+	 * @param composantes Composante de chaque sommet
+	 * @param nb_composantes Nombre de composantes
+	 * @param debuts Pour chaque composante, l'indice de début de ses successeurs dans le graphe réduit
+	 * @param successeurs Composantes d'arrivée de chaque arc du graphe réduit
+	 */
+	ResultatTarjan(GrapheCompact graphe, int[] composantes, int nb_composantes, int[] debuts, int[] successeurs){
+		this.graphe = graphe;
+		this.composantes = composantes;
+		this.nb_composantes = nb_composantes;
+		this.debuts = debuts;
+		this.successeurs = successeurs;
+	}
+
+	/**
+	 * Renvoie l'indice de début des successeurs de la composante reçue en paramètre dans le graphe réduit.
+	 *
+	 * @param composante Numéro de la composante
+	 * @return Indice de début de ses successeurs
+	 */
+	public int debutSuccesseurs(int composante){
+		return debuts[composante];
+	}
+
+	/**
+	 * Vérifie si le graphe est fortement connexe, c'est-à-dire constitué d'une seule composante.
+	 *
+	 * @return true si le graphe est fortement connexe, false sinon (et pour un graphe vide)
+	 */
+	public boolean estFortementConnexe(){
+		return nb_composantes == 1;
+	}
+
+	/**
+	 * Renvoie l'indice de fin (exclu) des successeurs de la composante reçue en paramètre dans le graphe réduit.
+	 *
+	 * @param composante Numéro de la composante
+	 * @return Indice de fin de ses successeurs
+	 */
+	public int finSuccesseurs(int composante){
+		return debuts[composante+1];
+	}
+
+	/**
+	 * Renvoie la composante du sommet reçu en paramètre.
+	 * La couleur affichée correspondante est donnée par la Palette.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Numéro de sa composante
+	 *
+	 * @see fr.graphmaker.outils.Palette#getCouleur(int)
+	 */
+	public int getComposante(int sommet){
+		return composantes[sommet];
+	}
+
+	/**
+	 * Renvoie la copie figée sur laquelle l'algorithme a été exécuté.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact getGraphe(){
+		return graphe;
+	}
+
+	/**
+	 * Renvoie le nombre d'arcs du graphe réduit.
+	 *
+	 * @return Nombre d'arcs entre composantes différentes (sans doublon)
+	 */
+	public int getNbArcsReduits(){
+		return successeurs.length;
+	}
+
+	/**
+	 * Renvoie le nombre de composantes fortement connexes.
+	 *
+	 * @return Nombre de composantes
+	 */
+	public int getNbComposantes(){
+		return nb_composantes;
+	}
+
+	/**
+	 * Renvoie la composante d'arrivée de l'arc du graphe réduit reçu en paramètre.
+	 *
+	 * @param arc Indice de l'arc dans le graphe réduit
+	 * @return Numéro de la composante d'arrivée
+	 */
+	public int getSuccesseur(int arc){
+		return successeurs[arc];
+	}
+}
@@ -0,0 +1,23 @@
+package fr.graphmaker.algorithmes;
+
+/**
+ * Interface permettant de suivre l'avancement d'un algorithme et de l'interrompre.
+ * Les algorithmes qui la reçoivent l'interrogent régulièrement :
+ * si le suivi est annulé, ils s'arrêtent en levant une java.util.concurrent.CancellationException.
+ */
+public interface SuiviAlgorithme {
+	/**
+	 * Indique si l'algorithme suivi doit s'arrêter.
+	 *
+	 * @return true si le calcul a été annulé, false sinon
+	 */
+	public boolean estAnnule();
+
+	/**
+	 * Signale l'avancement de l'algorithme suivi.
+	 *
+	 * @param fait Quantité de travail déjà réalisée
+	 * @param total Quantité de travail totale
+	 */
+	public void progression(int fait, int total);
+}
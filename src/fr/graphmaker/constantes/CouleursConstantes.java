@@ -58,7 +58,8 @@ public interface CouleursConstantes {
 	public static final Color COL_BOUTON_SELECT = new Color(0xB6B6B6);
 	
 	/**
-	 * Tableau de couleurs utilisé pour l'algorithme de Brélaz (coloration)
+	 * Tableau de couleurs utilisé pour l'algorithme de Brélaz (coloration).
+	 * Ce sont les premières couleurs de la Palette, les suivantes étant générées à la demande.
 	 */
 	public static final ArrayList<Color> COULEURS = new ArrayList<Color>() {
 		private static final long serialVersionUID = -324883053780514578L;
@@ -42,9 +42,9 @@ public interface GrapheConstantes {
 	public static final int ETIQUETE = 2;
 	
 	/**
-	 * Valeur = 16, nombre d'options possibles pour le graphe.
+	 * Valeur = 17, nombre d'options possibles pour le graphe.
 	 */
-	public static final int NOMBRE_OPTIONS = 16;
+	public static final int NOMBRE_OPTIONS = 17;
 	
 	/**
 	 * Valeur = 0, option de création de sommets.
@@ -125,6 +125,11 @@ public interface GrapheConstantes {
 	 * Valeur = 15, option de création du cycle maximal.
 	 */
     public static final int CYCLE = 15;
+    
+    /**
+	 * Valeur = 16, option de coloration des sommets par composante fortement connexe.
+	 */
+    public static final int COMPOSANTES = 16;
 	
     /**
 	 * Valeur = false, lorsqu'on déplace le sommet d'arrivée d'un arc.
@@ -327,9 +332,9 @@ public interface GrapheConstantes {
     public static final int FERMER_GRAPHE = 7;
     
     /**
-     * Valeur = 3, nombre d'algorithmes disponibles.
+     * Valeur = 4, nombre d'algorithmes disponibles.
      */
-    public static final int NOMBRE_ALGO = 3;
+    public static final int NOMBRE_ALGO = 4;
     
     /**
      * Valeur = 0, identifie l'algorithme de Djikstra.
@@ -346,6 +351,16 @@ public interface GrapheConstantes {
      */
     public static final int ALGO_MARQUAGE = 2;
     
+    /**
+     * Valeur = 3, identifie l'algorithme des composantes fortement connexes.
+     */
+    public static final int ALGO_COMPOSANTES = 3;
+    
+    /**
+     * Valeur = {DJIKSTRA, BRELAZ, MARQUAGE, COMPOSANTES}, option activée par chaque algorithme (dans l'ordre de leurs identifiants).
+     */
+    public static final int[] OPTIONS_ALGO = {DJIKSTRA, BRELAZ, MARQUAGE, COMPOSANTES};
+    
     /**
      * Valeur = 0, utilisé quand on demande à trouver un point sur la courbe de l'arc allant du sommet de départ au point manipulable.
      */
@@ -415,4 +430,15 @@ public interface GrapheConstantes {
      * Valeur = 36, maximum de lignes sur une page pour la matrice du graphe lors de l'exportation en LaTeX.
      */
     public static final int MAX_LIGNES_LATEX = 36;
+    
+    /**
+     * Valeur = 2000, durée maximale (en millisecondes) de la recherche du nombre chromatique exact.
+     */
+    public static final int DELAI_COLORATION_EXACTE = 2000;
+    
+    /**
+     * Valeur = 2, nombre de couleurs que la coloration réparée au fil des modifications peut utiliser
+     * en plus de la dernière coloration complète avant d'être recalculée entièrement.
+     */
+    public static final int DERIVE_COLORATION = 2;
 }
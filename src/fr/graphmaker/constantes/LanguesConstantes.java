@@ -133,6 +133,15 @@ public interface LanguesConstantes {
     public static final int LOC_POPUP_DJIKSTRA = 88;
     public static final int LOC_POPUP_DEUX_DJIKSTRA = 89;
     public static final int LOC_DEMANDE_SELECTION_DJIKSTRA = 90;
+    public static final int LOC_CALCUL_EN_COURS = 91;
+    public static final int LOC_ANNULER = 92;
+    public static final int LOC_CHROMATIQUE_EXACT = 93;
+    public static final int LOC_INFOS_COMPOSANTES = 94;
+    public static final int LOC_ALGO_COMPOSANTES = 95;
+    public static final int LOC_NB_COMPOSANTES_FORTES = 96;
+    public static final int LOC_ARCS_REDUITS = 97;
+    public static final int LOC_CIRCUIT_NEGATIF = 98;
+    public static final int LOC_HIERARCHIE = 99;
 	
     /**
      * Tableau contenant tous les textes.
@@ -231,7 +240,16 @@ public interface LanguesConstantes {
         {"Ceci fermera le graphe courant, tout changement non sauvegardé sera perdu.\nÊtes-vous sûr de vouloir fermer le graphe ?", "一旦关闭, 就无法恢复没有备份的内容.\n您是否确定关闭此图?", "This will close the current graph without saving it.\nAre you sure you want to close the graph ?"},
         {"Sélectionnez deux sommets afin d'afficher le chemin le plus court reliant les deux.", "请选择最短路径的两个顶点", "Choose two nodes to show the shortest path between them."},
         {"Encore un sommet à sélectionner.", "请再选择一个顶点", "One more node to choose."},
-        {"Sélectionnez deux autres sommets si vous souhaitez relancer l'algorithme.", "如果想再运行算法 请选择其他两个顶点", "Choose another pair of nodes if you want to re-run the algorithm."}
+        {"Sélectionnez deux autres sommets si vous souhaitez relancer l'algorithme.", "如果想再运行算法 请选择其他两个顶点", "Choose another pair of nodes if you want to re-run the algorithm."},
+        {"Calcul en cours...", "正在计算...", "Computing..."},
+        {"Annuler", "取消", "Cancel"},
+        {"Le nombre chromatique vaut : ", "点色数为 :", "The chromatic number is : "},
+        {" composantes", " 个连通分量", " components"},
+        {"Composantes fortement connexes", "强连通分量", "Strongly connected components"},
+        {"Nombre de composantes fortement connexes : ", "强连通分量数 : ", "Number of strongly connected components : "},
+        {"Arcs du graphe réduit : ", "缩点图的弧数 : ", "Arcs of the condensation : "},
+        {"Circuit de poids négatif : les distances ne sont pas bornées.", "存在负权回路 : 距离无下界.", "Negative cycle : distances are unbounded."},
+        {"Préparer les plus courts chemins (hiérarchie de contraction)", "预处理最短路径 (收缩层次)", "Prepare shortest paths (contraction hierarchy)"}
 	};
 	
 }
@@ -14,6 +14,11 @@ public interface SauvegardeConstantes {
 	 */
 	public static final String OTHER_SAVE_FORMAT = ".gmpp";
 	
+	/**
+	 * Valeur = .gmch, format de la hiérarchie de contraction enregistrée à côté d'un graphe.
+	 */
+	public static final String HIERARCHIE_FORMAT = ".gmch";
+	
 	/**
 	 * Valeur = 0, ligne contenant les informations du graphe dans le fichier de sauvegarde.
 	 */
@@ -360,13 +360,14 @@ public class CreationGraphe extends JFrame implements GrapheConstantes, LanguesC
 				gi.setGraphe(new PanelGraphe(nom.getText(), type_orientation, type_simple, type_arcs));
 			}
 			else{
-				if(type_arcs == VALUE && gi.getGraphe().getTypeArcs()!=VALUE)
-					for(Arc a: gi.getGraphe().getArcs())
-						a.setDistance("0", type_orientation, type_arcs);
+				boolean valuer = (type_arcs == VALUE && gi.getGraphe().getTypeArcs()!=VALUE);
 				gi.getGraphe().setNom(nom.getText());
 				gi.getGraphe().setTypeOrientation(type_orientation);
 				gi.getGraphe().setTypeSimple(type_simple);
 				gi.getGraphe().setTypeArcs(type_arcs);
+				if(valuer)
+					for(Arc a: gi.getGraphe().getArcs())
+						gi.getGraphe().modifierDistance(a, "0");
 			}
 			
 			gi.getGraphe().attacherParent(gi);
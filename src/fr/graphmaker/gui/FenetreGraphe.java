@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
@@ -28,6 +29,7 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JTabbedPane;
 import javax.swing.SwingConstants;
@@ -35,11 +37,13 @@ import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import fr.graphmaker.algorithmes.ColorationDynamique;
+import fr.graphmaker.algorithmes.ResultatDjikstra;
+import fr.graphmaker.algorithmes.ResultatTarjan;
 import fr.graphmaker.constantes.CouleursConstantes;
 import fr.graphmaker.constantes.GrapheConstantes;
 import fr.graphmaker.constantes.ImagesConstantes;
 import fr.graphmaker.constantes.LanguesConstantes;
-import fr.graphmaker.outils.Arc;
 import fr.graphmaker.outils.GestionnaireFichier;
 import fr.graphmaker.outils.Sommet;
 
@@ -79,6 +83,7 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
    	private ArrayList<JMenuItem> btns_arcs = new ArrayList<JMenuItem>();
    	private ArrayList<JMenuItem> btns_langue = new ArrayList<JMenuItem>();
    	private ArrayList<JMenuItem> btns_algo = new ArrayList<JMenuItem>();
+   	private JCheckBoxMenuItem btn_hierarchie = new JCheckBoxMenuItem();
    	
    	private JPanel pInfos;
    	private JLabel lOrientation = new JLabel();
@@ -96,11 +101,18 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 	private JButton bPlus = new JButton(IMG_PLUS);
 	
 	private JPanel tabBrelaz = new JPanel();
+	private JPanel tabComposantes = new JPanel();
    	
    	private JLabel lPopupDjikstra = new JLabel();
    	private JLabel lPopupDeuxDjikstra = new JLabel();
    	private JPanel tabDjikstra = new JPanel();
    	private JPanel popupDjikstra = new JPanel();
+   	
+   	private JPanel pProgression = new JPanel(new FlowLayout(FlowLayout.CENTER));
+   	private JLabel lProgression = new JLabel();
+   	private JProgressBar barreProgression = new JProgressBar(0, 100);
+   	private JButton bAnnuler = new JButton();
+   	private ServiceAlgorithmes service = new ServiceAlgorithmes(this);
 	
 	private JTabbedPane pRepresentations = new JTabbedPane();
 	private JPanel pSagittale = new JPanel(new BorderLayout());
@@ -127,6 +139,18 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		setVisible(true);
 	}
 	
+	/**
+	 * Affiche l'avancement de l'algorithme en cours d'exécution dans le panel sud.
+	 * 
+	 * @param pourcentage Avancement de l'algorithme, entre 0 et 100
+	 */
+	public void afficherProgression(int pourcentage){
+		lProgression.setText(LOC[LOC_CALCUL_EN_COURS][langue]);
+		bAnnuler.setText(LOC[LOC_ANNULER][langue]);
+		barreProgression.setValue(pourcentage);
+		pProgression.setVisible(true);
+	}
+	
 	/**
 	 * Créé la barre de menu contenant les options de graphe, de changement de forme, de langue, et les algorithmes.
 	 * 
@@ -209,11 +233,14 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		
 		for(int i=0; i<NOMBRE_ALGO; i++){
 			JRadioButtonMenuItem algoButton = new JRadioButtonMenuItem();
-			algoButton.addActionListener(new ButtonMenuListener(i+10));
+			algoButton.addActionListener(new ButtonMenuListener(OPTIONS_ALGO[i]));
 			algo_menu.add(algoButton);
 			btns_algo.add(algoButton);
 			algoGroup.add(algoButton);
 		}
+		algo_menu.addSeparator();
+		btn_hierarchie.addActionListener(new HierarchieListener());
+		algo_menu.add(btn_hierarchie);
 		
 		refresh_menu();
 		
@@ -337,12 +364,20 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		pSud.add(bPlus);
 		
 		pSud.add(tabBrelaz);
+		pSud.add(tabComposantes);
 		
 		pSud.add(lPopupDjikstra);
 		pSud.add(lPopupDeuxDjikstra);
 		pSud.add(tabDjikstra);
 		
+		bAnnuler.addActionListener(new BoutonAnnulerListener());
+		pProgression.add(lProgression);
+		pProgression.add(barreProgression);
+		pProgression.add(bAnnuler);
+		pProgression.setVisible(false);
+		
 		pbSud.add(pSud, BorderLayout.NORTH);
+		pbSud.add(pProgression, BorderLayout.CENTER);
 		pbSud.add(popupDjikstra, BorderLayout.SOUTH);
 		
 		return pbSud;
@@ -366,6 +401,22 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		return numMarquage.getText();
 	}
 	
+	/**
+	 * Renvoie le service exécutant les algorithmes en arrière-plan pour cette fenêtre.
+	 * 
+	 * @return Service d'exécution des algorithmes
+	 */
+	public ServiceAlgorithmes getService(){
+		return service;
+	}
+	
+	/**
+	 * Cache l'avancement de l'algorithme dans le panel sud.
+	 */
+	public void masquerProgression(){
+		pProgression.setVisible(false);
+	}
+	
 	/**
 	 * Modifie le bouton reçu en paramètre pour lui donner l'aspect voulu par notre design.
 	 * 
@@ -503,12 +554,15 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		   	lSommets.setText(LOC[LOC_INFOS_SOMMETS][langue]+g.getSommets().size());
 		   	
 		   	if(g.getTypeOrientation() == NON_ORIENTE)
-		   		lArcs.setText(LOC[LOC_INFOS_ARETES][langue]+g.getArcs().size()/2);
+		   		lArcs.setText(LOC[LOC_INFOS_ARETES][langue]+g.getNbArcs()/2);
 		   	else
-		   		lArcs.setText(LOC[LOC_INFOS_ARCS][langue]+g.getArcs().size());
+		   		lArcs.setText(LOC[LOC_INFOS_ARCS][langue]+g.getNbArcs());
 		   	
 		   	if(g.estConnexe())
 		   		lConnexite.setText(LOC[LOC_INFOS_CONNEXE][langue]+LOC[LOC_INFOS_OUI][langue]);
+		   	else if(g.getTypeOrientation() == NON_ORIENTE)
+		   		lConnexite.setText(LOC[LOC_INFOS_CONNEXE][langue]+LOC[LOC_INFOS_NON][langue]
+		   				+" ("+g.getNbComposantes()+LOC[LOC_INFOS_COMPOSANTES][langue]+")");
 		   	else
 		   		lConnexite.setText(LOC[LOC_INFOS_CONNEXE][langue]+LOC[LOC_INFOS_NON][langue]);
 		}
@@ -580,10 +634,12 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 			if(g.getTypeOrientation() == NON_ORIENTE){
 				btns_options.get(DESORIENTER_GRAPHE).setEnabled(false);
 				btns_algo.get(ALGO_BRELAZ).setEnabled(true);
+				btns_algo.get(ALGO_COMPOSANTES).setEnabled(false);
 			}
 			else{
 				btns_options.get(DESORIENTER_GRAPHE).setEnabled(true);
 				btns_algo.get(ALGO_BRELAZ).setEnabled(false);
+				btns_algo.get(ALGO_COMPOSANTES).setEnabled(true);
 			}
 			
 			if(g.getTypeSimple() == SIMPLE || g.getTypeOrientation() == NON_ORIENTE)
@@ -591,10 +647,14 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 			else
 				btns_options.get(SIMPLIFIER_GRAPHE).setEnabled(true);
 			
-			if(g.getTypeArcs() != VALUE)
+			if(g.getTypeArcs() != VALUE){
 				btns_algo.get(ALGO_DJIKSTRA).setEnabled(false);
-			else
+				btn_hierarchie.setEnabled(false);
+			}
+			else{
 				btns_algo.get(ALGO_DJIKSTRA).setEnabled(true);
+				btn_hierarchie.setEnabled(true);
+			}
 			
 			btns_sommets.get(ELLIPSE).setText(LOC[LOC_ELLIPSE][langue]);
 			btns_sommets.get(RECTANGLE).setText(LOC[LOC_RECTANGLE][langue]);
@@ -611,6 +671,9 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 			btns_algo.get(ALGO_DJIKSTRA).setText(LOC[LOC_ALGO_DJIKSTRA][langue]);
 			btns_algo.get(ALGO_BRELAZ).setText(LOC[LOC_ALGO_BRELAZ][langue]);
 			btns_algo.get(ALGO_MARQUAGE).setText(LOC[LOC_ALGO_MARQUAGE][langue]);
+			btns_algo.get(ALGO_COMPOSANTES).setText(LOC[LOC_ALGO_COMPOSANTES][langue]);
+			btn_hierarchie.setText(LOC[LOC_HIERARCHIE][langue]);
+			btn_hierarchie.setSelected(g.isHierarchieActivee());
 			
 			if(g.getAlgoCode() != -1)
 				btns_algo.get(g.getAlgoCode()).setSelected(true);
@@ -639,6 +702,10 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		tabBrelaz.setVisible(false);
 		tabBrelaz.removeAll();
 		
+		tabComposantes.getParent().setVisible(false);
+		tabComposantes.setVisible(false);
+		tabComposantes.removeAll();
+		
 		lPopupDjikstra.getParent().setVisible(false);
 		lPopupDjikstra.setVisible(false);
 		lPopupDeuxDjikstra.setVisible(false);
@@ -681,8 +748,24 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		   		tabBrelaz.getParent().setVisible(true);
 		   		tabBrelaz.setVisible(true);
 		   		tabBrelaz.setLayout(new GridLayout(2,1,10,10));
-		   		tabBrelaz.add(new JLabel(LOC[LOC_CHROMATIQUE][langue] + g.getNbChromatique(), JLabel.CENTER));
-		   		tabBrelaz.add(new JLabel("X(G) ≤ " + g.getNbChromatique(), JLabel.CENTER));
+		   		ColorationDynamique coloration = g.getColoration();
+		   		if(coloration != null && coloration.estExact()){
+		   			tabBrelaz.add(new JLabel(LOC[LOC_CHROMATIQUE_EXACT][langue] + g.getNbChromatique(), JLabel.CENTER));
+		   			tabBrelaz.add(new JLabel("X(G) = " + g.getNbChromatique(), JLabel.CENTER));
+		   		}
+		   		else{
+		   			int borne_inf = (coloration == null ? 0 : coloration.getBorneInferieure());
+		   			tabBrelaz.add(new JLabel(LOC[LOC_CHROMATIQUE][langue] + g.getNbChromatique(), JLabel.CENTER));
+		   			tabBrelaz.add(new JLabel(borne_inf + " ≤ X(G) ≤ " + g.getNbChromatique(), JLabel.CENTER));
+		   		}
+		   	}
+		   	if(g.getAlgoCode() == ALGO_COMPOSANTES && g.getResultatComposantes() != null){
+		   		ResultatTarjan composantes = g.getResultatComposantes();
+		   		tabComposantes.getParent().setVisible(true);
+		   		tabComposantes.setVisible(true);
+		   		tabComposantes.setLayout(new GridLayout(2,1,10,10));
+		   		tabComposantes.add(new JLabel(LOC[LOC_NB_COMPOSANTES_FORTES][langue] + composantes.getNbComposantes(), JLabel.CENTER));
+		   		tabComposantes.add(new JLabel(LOC[LOC_ARCS_REDUITS][langue] + composantes.getNbArcsReduits(), JLabel.CENTER));
 		   	}
 		   	if(g.getAlgoCode() == ALGO_DJIKSTRA){
 		   		lPopupDjikstra.setText(LOC[LOC_POPUP_DJIKSTRA][langue]);
@@ -701,26 +784,47 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		   			tabDjikstra.setVisible(true);
 		   			popupDjikstra.setVisible(true);
 		   			
-		   			tabDjikstra.setLayout(new GridLayout(2,g.getSommetsDjikstra().size()+1,10,10));
-		   			tabDjikstra.setFont(FONT_MONOSPACE_12);
-		   			tabDjikstra.add(new JLabel("Som(G)", JLabel.CENTER));
-		   			for(Sommet s : g.getSommetsDjikstra())
-		   				tabDjikstra.add(new JLabel(s.getValeur(), JLabel.CENTER));
-		   			tabDjikstra.add(new JLabel("d_min", JLabel.CENTER));
-		   			tabDjikstra.add(new JLabel("0", JLabel.CENTER));
-   					int tmp=0;
-   					int distance=0;
-		   			for(Sommet s : g.getSommetsDjikstra())
-		   				if(!s.equals(g.getSelectionnes().get(1)))
-			   				for(Arc a: s.getArcsSortants())
-				   				if(a.isSelectionne() && a.getArrivee().getPrecedentDjikstra() == s){
-			   						distance = Integer.parseInt(a.getDistance());
-			   						distance += tmp;
-			   						tabDjikstra.add(new JLabel(Integer.toString(distance), JLabel.CENTER));
-				   					tmp = distance;
-				   				}
-		   			popupDjikstra.setLayout(new GridLayout(1,1,10,10));
-		   			popupDjikstra.add(new JLabel(LOC[LOC_DEMANDE_SELECTION_DJIKSTRA][langue], JLabel.CENTER));
+		   			ResultatDjikstra djikstra = g.getResultatDjikstra();
+		   			if(djikstra != null && djikstra.existeCircuitNegatif()){
+		   				/*
+		   				 * Le circuit est affiché en revenant à son premier sommet,
+		   				 * les distances de ses sommets n'étant pas bornées.
+		   				 */
+		   				int[] circuit = djikstra.getCircuitNegatif();
+		   				tabDjikstra.setLayout(new GridLayout(2,circuit.length+2,10,10));
+		   				tabDjikstra.setFont(FONT_MONOSPACE_12);
+		   				tabDjikstra.add(new JLabel("Som(G)", JLabel.CENTER));
+		   				for(int s : circuit)
+		   					tabDjikstra.add(new JLabel(djikstra.getGraphe().getSommet(s).getValeur(), JLabel.CENTER));
+		   				tabDjikstra.add(new JLabel(djikstra.getGraphe().getSommet(circuit[0]).getValeur(), JLabel.CENTER));
+		   				tabDjikstra.add(new JLabel("d_min", JLabel.CENTER));
+		   				for(int i=0; i<=circuit.length; i++)
+		   					tabDjikstra.add(new JLabel("-∞", JLabel.CENTER));
+		   				popupDjikstra.setLayout(new GridLayout(2,1,10,10));
+		   				popupDjikstra.add(new JLabel(LOC[LOC_CIRCUIT_NEGATIF][langue], JLabel.CENTER));
+		   				popupDjikstra.add(new JLabel(LOC[LOC_DEMANDE_SELECTION_DJIKSTRA][langue], JLabel.CENTER));
+		   			}
+		   			else{
+			   			tabDjikstra.setLayout(new GridLayout(2,g.getSommetsDjikstra().size()+1,10,10));
+			   			tabDjikstra.setFont(FONT_MONOSPACE_12);
+			   			tabDjikstra.add(new JLabel("Som(G)", JLabel.CENTER));
+			   			for(Sommet s : g.getSommetsDjikstra())
+			   				tabDjikstra.add(new JLabel(s.getValeur(), JLabel.CENTER));
+			   			tabDjikstra.add(new JLabel("d_min", JLabel.CENTER));
+			   			tabDjikstra.add(new JLabel("0", JLabel.CENTER));
+			   			if(djikstra != null && djikstra.existeChemin()){
+			   				int[] chemin = djikstra.getChemin();
+			   				for(int i=1; i<chemin.length; i++){
+			   					double distance = djikstra.getDistance(chemin[i]);
+			   					if(distance == Math.rint(distance))
+			   						tabDjikstra.add(new JLabel(Long.toString((long)distance), JLabel.CENTER));
+			   					else
+			   						tabDjikstra.add(new JLabel(Double.toString(distance), JLabel.CENTER));
+			   				}
+			   			}
+			   			popupDjikstra.setLayout(new GridLayout(1,1,10,10));
+			   			popupDjikstra.add(new JLabel(LOC[LOC_DEMANDE_SELECTION_DJIKSTRA][langue], JLabel.CENTER));
+		   			}
 		   		}
 		   	}
 	   	}
@@ -749,6 +853,8 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 	 * @param g Nouveau graphe à attacher à la fenêtre
 	 */
 	public void setGraphe(PanelGraphe g){
+		service.annuler();
+		service.annulerPreparation();
 		if(this.g != null)
 			pSagittale.remove(this.g);
 		this.g = g;
@@ -836,6 +942,7 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		   	algo_menu.setFont(f);
 		   	for(JMenuItem item: btns_algo)
 				item.setFont(f);
+		   	btn_hierarchie.setFont(f);
 		}
 		if(lPopupDjikstra!= null)
 			lPopupDjikstra.setFont(f);
@@ -845,6 +952,20 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 			tabDjikstra.setFont(f);
 		if(popupDjikstra!= null)
 			popupDjikstra.setFont(f);
+		if(lProgression!= null)
+			lProgression.setFont(f);
+		if(bAnnuler!= null)
+			bAnnuler.setFont(f);
+	}
+	
+	/**
+	 * Listener du bouton d'annulation de l'algorithme en cours.
+	 */
+	class BoutonAnnulerListener implements ActionListener{
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			service.annulerAffichee();
+		}
 	}
 	
 	/**
@@ -1029,7 +1150,7 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 				}
 				
 				g.activerOption(codeBouton, langue);
-				if(codeBouton == DJIKSTRA || codeBouton == BRELAZ || codeBouton == MARQUAGE)
+				if(codeBouton == DJIKSTRA || codeBouton == BRELAZ || codeBouton == MARQUAGE || codeBouton == COMPOSANTES)
 					unclickAll();
 				if(codeBouton == MARQUAGE){
 					g.setNiveauMarquage(0);
@@ -1074,6 +1195,19 @@ public class FenetreGraphe extends JFrame implements GrapheConstantes, LanguesCo
 		}
 	}
 	
+	/**
+	 * Listener de l'option du menu Algorithmes préparant les plus courts chemins par une hiérarchie de contraction.
+	 */
+	class HierarchieListener implements ActionListener{
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			if(g != null)
+				g.activerHierarchie(btn_hierarchie.isSelected());
+			
+			refresh_menu();
+		}
+	}
+	
 	/**
 	 * Listener des boutons du sous-menu Langue.
 	 */
@@ -17,31 +17,39 @@ import java.util.ArrayList;
 
 import javax.swing.JPanel;
 
-import fr.graphmaker.algorithmes.AlgoBrelaz;
-import fr.graphmaker.algorithmes.AlgoDjikstra;
+import fr.graphmaker.algorithmes.AlgoColorationExacte;
+import fr.graphmaker.algorithmes.AlgoContraction;
+import fr.graphmaker.algorithmes.AlgoDistances;
 import fr.graphmaker.algorithmes.AlgoMarquage;
+import fr.graphmaker.algorithmes.AlgoTarjan;
+import fr.graphmaker.algorithmes.CacheDjikstra;
+import fr.graphmaker.algorithmes.ColorationDynamique;
+import fr.graphmaker.algorithmes.HierarchieContraction;
+import fr.graphmaker.algorithmes.RechercheContraction;
+import fr.graphmaker.algorithmes.ResultatBrelaz;
+import fr.graphmaker.algorithmes.ResultatDistances;
+import fr.graphmaker.algorithmes.ResultatDjikstra;
+import fr.graphmaker.algorithmes.ResultatMarquage;
+import fr.graphmaker.algorithmes.ResultatTarjan;
 import fr.graphmaker.constantes.GrapheConstantes;
+import fr.graphmaker.modele.Graphe;
+import fr.graphmaker.modele.GrapheCompact;
 import fr.graphmaker.outils.Arc;
 import fr.graphmaker.outils.BoiteAOutil;
+import fr.graphmaker.outils.EcouteurGraphe;
+import fr.graphmaker.outils.Palette;
 import fr.graphmaker.outils.Point;
 import fr.graphmaker.outils.Sommet;
 
 /**
- * Classe gérant le graphe et tous ses composants (arcs/arêtes et sommets).
+ * Classe affichant un graphe et tous ses composants (arcs/arêtes et sommets).
  * C'est un JPanel à intégrer dans une fenêtre pour en obtenir une représentation graphique et pouvoir interagir avec.
- * Constitué d'un nom, d'un type d'orientation, d'un type de simplicité (boucles ou non), d'un type d'arcs et d'une liste de sommets.
+ * Les données du graphe sont portées par un objet Graphe, ce panel n'en est qu'une vue.
  */
 public class PanelGraphe extends JPanel implements GrapheConstantes{
 	private static final long serialVersionUID = 4069699918532760578L;
 	
-	// Variables conservees dans la sauvegarde
-	private String nom;
-	private int type_orientation;
-    private int type_simple;
-    private int type_arcs;
-    private ArrayList<Sommet> sommets = new ArrayList<Sommet>();
-    
-    // Variables ignorees dans la sauvegarde
+	private Graphe graphe;
     private boolean[] options;
     private ArrayList<Sommet> selectionnes = new ArrayList<Sommet>();
     private Sommet sommet_deplace;
@@ -53,9 +61,20 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     private BasicStroke forme_arcs = STYLE_ARC_SIMPLE_PLEIN;
     private FenetreGraphe gi;
     private int niveau_marquage = 1;
-    private int max_sommet = 0;
-    private int nbChromatique;
-    private ArrayList<Sommet> sommetsDjikstra = new ArrayList<Sommet>();
+    private ColorationDynamique coloration;
+    private ResultatDjikstra resultat_djikstra;
+    private ResultatMarquage resultat_marquage;
+    private ResultatMarquage marquage_descendants;
+    private ResultatMarquage marquage_ascendants;
+    private ResultatTarjan resultat_composantes;
+    private ResultatDistances resultat_distances;
+    private int modifications_distances = -1;
+    private CacheDjikstra arbres_djikstra = new CacheDjikstra();
+    private int nb_modifications = 0;
+    private RechercheContraction recherche_hierarchie;
+    private int modifications_hierarchie = -1;
+    private int modifications_preparation = -1;
+    private boolean hierarchie_activee = false;
     
     /**
      * Constructeur initialisant le graphe à vide.
@@ -76,18 +95,47 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#ETIQUETE
      */
     public PanelGraphe(String nom, int type_orientation, int type_simple, int type_arcs) {
-    	this.nom = nom;
-    	this.type_orientation = type_orientation;
-    	this.type_simple = type_simple;
-    	this.type_arcs = type_arcs;
+    	this(new Graphe(nom, type_orientation, type_simple, type_arcs));
+    }
+    
+    /**
+     * Constructeur créant une vue sur le graphe reçu en paramètre.
+     * 
+     * @param graphe Graphe à afficher et manipuler
+     */
+    public PanelGraphe(Graphe graphe) {
+    	this.graphe = graphe;
     	options = new boolean[NOMBRE_OPTIONS];
     	desactiverOptions();
+        graphe.ajouterEcouteur(new ModificationsListener());
         addMouseListener(new GrapheListener());
         addMouseMotionListener(new GrapheListener());
         menu = new PopUpGraphe(this);
         super.setBackground(Color.WHITE);
     }
     
+    /**
+     * Active ou désactive la préparation des plus courts chemins par une hiérarchie de contraction.
+     * Une fois activée, la hiérarchie est construite en arrière-plan, puis reconstruite à la première recherche
+     * suivant chaque modification du graphe ; en attendant, les recherches se font sans elle.
+     * La construction se fait à part des autres algorithmes : les lancer ou désactiver les options ne l'interrompt pas.
+     * 
+     * @param activee true pour préparer les plus courts chemins, false pour oublier la hiérarchie
+     * 
+     * @see #runDjikstra(Sommet, Sommet)
+     */
+    public void activerHierarchie(boolean activee){
+    	hierarchie_activee = activee;
+    	if(!activee){
+    		recherche_hierarchie = null;
+    		modifications_hierarchie = -1;
+    		if(gi != null)
+    			gi.getService().annulerPreparation();
+    	}
+    	else
+    		preparerHierarchie();
+    }
+    
     /**
      * Active l'option dont le code est fourni en paramètre.
      * 
@@ -110,12 +158,30 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#VIDER
      * @see GrapheConstantes#CHAINE
      * @see GrapheConstantes#CYCLE
+     * @see GrapheConstantes#COMPOSANTES
      * 
      * @see fr.graphmaker.constantes.LanguesConstantes#FR
      * @see fr.graphmaker.constantes.LanguesConstantes#CH
      * @see fr.graphmaker.constantes.LanguesConstantes#EN
      */
     public void activerOption(int codeOption, int langue){
+    	activerOption(codeOption, langue, false);
+    }
+    
+    /**
+     * Active l'option dont le code est fourni en paramètre.
+     * Les algorithmes (Brélaz, clique, marquage et composantes) sont exécutés en arrière-plan par le service de la fenêtre,
+     * sauf si l'exécution synchrone est demandée ou qu'aucune fenêtre n'est rattachée au graphe.
+     * La coloration, réparée au fil des modifications, n'est recalculée entièrement que si elle a trop dérivé.
+     * Les composantes fortement connexes ne sont recalculées qu'après une modification du graphe.
+     * 
+     * @param codeOption Code de l'option à activer
+     * @param langue Langue de l'interface utilisateur appelant la méthode
+     * @param synchrone true pour exécuter les algorithmes immédiatement dans le thread courant
+     * 
+     * @see #activerOption(int, int)
+     */
+    public void activerOption(int codeOption, int langue, boolean synchrone){
     	if(codeOption >= 0 && codeOption < NOMBRE_OPTIONS){
     		if(codeOption!=MARQUAGE || selectionnes.size()!=1 || selectionnes.get(0)==null)
     			desactiverOptions();
@@ -125,10 +191,10 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     		resetArcs();
     		desactiverOptions();
     	}
-    	if(options[BRELAZ])
-			nbChromatique = AlgoBrelaz.coloration(sommets, langue);
+    	if(options[BRELAZ] && (coloration == null || coloration.estDerivee()))
+    		lancer(tacheColoration(), synchrone);
     	if(options[CLIQUE])
-    		buildClique();
+    		lancer(tacheClique(), synchrone);
     	if(options[VIDER]){
     		vider();
     		desactiverOptions();
@@ -138,7 +204,9 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     	if(options[CYCLE])
     		buildCycle();
     	if(options[MARQUAGE] && selectionnes.size()==1 && selectionnes.get(0)!=null)
-    		AlgoMarquage.marquage(selectionnes.get(0), sommets, type_orientation, niveau_marquage);
+    		marquer(selectionnes.get(0), synchrone);
+    	if(options[COMPOSANTES] && resultat_composantes == null)
+    		lancer(tacheComposantes(), synchrone);
     		
     	repaint();
     }
@@ -151,22 +219,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @throws Exception Si la chaîne de caractères n'est pas convertible en arc, on renvoie une exception.
      */
     public void addArc(String[] arc) throws Exception{
-    	Arc a = Arc.stringToArc(arc);
-    	
-    	if(a == null)
-    		throw new Exception();
-    	
-    	Sommet depart = null, arrivee = null;
-    	
-    	for(Sommet s: sommets){
-    		if(a.getDepart().equals(s))
-    			depart = s;
-    		if(a.getArrivee().equals(s))
-    			arrivee = s;
-    	}
-    	
-    	if(depart != null && arrivee != null && !BoiteAOutil.arcExistant(depart, arrivee))
-    		depart.addArcSortant(new Arc(depart, a.getBezier(), arrivee, a.getPosFleche(), a.getDistance(), a.getForme()), type_orientation);
+    	graphe.addArc(arc);
     }
     
     /**
@@ -177,13 +230,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @throws Exception Si la chaîne de caractères n'est pas convertible en sommet, on renvoie une exception.
      */
     public void addSommet(String[] sommet) throws Exception{
-    	Sommet s = Sommet.stringToSommet(sommet);
-    	
-    	if(s == null)
-    		throw new Exception();
-    	
-    	max_sommet++;
-    	sommets.add(s);
+    	graphe.addSommet(sommet);
     }
     
     /**
@@ -213,17 +260,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * et pour arrivée le dernier sommets de cette liste.
      */
     public void buildChaine(){
-    	Arc a = null;
-    	for(int i=0; i<sommets.size()-1; i++){
-    		if(!BoiteAOutil.arcExistant(sommets.get(i), sommets.get(i+1))){
-    			a = new Arc(sommets.get(i), new Point(), sommets.get(i+1));
-    			a.calculerBezierInitial(type_orientation);
-    			if(type_arcs == VALUE)
-    				a.setDistance("0", type_orientation, type_arcs);
-    			sommets.get(i).addArcSortant(a, type_orientation);
-    		}
-    	}
-    	
+    	graphe.buildChaine();
     	repaint();
     }
     
@@ -232,18 +269,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * A n'utiliser de préférence que sur de petits graphes, une trop grande augmentation du nombre d'objets à gérer diminuera grandement les performances.
      */
     public void buildClique(){
-    	Arc a = null;
-    	for(Sommet depart: sommets){
-    		for(Sommet arrivee: sommets){
-    			if((depart != arrivee || (depart == arrivee && type_orientation == ORIENTE)) && !BoiteAOutil.arcExistant(depart, arrivee)){
-	    			a = new Arc(depart, new Point(), arrivee);
-	    			a.calculerBezierInitial(type_orientation);
-	    			if(type_arcs == VALUE)
-	    				a.setDistance("0", type_orientation, type_arcs);
-	    			depart.addArcSortant(a, type_orientation);
-    			}
-    		}
-    	}
+    	graphe.buildClique();
     	repaint();
     }
     
@@ -252,14 +278,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * Le cycle a pour point de départ et d'arrivée le premier sommet de la liste des sommets.
      */
     public void buildCycle(){
-    	buildChaine();
-    	if(!BoiteAOutil.arcExistant(sommets.get(sommets.size()-1), sommets.get(0))){
-			Arc a = new Arc(sommets.get(sommets.size()-1), new Point(), sommets.get(0));
-			a.calculerBezierInitial(type_orientation);
-			if(type_arcs == VALUE)
-				a.setDistance("0", type_orientation, type_arcs);
-			sommets.get(sommets.size()-1).addArcSortant(a, type_orientation);
-    	}
+    	graphe.buildCycle();
     	repaint();
     }
     
@@ -305,6 +324,8 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * Désactive toutes les options du graphe et dé-sélectionne tous les sommets.
      */
 	public void desactiverOptions(){
+		if(gi != null)
+			gi.getService().annuler();
     	for(int i=0; i<NOMBRE_OPTIONS; i++)
     		options[i] = false;
     	deselectionner();
@@ -313,25 +334,50 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     
     /**
 	 * Dé-sélectionne tous les sommets du graphe et vide la liste de sommets selectionnés.
+	 * Le chemin de Djikstra et le marquage affichés sont oubliés.
 	 */
 	public void deselectionner(){
-    	for(Sommet s: sommets)
-    		s.setSelectionne(false, type_orientation);
+    	for(Sommet s: graphe.getSommets())
+    		s.setSelectionne(false, graphe.getTypeOrientation());
     	selectionnes.clear();
+    	resultat_djikstra = null;
+    	resultat_marquage = null;
     }
     
+    /**
+	 * Renvoie les plus courtes distances entre tous les couples de sommets du graphe, gardées jusqu'à la prochaine modification.
+	 * Si elles ne sont plus à jour, leur calcul est lancé : en arrière-plan, la méthode renvoie null
+	 * et la fenêtre est mise à jour à la fin du calcul (qui attend la fin de l'algorithme en cours, s'il y en a un) ;
+	 * en exécution synchrone, le résultat est renvoyé directement.
+	 * 
+	 * @param synchrone true pour calculer les distances immédiatement dans le thread courant
+	 * @return Résultat contenant la matrice des distances,
+	 * null si elle n'est pas encore calculée ou si le graphe a trop de sommets pour la calculer
+	 */
+	public ResultatDistances distances(boolean synchrone){
+		if(modifications_distances != nb_modifications && (synchrone || gi == null || !gi.getService().estOccupe()))
+			lancer(tacheDistances(), synchrone);
+		return (modifications_distances == nb_modifications ? resultat_distances : null);
+	}
+    
     /**
 	 * Vérifie que le graphe est connexe ou non.
 	 * 
 	 * @return true si le graphe est connexe, false sinon
 	 */
 	public boolean estConnexe(){
-		if(type_orientation == ORIENTE)
-			return AlgoMarquage.connexite(sommets, type_orientation);
-		else
-			return ((getArcs().size()/2) >= sommets.size());
+		return graphe.estConnexe();
 	}
     
+    /**
+     * Renvoie une copie figée du graphe affiché, destinée aux algorithmes.
+     * 
+     * @return Copie figée du graphe
+     */
+    public GrapheCompact figer(){
+    	return graphe.figer();
+    }
+    
     /**
      * Renvoie le code de l'algorithme actuellement actif sur le graphe.
      * 
@@ -340,6 +386,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#ALGO_DJIKSTRA
      * @see GrapheConstantes#ALGO_BRELAZ
      * @see GrapheConstantes#ALGO_MARQUAGE
+     * @see GrapheConstantes#ALGO_COMPOSANTES
      */
     public int getAlgoCode(){
     	if(options[DJIKSTRA])
@@ -348,6 +395,8 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 			return ALGO_BRELAZ;
 		else if(options[MARQUAGE])
 			return ALGO_MARQUAGE;
+		else if(options[COMPOSANTES])
+			return ALGO_COMPOSANTES;
 		else
 			return -1;
     }
@@ -363,7 +412,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     public Arc getArc(int x, int y){
     	Arc selectionne = null;
     	
-    	for(Sommet s: sommets){
+    	for(Sommet s: graphe.getSommets()){
     		for(Arc a: s.getArcsSortants())
     		if(a.contains(x, y, SELECT_ARC)){
     			selectionne = a;
@@ -380,13 +429,16 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @return Liste des arcs du graphe
      */
     public ArrayList<Arc> getArcs(){
-    	ArrayList<Arc> arcs = new ArrayList<Arc>();
-    	
-    	for(Sommet s: sommets)
-    		for(Arc a: s.getArcsSortants())
-    			arcs.add(a);
-    	
-    	return arcs;
+    	return graphe.getArcs();
+    }
+    
+    /**
+     * Renvoie la coloration du graphe, tenue à jour au fil des modifications depuis la dernière coloration complète.
+     * 
+     * @return Coloration du graphe, null si le graphe n'a pas encore été coloré
+     */
+    public ColorationDynamique getColoration(){
+    	return coloration;
     }
     
     /**
@@ -410,6 +462,17 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 			return LOSANGE;
     }
     
+    /**
+     * Renvoie la hiérarchie de contraction du graphe si elle correspond toujours à celui-ci.
+     * 
+     * @return Hiérarchie de contraction, null si elle n'est pas activée, pas encore construite ou plus à jour
+     */
+    public HierarchieContraction getHierarchie(){
+    	if(modifications_hierarchie != nb_modifications || recherche_hierarchie == null)
+    		return null;
+    	return recherche_hierarchie.getHierarchie();
+    }
+    
     /**
      * Renvoie la fenêtre qui sert d'interface associée au graphe.
      * 
@@ -427,11 +490,11 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	public int getMaxX(){
 		double max_x = Double.NEGATIVE_INFINITY;
 		
-		for(Sommet s: sommets)
+		for(Sommet s: graphe.getSommets())
 			if(s.getX()+s.getRayon(SELECTION) > max_x)
 				max_x = s.getX()+s.getRayon(SELECTION);
 		
-		for(Sommet s: sommets)
+		for(Sommet s: graphe.getSommets())
 			for(Arc a: s.getArcsSortants())
 				if(a.getBezier().getX()+RAYON_SOMMET > max_x)
 					max_x = a.getBezier().getX()+RAYON_SOMMET;
@@ -447,7 +510,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	public int getMaxY(){
 		double max_y = Double.NEGATIVE_INFINITY, coeff;
 		
-		for(Sommet s: sommets){
+		for(Sommet s: graphe.getSommets()){
 			if(s.getFormeCode() == LOSANGE)
 				coeff = 1.5;
 			else
@@ -457,7 +520,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 				max_y = s.getY()+(BORDURE_SOMMET*2)+(coeff*RAYON_SOMMET);
 		}
 		
-		for(Sommet s: sommets)
+		for(Sommet s: graphe.getSommets())
 			for(Arc a: s.getArcsSortants())
 				if(a.getBezier().getY()+RAYON_SOMMET > max_y)
 					max_y = a.getBezier().getY()+RAYON_SOMMET;
@@ -473,11 +536,11 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	public int getMinX(){
 		double min_x = Double.POSITIVE_INFINITY;
 		
-		for(Sommet s: sommets)
+		for(Sommet s: graphe.getSommets())
 			if(s.getX()-s.getRayon(SELECTION) < min_x)
 				min_x = s.getX()-s.getRayon(SELECTION);
 		
-		for(Sommet s: sommets)
+		for(Sommet s: graphe.getSommets())
 			for(Arc a: s.getArcsSortants())
 				if(a.getBezier().getX()-RAYON_SOMMET < min_x)
 					min_x = a.getBezier().getX()-RAYON_SOMMET;
@@ -496,7 +559,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	public int getMinY(){
 		double min_y = Double.POSITIVE_INFINITY, coeff;
 		
-		for(Sommet s: sommets){
+		for(Sommet s: graphe.getSommets()){
 			if(s.getFormeCode() == LOSANGE)
 				coeff = 1.5;
 			else
@@ -506,7 +569,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 				min_y = s.getY()-(BORDURE_SOMMET*2)-(coeff*RAYON_SOMMET);
 		}
 		
-		for(Sommet s: sommets)
+		for(Sommet s: graphe.getSommets())
 			for(Arc a: s.getArcsSortants())
 				if(a.getBezier().getY()-RAYON_SOMMET < min_y)
 					min_y = a.getBezier().getY()-RAYON_SOMMET;
@@ -538,6 +601,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#VIDER
      * @see GrapheConstantes#CHAINE
      * @see GrapheConstantes#CYCLE
+     * @see GrapheConstantes#COMPOSANTES
 	 */
 	public int getMode(){
 		int mode = -1;
@@ -550,13 +614,40 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 		return mode;
 	}
     
+    /**
+     * Renvoie le modèle de données affiché par ce panel.
+     * 
+     * @return Graphe affiché
+     */
+    public Graphe getModele(){
+    	return graphe;
+    }
+    
+    /**
+     * Renvoie le nombre d'arcs du graphe, sans construire leur liste.
+     * 
+     * @return Nombre d'arcs
+     */
+    public int getNbArcs(){
+    	return graphe.getNbArcs();
+    }
+    
     /**
      * Renvoie le nombre chromatique de l'algorithme de Brélaz.
      *
      * @return Nombre chromatique
      */
     public int getNbChromatique(){
-    	return nbChromatique;
+    	return (coloration == null ? 0 : coloration.getNbChromatique());
+    }
+    
+    /**
+     * Renvoie le nombre de composantes connexes du graphe.
+     * 
+     * @return Nombre de composantes connexes
+     */
+    public int getNbComposantes(){
+    	return graphe.getNbComposantes();
     }
     
     /**
@@ -574,7 +665,25 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @return Nom du graphe
      */
     public String getNom(){
-    	return nom;
+    	return graphe.getNom();
+    }
+    
+    /**
+     * Renvoie les composantes fortement connexes du graphe.
+     * 
+     * @return Résultat du calcul des composantes, null s'il n'a pas été fait depuis la dernière modification du graphe
+     */
+    public ResultatTarjan getResultatComposantes(){
+    	return resultat_composantes;
+    }
+    
+    /**
+     * Renvoie le résultat de l'algorithme de Djikstra actuellement affiché.
+     * 
+     * @return Résultat de Djikstra, null si aucun chemin n'est affiché
+     */
+    public ResultatDjikstra getResultatDjikstra(){
+    	return resultat_djikstra;
     }
     
     /**
@@ -597,7 +706,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     public Sommet getSommet(double x, double y){
     	Sommet selectionne = null;
     	
-    	for(Sommet s: sommets){
+    	for(Sommet s: graphe.getSommets()){
     		if(s.inBounds(x, y)){
     			selectionne = s;
     			break;
@@ -613,7 +722,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @return Liste des sommets du graphe
      */
     public ArrayList<Sommet> getSommets(){
-    	return sommets;
+    	return graphe.getSommets();
     }
     
     /**
@@ -622,7 +731,11 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @return Liste de sommets correspondant au chemin de Djikstra
      */
     public ArrayList<Sommet> getSommetsDjikstra(){
-    	return sommetsDjikstra;
+    	ArrayList<Sommet> chemin = new ArrayList<Sommet>();
+    	if(resultat_djikstra != null && resultat_djikstra.existeChemin())
+    		for(int s: resultat_djikstra.getChemin())
+    			chemin.add(resultat_djikstra.getGraphe().getSommet(s));
+    	return chemin;
     }
     
     /**
@@ -656,7 +769,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#ETIQUETE
      */
     public int getTypeArcs(){
-    	return type_arcs;
+    	return graphe.getTypeArcs();
     }
     
     /**
@@ -668,7 +781,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#NON_ORIENTE
      */
     public int getTypeOrientation(){
-    	return type_orientation;
+    	return graphe.getTypeOrientation();
     }
     
     /**
@@ -680,12 +793,24 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#NON_SIMPLE
      */
     public int getTypeSimple(){
-    	return type_simple;
+    	return graphe.getTypeSimple();
     }
 	
-	@SuppressWarnings("unchecked")
+	/**
+	 * Indique si les plus courts chemins sont préparés par une hiérarchie de contraction.
+	 * 
+	 * @return true si la hiérarchie est activée, false sinon
+	 */
+	public boolean isHierarchieActivee(){
+		return hierarchie_activee;
+	}
+	
 	/**
 	 * Vérifie que le marquage est complet selon le niveau courant et la direction fournie.
+	 * La réponse se lit sur le nombre de niveaux à partir duquel le marquage, dans la direction du niveau courant, est complet :
+	 * les parcours complets du sommet sélectionné étant gardés en cache jusqu'à la prochaine modification du graphe,
+	 * la vérification ne refait un parcours que la première fois.
+	 * Dans la direction opposée au niveau courant, le marquage n'est complet que s'il ne marque aucun arc.
 	 * 
 	 * @param direction 1 ou -1 selon qu'on veuille vérifier les successeurs ou les prédécésseurs
 	 * @return true si le marquage est complet (impossible d'aller plus loin dans la même direction), false sinon
@@ -694,33 +819,21 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	 * @see GrapheConstantes#SUCCESSEURS
 	 */
 	public boolean isMarquageComplet(int direction){
-		int compteur = 0;
-		if(options[MARQUAGE] && sommets.size() > 0 && selectionnes.size() > 0){
-			ArrayList<Sommet> copie_marquage_complet = (ArrayList<Sommet>)sommets.clone();
-			Sommet start = null;
-			
-			AlgoMarquage.marquage(selectionnes.get(0), sommets, type_orientation, niveau_marquage);
-			for(Sommet s: sommets)
-				if(s.isSelectionne())
-					for(Arc a: s.getArcsSortants())
-						if(a.isSelectionne())
-							compteur++;
-			
-			for(Sommet s: copie_marquage_complet)
-				if(s.equals(selectionnes.get(0)))
-					start = s;
-			AlgoMarquage.marquage(start, copie_marquage_complet, type_orientation, direction*copie_marquage_complet.size());
-			if((niveau_marquage>=0 && direction==1) || (niveau_marquage<=0 && direction==-1))
-				for(Sommet s: copie_marquage_complet)
-					if(s.isSelectionne())
-						for(Arc a: s.getArcsSortants())
-							if(a.isSelectionne())
-								compteur--;
-
-			AlgoMarquage.marquage(selectionnes.get(0), sommets, type_orientation, niveau_marquage);
+		if(!options[MARQUAGE] || graphe.getSommets().size() == 0 || selectionnes.size() == 0)
+			return true;
+		if(niveau_marquage == 0 && graphe.getSommets().size() == 1)
+			return true;
+		
+		int sens = (niveau_marquage > 0 ? SUCCESSEURS : (niveau_marquage < 0 ? PREDECESSEURS : direction));
+		ResultatMarquage courant = getMarquageEnCache(selectionnes.get(0), sens);
+		if(courant == null){
+			courant = AlgoMarquage.marquage(graphe.figer(), selectionnes.get(0).getIdentifiant(), sens);
+			mettreEnCache(courant);
 		}
 		
-		return compteur == 0 || (niveau_marquage == 0 && sommets.size() == 1);
+		if(sens == direction)
+			return Math.abs(niveau_marquage) >= courant.getNiveauComplet();
+		return courant.getNiveauComplet() == 0;
 	}
 	
 	/**
@@ -729,7 +842,20 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	 * @return Matrice du graphe
 	 */
 	public int[][] matrice(){
-		return BoiteAOutil.matrice(sommets);
+		return graphe.matrice();
+	}
+	
+	/**
+	 * Modifie la valeur d'un arc du graphe (et de son jumeau si le graphe est non-orienté).
+	 * La modification est comptée comme celles signalées par les écouteurs du graphe,
+	 * les plus courts chemins en mémoire ne correspondant plus au graphe.
+	 * 
+	 * @param a Arc à modifier
+	 * @param distance Nouvelle valeur de l'arc
+	 */
+	public void modifierDistance(Arc a, String distance){
+		a.setDistance(distance, graphe.getTypeOrientation(), graphe.getTypeArcs());
+		nb_modifications++;
 	}
 	
 	/**
@@ -737,20 +863,30 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * Chaque point manipulable est remis à sa position initiale.
      */
     public void resetArcs(){
-    	for(Sommet s: sommets)
-    		s.resetArcs(type_orientation);
+    	graphe.resetArcs();
     }
 	
 	/**
      * Fait tourner l'algorithme de djikstra selon les paramètres reçus.
+     * Si la hiérarchie de contraction est activée et à jour, la recherche s'y fait dans les deux sens ;
+     * si elle n'est plus à jour, sa reconstruction est lancée (si elle n'est pas déjà en cours) et la recherche se fait sans elle.
+     * Sinon, la recherche se fait par l'algorithme A*, dont l'état est gardé en mémoire pour chaque départ récent
+     * jusqu'à la prochaine modification du graphe : une nouvelle arrivée depuis ce départ reprend la recherche là où elle s'était arrêtée,
+     * et ne demande aucune recherche si l'arrivée avait déjà été traitée.
      * 
      * @param depart Sommet de départ de l'algorithme
      * @param arrivee Sommet d'arrivée de l'algorithme
      * 
-     * @return Liste de sommets correspondant au chemin tracé par l'algorithme
+     * @return Résultat de l'algorithme, contenant le chemin tracé si il existe
      */
-    public ArrayList<Sommet> runDjikstra(Sommet depart, Sommet arrivee){
-    	return AlgoDjikstra.djikstra(depart, arrivee, sommets, type_orientation);
+    public ResultatDjikstra runDjikstra(Sommet depart, Sommet arrivee){
+    	preparerHierarchie();
+    	if(getHierarchie() != null)
+    		return recherche_hierarchie.chercher(depart.getIdentifiant(), arrivee.getIdentifiant());
+    	
+    	if(!arbres_djikstra.estAJour(nb_modifications))
+    		arbres_djikstra.vider(graphe.figer(), nb_modifications);
+    	return arbres_djikstra.djikstra(depart.getIdentifiant(), arrivee.getIdentifiant());
     }
 	
 	/**
@@ -776,6 +912,27 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     	forme_sommets = s;
     }
  
+    /**
+     * Remplace la hiérarchie de contraction du graphe par celle reçue en paramètre (relue depuis un fichier par exemple),
+     * et active la préparation des plus courts chemins.
+     * La hiérarchie est refusée si elle n'a pas été construite à partir d'un graphe identique au graphe affiché.
+     * 
+     * @param h Hiérarchie de contraction
+     * @return true si la hiérarchie a été acceptée, false sinon
+     */
+    public boolean setHierarchie(HierarchieContraction h){
+    	GrapheCompact compact = graphe.figer();
+    	if(!h.correspond(compact))
+    		return false;
+    	
+    	if(gi != null)
+    		gi.getService().annulerPreparation();
+    	recherche_hierarchie = new RechercheContraction(h, compact);
+    	modifications_hierarchie = nb_modifications;
+    	hierarchie_activee = true;
+    	return true;
+    }
+ 
     /**
      * Modifie le niveau de l'algorithme du marquage.
      * 
@@ -791,18 +948,12 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @param nom Nouveau nom
      */
     public void setNom(String nom){
-    	this.nom = nom;
+    	graphe.setNom(nom);
     }
     
-    /**
-     * Modifie la liste des sommets du chemin formé par Djikstra.
-     */
-    public void setSommetsDjikstra(ArrayList<Sommet> chemin){
-    	sommetsDjikstra = chemin;
-    }
-	
 	/**
      * Modifie le type d'arcs du graphe.
+     * Le changement est compté comme une modification du graphe, les poids des arcs n'étant plus lus de la même façon.
      * 
      * @param type_arcs Nouveau type d'arcs
      * 
@@ -811,12 +962,15 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#ETIQUETE
      */
     public void setTypeArcs(int type_arcs){
-    	this.type_arcs = type_arcs;
+    	graphe.setTypeArcs(type_arcs);
+    	modifier();
     	repaint();
     }
 	
 	/**
      * Modifie l'orientation du graphe.
+     * Le changement est compté comme une modification du graphe : un graphe désorienté reçoit les jumeaux de ses arcs,
+     * dont les poids sont remplacés par ceux des arcs d'origine.
      * 
      * @param type_orientation Nouvelle orientation
      * 
@@ -824,15 +978,8 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#NON_ORIENTE
      */
     public void setTypeOrientation(int type_orientation){
-    	this.type_orientation = type_orientation;
-    	
-    	if(type_orientation == NON_ORIENTE){
-    		setTypeSimple(SIMPLE);
-	    	for(Sommet s: sommets)
-	    		for(Arc a: s.getArcsSortants())
-	    			a.desorienter();
-    	}
-    	
+    	graphe.setTypeOrientation(type_orientation);
+    	modifier();
     	repaint();
     }
 	
@@ -845,12 +992,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
      * @see GrapheConstantes#NON_SIMPLE
      */
     public void setTypeSimple(int type_simple){
-    	this.type_simple = type_simple;
-    	
-    	if(type_simple == SIMPLE)
-	    	for(Sommet s: sommets)
-	    		s.simplifier();
-    	
+    	graphe.setTypeSimple(type_simple);
     	repaint();
     }
 	
@@ -879,6 +1021,16 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
     	return (getSommet(p.getX(), p.getY()) != null);
     }
 	
+	/**
+	 * Supprime le sommet reçu en paramètre ainsi que tous les arcs qui y sont rattachés.
+	 * Les identifiants des sommets restants sont ensuite renumérotés pour rester denses.
+	 * 
+	 * @param s Sommet à supprimer
+	 */
+	public void supprimerSommet(Sommet s){
+		graphe.supprimerSommet(s);
+	}
+	
 	/**
 	 * Renvoie une chaîne de caractères représentant le graphe.
 	 * Cette chaîne est utilisée pour sauvegarder le graphe.
@@ -887,22 +1039,14 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	 */
 	@Override
 	public String toString(){
-		String s = nom +","+ type_orientation+","+type_simple+","+type_arcs+","+sommets.size()+","+getArcs().size()+"\n";
-		
-		for(Sommet sommmet: sommets)
-			s += sommmet+"\n";
-		for(Arc arc: getArcs())
-			s += arc+"\n";
-		
-		return s;
+		return graphe.toString();
 	}
 	
 	/**
 	 * Vide le graphe de tous ses composants (sommets et arcs).
 	 */
 	public void vider(){
-		max_sommet = 0;
-    	sommets.clear();
+		graphe.vider();
     	repaint();
     }
 	
@@ -921,34 +1065,95 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
         try {
         	g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON); 
         	resetDessinArcs();
-            for(Sommet s: sommets)
+            for(Sommet s: graphe.getSommets())
             	for(Arc a: s.getArcsSortants())
             		if(!a.isDessine())
-            			a.draw(g2d, type_orientation, getMode(), type_simple, type_arcs);
+            			a.draw(g2d, graphe.getTypeOrientation(), getMode(), graphe.getTypeSimple(), graphe.getTypeArcs(), estMarque(a));
    
-            for(Sommet s: sommets){
+            for(Sommet s: graphe.getSommets()){
             	if(s != sommet_deplace)
-            		s.draw(g2d, getMode());
+            		s.draw(g2d, getMode(), estMarque(s), getCouleur(s));
             	else
             		sommet_deplace = s;
             }
 	            
             if(sommet_deplace != null)
-            	sommet_deplace.draw(g2d, getMode());     
+            	sommet_deplace.draw(g2d, getMode(), estMarque(sommet_deplace), getCouleur(sommet_deplace));     
         } finally {
             g2d.dispose();
         }
     }
 	
 	/**
-     * Déplace le graphe entier (sommets et arcs) selon les paramètres reçus.
-     * 
-     * @param change_x Modification d'abscisse
-     * @param change_y Modification d'ordonnée
-     */
-    private void deplacerGraphe(double change_x, double change_y){
-		for(Sommet s: sommets)
-			s.setLocation(s.getX()+change_x, s.getY()+change_y, sommets, type_orientation);
+	 * Vérifie si l'arc reçu en paramètre fait partie du résultat de l'algorithme affiché (chemin de Djikstra ou marquage).
+	 * 
+	 * @param a Arc à vérifier
+	 * @return true si l'arc doit être mis en évidence, false sinon
+	 */
+	private boolean estMarque(Arc a){
+		if(options[DJIKSTRA] && resultat_djikstra != null){
+			GrapheCompact compact = resultat_djikstra.getGraphe();
+			int depart = compact.getIdentifiant(a.getDepart()), arrivee = compact.getIdentifiant(a.getArrivee());
+			return depart != -1 && arrivee != -1 && resultat_djikstra.estArcSurChemin(depart, arrivee);
+		}
+		if(options[MARQUAGE] && resultat_marquage != null){
+			GrapheCompact compact = resultat_marquage.getGraphe();
+			int depart = compact.getIdentifiant(a.getDepart()), arrivee = compact.getIdentifiant(a.getArrivee());
+			return depart != -1 && arrivee != -1 && resultat_marquage.estArcMarque(depart, arrivee);
+		}
+		return false;
+	}
+	
+	/**
+	 * Vérifie si le sommet reçu en paramètre fait partie du résultat de l'algorithme affiché (chemin de Djikstra ou marquage).
+	 * 
+	 * @param s Sommet à vérifier
+	 * @return true si le sommet doit être mis en évidence, false sinon
+	 */
+	private boolean estMarque(Sommet s){
+		if(options[DJIKSTRA] && resultat_djikstra != null){
+			int id = resultat_djikstra.getGraphe().getIdentifiant(s);
+			return id != -1 && resultat_djikstra.estSurChemin(id);
+		}
+		if(options[MARQUAGE] && resultat_marquage != null){
+			int id = resultat_marquage.getGraphe().getIdentifiant(s);
+			return id != -1 && resultat_marquage.estMarque(id);
+		}
+		return false;
+	}
+	
+	/**
+	 * Renvoie la couleur attribuée au sommet reçu en paramètre par la coloration du graphe,
+	 * ou par sa composante fortement connexe lorsque celles-ci sont affichées.
+	 * 
+	 * @param s Sommet dont on veut la couleur
+	 * @return Couleur du sommet, null si il n'a pas été coloré
+	 */
+	private Color getCouleur(Sommet s){
+		if(options[COMPOSANTES]){
+			int id = (resultat_composantes == null ? -1 : resultat_composantes.getGraphe().getIdentifiant(s));
+			return (id == -1 ? null : Palette.getCouleur(resultat_composantes.getComposante(id)));
+		}
+		if(coloration != null && coloration.getCouleur(s) != -1)
+			return Palette.getCouleur(coloration.getCouleur(s));
+		return null;
+	}
+	
+	/**
+	 * Renvoie le parcours complet gardé en cache pour le sommet et la direction reçus en paramètre.
+	 * 
+	 * @param depart Sommet de départ du marquage
+	 * @param sens Direction du marquage
+	 * @return Parcours complet, null s'il n'est pas en cache
+	 * 
+	 * @see GrapheConstantes#PREDECESSEURS
+	 * @see GrapheConstantes#SUCCESSEURS
+	 */
+	private ResultatMarquage getMarquageEnCache(Sommet depart, int sens){
+		ResultatMarquage parcours = (sens == SUCCESSEURS ? marquage_descendants : marquage_ascendants);
+		if(parcours != null && parcours.getGraphe().getSommet(parcours.getDepart()) == depart)
+			return parcours;
+		return null;
 	}
 	
 	/**
@@ -960,7 +1165,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	 * @return true si le graphe reste dans les limites, false sinon
 	 */
 	private boolean grapheInBounds(double change_x, double change_y){
-		for(Sommet s: sommets){
+		for(Sommet s: graphe.getSommets()){
 			if(!contains((int)(s.getX()+change_x), (int)(s.getY()+change_y), s))
 				return false;
 			for(Arc a: s.getArcsSortants())
@@ -971,12 +1176,252 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 		return true;
 	}
 	
+	/**
+	 * Exécute la tâche reçue en paramètre, en arrière-plan si possible.
+	 * 
+	 * @param tache Tâche à exécuter
+	 * @param synchrone true pour exécuter la tâche immédiatement dans le thread courant
+	 */
+	private void lancer(TacheAlgorithme<?> tache, boolean synchrone){
+		if(synchrone || gi == null)
+			tache.executer();
+		else
+			gi.getService().lancer(tache);
+	}
+	
+	/**
+	 * Affiche le marquage du niveau courant à partir du sommet reçu en paramètre.
+	 * Si le parcours de ce sommet dans la direction du niveau est en cache, le marquage s'y lit directement,
+	 * sinon la tâche de marquage est lancée.
+	 * 
+	 * @param depart Sommet de départ du marquage
+	 * @param synchrone true pour exécuter la tâche immédiatement dans le thread courant
+	 */
+	private void marquer(Sommet depart, boolean synchrone){
+		ResultatMarquage parcours = getMarquageEnCache(depart, (niveau_marquage < 0 ? PREDECESSEURS : SUCCESSEURS));
+		if(parcours == null && niveau_marquage == 0)
+			parcours = getMarquageEnCache(depart, PREDECESSEURS);
+		
+		if(parcours != null)
+			resultat_marquage = parcours.auNiveau(niveau_marquage);
+		else
+			lancer(tacheMarquage(depart), synchrone);
+	}
+	
+	/**
+	 * Garde en cache le parcours complet reçu en paramètre, jusqu'à la prochaine modification du graphe.
+	 * 
+	 * @param parcours Résultat d'un marquage, dont le parcours est toujours complet
+	 */
+	private void mettreEnCache(ResultatMarquage parcours){
+		if(parcours.getNbNiveaux() < 0)
+			marquage_ascendants = parcours;
+		else
+			marquage_descendants = parcours;
+	}
+	
+	/**
+	 * Prend en compte une modification du graphe.
+	 * Les parcours du marquage, les composantes et les distances sont oubliés, et les plus courts chemins en mémoire ne correspondent plus au graphe.
+	 */
+	private void modifier(){
+		nb_modifications++;
+		marquage_descendants = null;
+		marquage_ascendants = null;
+		resultat_composantes = null;
+		resultat_distances = null;
+	}
+	
+	/**
+	 * Lance la construction de la hiérarchie de contraction si elle est activée et n'est plus à jour,
+	 * sauf si elle est déjà en cours pour l'état actuel du graphe.
+	 * Elle est confiée au service comme préparation, que les autres algorithmes n'interrompent pas ;
+	 * sans fenêtre, elle se fait immédiatement.
+	 */
+	private void preparerHierarchie(){
+		if(!hierarchie_activee || modifications_hierarchie == nb_modifications)
+			return;
+		
+		if(gi == null)
+			tacheHierarchie().executer();
+		else if(!gi.getService().estEnPreparation() || modifications_preparation != nb_modifications){
+			modifications_preparation = nb_modifications;
+			gi.getService().preparer(tacheHierarchie());
+		}
+	}
+	
 	/**
 	 * Réinitialise l'attribut dessine de tous les arcs du graphe.
 	 */
 	private void resetDessinArcs(){
-		for(Sommet s: sommets)
-			s.resetDessinArcs(type_orientation);
+		for(Sommet s: graphe.getSommets())
+			s.resetDessinArcs(graphe.getTypeOrientation());
+	}
+	
+	/**
+	 * Créé la tâche construisant la clique maximale du graphe.
+	 * Les arcs manquants sont cherchés sur une copie figée du graphe, puis créés lors de l'application.
+	 * 
+	 * @return Tâche de construction de la clique
+	 */
+	private TacheAlgorithme<int[]> tacheClique(){
+		final GrapheCompact compact = graphe.figer();
+		final ArrayList<Sommet> references = new ArrayList<Sommet>(graphe.getSommets());
+		
+		return new TacheAlgorithme<int[]>(){
+			@Override
+			protected int[] calculer(){
+				return Graphe.arcsClique(compact, this);
+			}
+			
+			@Override
+			protected void appliquer(int[] paires){
+				graphe.ajouterArcs(references, paires, STYLE_ARC_SIMPLE_PLEIN);
+				repaint();
+			}
+		};
+	}
+	
+	/**
+	 * Créé la tâche calculant les composantes fortement connexes sur une copie figée du graphe.
+	 * Le résultat est gardé lors de l'application si le graphe n'a pas été modifié entre-temps.
+	 * 
+	 * @return Tâche de calcul des composantes
+	 */
+	private TacheAlgorithme<ResultatTarjan> tacheComposantes(){
+		final GrapheCompact compact = graphe.figer();
+		final int modifications = nb_modifications;
+		
+		return new TacheAlgorithme<ResultatTarjan>(){
+			@Override
+			protected ResultatTarjan calculer(){
+				return AlgoTarjan.composantes(compact, this);
+			}
+			
+			@Override
+			protected void appliquer(ResultatTarjan resultat){
+				if(modifications == nb_modifications)
+					resultat_composantes = resultat;
+				repaint();
+			}
+		};
+	}
+	
+	/**
+	 * Créé la tâche calculant le nombre chromatique exact sur une copie figée du graphe,
+	 * en partant de la coloration de Brélaz et dans la limite de DELAI_COLORATION_EXACTE.
+	 * Lors de l'application, le résultat remplace la coloration du graphe, qui est ensuite réparée à chaque modification.
+	 * 
+	 * @return Tâche de coloration
+	 */
+	private TacheAlgorithme<ResultatBrelaz> tacheColoration(){
+		final GrapheCompact compact = graphe.figer();
+		
+		return new TacheAlgorithme<ResultatBrelaz>(){
+			@Override
+			protected ResultatBrelaz calculer(){
+				return AlgoColorationExacte.coloration(compact, DELAI_COLORATION_EXACTE, this);
+			}
+			
+			@Override
+			protected void appliquer(ResultatBrelaz resultat){
+				if(coloration != null)
+					graphe.retirerEcouteur(coloration);
+				coloration = new ColorationDynamique(resultat, graphe.getSommets());
+				graphe.ajouterEcouteur(coloration);
+				repaint();
+			}
+		};
+	}
+	
+	/**
+	 * Créé la tâche calculant les plus courtes distances entre tous les couples de sommets sur une copie figée du graphe.
+	 * Le résultat est gardé lors de l'application si le graphe n'a pas été modifié entre-temps ;
+	 * un graphe ayant trop de sommets pour la matrice n'a pas de distances, ce qui est gardé de la même façon.
+	 * 
+	 * @return Tâche de calcul des distances
+	 */
+	private TacheAlgorithme<ResultatDistances> tacheDistances(){
+		final GrapheCompact compact = graphe.figer();
+		final int modifications = nb_modifications;
+		
+		return new TacheAlgorithme<ResultatDistances>(){
+			@Override
+			protected ResultatDistances calculer(){
+				try{
+					return AlgoDistances.distances(compact, this);
+				} catch(IllegalArgumentException e){
+					return null;
+				}
+			}
+			
+			@Override
+			protected void appliquer(ResultatDistances resultat){
+				if(modifications == nb_modifications){
+					resultat_distances = resultat;
+					modifications_distances = modifications;
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Créé la tâche construisant la hiérarchie de contraction sur une copie figée du graphe.
+	 * La hiérarchie et les tableaux de travail de ses recherches sont gardés lors de l'application si le graphe n'a pas été modifié entre-temps ;
+	 * un graphe ayant un arc de poids négatif n'en a pas, ses recherches se faisant toujours sans elle.
+	 * 
+	 * @return Tâche de construction de la hiérarchie
+	 */
+	private TacheAlgorithme<RechercheContraction> tacheHierarchie(){
+		final GrapheCompact compact = graphe.figer();
+		final int modifications = nb_modifications;
+		
+		return new TacheAlgorithme<RechercheContraction>(){
+			@Override
+			protected RechercheContraction calculer(){
+				if(compact.aPoidsNegatif())
+					return null;
+				return new RechercheContraction(AlgoContraction.contracter(compact, this), compact);
+			}
+			
+			@Override
+			protected void appliquer(RechercheContraction resultat){
+				if(hierarchie_activee && modifications == nb_modifications){
+					recherche_hierarchie = resultat;
+					modifications_hierarchie = modifications;
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Créé la tâche exécutant l'algorithme du marquage, au niveau courant, à partir du sommet reçu en paramètre.
+	 * Le résultat du marquage devient celui affiché lors de l'application,
+	 * et son parcours est gardé en cache si le graphe n'a pas été modifié entre-temps.
+	 * 
+	 * @param depart Sommet de départ du marquage
+	 * @return Tâche de marquage
+	 */
+	private TacheAlgorithme<ResultatMarquage> tacheMarquage(Sommet depart){
+		final GrapheCompact compact = graphe.figer();
+		final int id = depart.getIdentifiant();
+		final int nb_niveaux = niveau_marquage;
+		final int modifications = nb_modifications;
+		
+		return new TacheAlgorithme<ResultatMarquage>(){
+			@Override
+			protected ResultatMarquage calculer(){
+				return AlgoMarquage.marquage(compact, id, nb_niveaux, this);
+			}
+			
+			@Override
+			protected void appliquer(ResultatMarquage resultat){
+				if(modifications == nb_modifications)
+					mettreEnCache(resultat);
+				resultat_marquage = resultat;
+				repaint();
+			}
+		};
 	}
 	
 	/**
@@ -993,7 +1438,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	    			x_mvt = Math.abs(nouvel_x - sommet_deplace.getX());
 	    			y_mvt = Math.abs(nouvel_y - sommet_deplace.getY());
 	    			if(x_mvt >= 4 || y_mvt >= 4){
-	    				sommet_deplace.setLocation(nouvel_x, nouvel_y, sommets, type_orientation);
+	    				sommet_deplace.setLocation(nouvel_x, nouvel_y, graphe.getTypeOrientation());
 	    				x_mvt = 0;
 	    				y_mvt = 0;
 	    				repaint();
@@ -1003,7 +1448,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	    			x_mvt = Math.abs(nouvel_x - arc_deplace.getBezier().getX());
 	    			y_mvt = Math.abs(nouvel_y - arc_deplace.getBezier().getY());
 	    			if((x_mvt >= 4 || y_mvt >= 4) && !sommetExistant(nouvel_x, nouvel_y)){
-	    				arc_deplace.setBezierLocation(nouvel_x, nouvel_y, type_orientation);
+	    				arc_deplace.setBezierLocation(nouvel_x, nouvel_y, graphe.getTypeOrientation());
 	    				x_mvt = 0;
 	    				y_mvt = 0;
 	    				repaint();
@@ -1013,7 +1458,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 			else if(options[DEPLACER_FLECHE]){
 				if(arc_deplace != null && arc_deplace.contains(nouvel_x, nouvel_y, MOVE_ARC)){
 					if(!sommetExistant(arc_deplace.findPoint(nouvel_x, nouvel_y, MOVE_ARC))){
-						arc_deplace.setPosFleche(nouvel_x, nouvel_y, type_orientation, MOVE_ARC);
+						arc_deplace.setPosFleche(nouvel_x, nouvel_y, graphe.getTypeOrientation(), MOVE_ARC);
 						repaint();
 					}
 				}
@@ -1023,7 +1468,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 				change_x = nouvel_x - x_mvt;
 				change_y = nouvel_y - y_mvt;
 				if((Math.abs(change_x) >= 4 || Math.abs(change_y) >= 4) && grapheInBounds(change_x, change_y)){
-    				deplacerGraphe(change_x, change_y);
+    				graphe.deplacer(change_x, change_y);
     				x_mvt = nouvel_x;
     				y_mvt = nouvel_y;
     				repaint();
@@ -1035,25 +1480,20 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 		public void mousePressed(MouseEvent e){
 			if(e.getButton() == MouseEvent.BUTTON1){
 	    		if(options[CREER_SOMMET] && !sommetExistant(e.getX(), e.getY()) && !arcExistant(e.getX(), e.getY())){
-	    			sommets.add(new Sommet(e.getX(), e.getY(), ""+(max_sommet+1), forme_sommets));
-	    			max_sommet++;
+	    			graphe.creerSommet(e.getX(), e.getY(), forme_sommets);
 					gi.refresh_infos();
 					gi.refresh_buttons();
 					repaint();
 	    		}
 	    		else if(options[CREER_ARC] && sommetExistant(e.getX(), e.getY())){
 	    			Sommet selectionne = getSommet(e.getX(), e.getY());
-	    			selectionne.setSelectionne(true, type_orientation);
+	    			selectionne.setSelectionne(true, graphe.getTypeOrientation());
 	    			selectionnes.add(selectionne);
 	    			if(selectionnes.size() == 2 && !BoiteAOutil.arcExistant(selectionnes.get(0), selectionnes.get(1))){
 	    				Sommet depart = selectionnes.get(0);
 	    				Sommet arrivee = selectionnes.get(1);
-	    				if(depart!=arrivee || (depart==arrivee && type_orientation == ORIENTE)){
-		    				Arc a = new Arc(depart, new Point(), arrivee, forme_arcs);
-		    				a.calculerBezierInitial(type_orientation);
-		    				if(type_arcs == VALUE)
-		    					a.setDistance("0", type_orientation, type_arcs);
-		    				depart.addArcSortant(a, type_orientation);
+	    				if(depart!=arrivee || (depart==arrivee && graphe.getTypeOrientation() == ORIENTE)){
+		    				graphe.ajouterArc(depart, arrivee, forme_arcs);
 		    				gi.refresh_infos();
 							gi.refresh_buttons();
 	    				}
@@ -1075,33 +1515,35 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	    		}
 	    		else if(options[SUPPRIMER]){
 	    			if(sommetExistant(e.getX(), e.getY()) )
-	    				getSommet(e.getX(), e.getY()).detruireSommet(sommets, type_orientation);
+	    				supprimerSommet(getSommet(e.getX(), e.getY()));
 	    			else if(arcExistant(e.getX(), e.getY()))
-	    				getArc(e.getX(), e.getY()).detruireArc(type_orientation);
+	    				getArc(e.getX(), e.getY()).detruireArc(graphe.getTypeOrientation());
 	    			gi.refresh_infos();
 					gi.refresh_buttons();
 					repaint();
 	    		}
 	    		else if(options[DJIKSTRA] && sommetExistant(e.getX(), e.getY())){
 	    			Sommet selectionne = getSommet(e.getX(), e.getY());
-	    			selectionne.setSelectionne(true, type_orientation);
+	    			selectionne.setSelectionne(true, graphe.getTypeOrientation());
 	    			if(!selectionnes.contains(selectionne) || (selectionnes.size() == 2 && selectionnes.get(0) != selectionnes.get(1)))
 	    				selectionnes.add(selectionne);
 	    			if(selectionnes.size() == 2){
 	    				Sommet depart = selectionnes.get(0);
 	    				Sommet arrivee = selectionnes.get(1);
-	    				if(runDjikstra(depart, arrivee) == null){
+	    				ResultatDjikstra resultat = runDjikstra(depart, arrivee);
+	    				if(!resultat.existeChemin() && !resultat.existeCircuitNegatif()){
 	    					Sommet tmp = selectionnes.get(selectionnes.size()-1);
 		    				deselectionner();
-		    				tmp.setSelectionne(true, type_orientation);
+		    				tmp.setSelectionne(true, graphe.getTypeOrientation());
 		    				selectionnes.add(tmp);
 	    				}
-                        sommetsDjikstra = runDjikstra(depart,arrivee);
+	    				else
+	    					resultat_djikstra = resultat;
 	    			}
 	    			else if(selectionnes.size() > 2){
 	    				Sommet tmp = selectionnes.get(selectionnes.size()-1);
 	    				deselectionner();
-	    				tmp.setSelectionne(true, type_orientation);
+	    				tmp.setSelectionne(true, graphe.getTypeOrientation());
 	    				selectionnes.add(tmp);
 	    			}
                     gi.refresh_tabs();
@@ -1126,7 +1568,7 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 	    				selectionnes.set(0, selectionne);
 	    			
 	    			gi.refresh_tabs();
-	    			AlgoMarquage.marquage(selectionne, sommets, type_orientation, niveau_marquage);
+	    			marquer(selectionne, false);
 	    			repaint();
 	    		}
 			}
@@ -1148,4 +1590,31 @@ public class PanelGraphe extends JPanel implements GrapheConstantes{
 			arc_deplace = null;
 		}
 	}
+	
+	/**
+	 * Listener des modifications du graphe.
+	 * Compte les modifications et oublie les parcours du marquage et les composantes, qui ne correspondent plus au graphe.
+	 */
+	class ModificationsListener implements EcouteurGraphe{
+		@Override
+		public void arcAjoute(Arc a){
+			modifier();
+		}
+
+		@Override
+		public void arcSupprime(Arc a){
+			modifier();
+		}
+
+		@Override
+		public void sommetAjoute(Sommet s){
+			modifier();
+		}
+
+		@Override
+		public void sommetSupprime(Sommet s){
+			modifier();
+		}
+		
+	}
 }
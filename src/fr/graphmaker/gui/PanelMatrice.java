@@ -6,10 +6,11 @@ import java.util.ArrayList;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 
-import fr.graphmaker.algorithmes.AlgoBrelaz;
+import fr.graphmaker.algorithmes.ResultatDistances;
 import fr.graphmaker.constantes.CouleursConstantes;
 import fr.graphmaker.constantes.GrapheConstantes;
 import fr.graphmaker.constantes.LanguesConstantes;
+import fr.graphmaker.modele.GrapheCompact;
 import fr.graphmaker.outils.BoiteAOutil;
 import fr.graphmaker.outils.GestionnaireFichier;
 import fr.graphmaker.outils.Sommet;
@@ -55,7 +56,7 @@ public class PanelMatrice extends JPanel implements LanguesConstantes, CouleursC
 			String img = GestionnaireFichier.buildGrapheImage(g, fileName).replaceAll(".*\\\\", "");
 			String img_brelaz = "";
 			if(g.getTypeOrientation() == NON_ORIENTE){
-				g.activerOption(BRELAZ, FR);
+				g.activerOption(BRELAZ, FR, true);
 				img_brelaz = GestionnaireFichier.buildGrapheImage(g, fileName+"_brelaz").replaceAll(".*\\\\", "");
 				g.desactiverOptions();
 			}
@@ -116,9 +117,9 @@ public class PanelMatrice extends JPanel implements LanguesConstantes, CouleursC
 			s += "\\hline\n";
 			s += "Nombre d'";
 			if(g.getTypeOrientation() == ORIENTE)
-				s += "arcs & " + g.getArcs().size() + " \\\\\n";
+				s += "arcs & " + g.getNbArcs() + " \\\\\n";
 			else
-				s += "arêtes & " + (g.getArcs().size()/2) + " \\\\\n";
+				s += "arêtes & " + (g.getNbArcs()/2) + " \\\\\n";
 			s += "\\hline\n";
 			s += "Connexe & ";
 			if(g.estConnexe())
@@ -126,9 +127,16 @@ public class PanelMatrice extends JPanel implements LanguesConstantes, CouleursC
 			else
 				s += "non \\\\\n";
 			s += "\\hline\n";
+			if(g.getTypeOrientation() == NON_ORIENTE){
+				s += "Composantes connexes & " + g.getNbComposantes() + " \\\\\n";
+				s += "\\hline\n";
+			}
 			
 			if(g.getTypeOrientation() == NON_ORIENTE){
-				s += "Nombre chromatique & "+AlgoBrelaz.getNbChromatique()+"\\\\\n";
+				if(g.getColoration().estExact())
+					s += "Nombre chromatique & "+g.getNbChromatique()+"\\\\\n";
+				else
+					s += "Nombre chromatique & "+g.getColoration().getBorneInferieure()+" à "+g.getNbChromatique()+"\\\\\n";
 				s += "\\hline\n";
 			}
 			
@@ -262,6 +270,64 @@ public class PanelMatrice extends JPanel implements LanguesConstantes, CouleursC
 			}while(tmp_longueur < longueur);
 			
 			s += "\\end{center}\n\n";
+			
+			ResultatDistances distances = (g.getTypeArcs() == VALUE ? g.distances(true) : null);
+			if(distances != null){
+				GrapheCompact compact = distances.getGraphe();
+				tmp_longueur = 0;
+				ecart = ECART_BASIQUE_LATEX;
+				nb_split = 0;
+				s += "\\subsection{Plus courtes distances}\n";
+				s += "\\begin{center}\n\n";
+				do{
+					if(tmp_longueur+ecart > longueur)
+						ecart = longueur - tmp_longueur + nb_split;
+					s += "\\small\n";
+					s += "\\begin{tabular}{|*{"+ecart+"}{c|}}\n";
+					s += "\\hline\n";
+					for(int i=0; i<longueur; i++){
+				   		for(int j=tmp_longueur; j<(tmp_longueur+ecart); j++){
+				   			if(i==0 && j==tmp_longueur)
+				   				s += "\\backslashbox{Départ}{Arrivée}";
+				   			if(i==0 && j>tmp_longueur)
+				   				s += "\\rotatebox{90}{"+sommets.get(j-1-nb_split).getValeur()+"\\ }";
+				   			else if(i>0 && j==tmp_longueur)
+				   				s += sommets.get(i-1).getValeur();
+				   			else if(i>0 && j>tmp_longueur)
+				   				s += formaterDistance(distances.getDistance(compact.getIdentifiant(sommets.get(i-1)),
+				   						compact.getIdentifiant(sommets.get(j-1-nb_split))), "$\\infty$");
+				   			
+				   			if(j<(tmp_longueur+ecart-1)){
+			   					s += " & ";
+				   			}
+			   				else
+			   					s += " \\\\\n";
+				   		}
+				   		s += "\\hline\n";
+				   	}
+					s += "\\end{tabular}\n\n";
+					s += "\\normalsize\n";
+					s += "\\vspace{1\\baselineskip}\n";
+					s += "Figure "+(2+nb_split)+".3 - \\textit{Matrice des plus courtes distances";
+					
+					if((tmp_longueur+ecart) != longueur && nb_split==0)
+						s += " (début)";
+					else if((tmp_longueur+ecart) < longueur && nb_split > 0)
+						s += " (suite)";
+					else if((tmp_longueur+ecart) >= longueur && nb_split > 0)
+						s += " (fin)";
+					
+					s += "}\n";
+					
+					if(longueur >= MAX_LIGNES_LATEX)
+						s += "\\newpage\n";
+					
+					tmp_longueur += ecart;
+					nb_split++;
+				}while(tmp_longueur < longueur);
+				
+				s += "\\end{center}\n\n";
+			}
 			if(g.getTypeOrientation() == NON_ORIENTE){
 				s += "\\chapter{Algorithmes}\n";
 				s += "\\section{Algorithme de coloration (Brélaz)}\n";
@@ -278,7 +344,7 @@ public class PanelMatrice extends JPanel implements LanguesConstantes, CouleursC
 						+ "]{"+ img_brelaz +"}"
 						+ "}\\hss}\n";
 				s += "\\end{figure}\n\n";
-				s += "Figure "+(2+nb_split)+" - \\textit{Graphe coloré, X(G) <= "+AlgoBrelaz.getNbChromatique()+"}";
+				s += "Figure "+(2+nb_split)+" - \\textit{Graphe coloré, X(G) "+(g.getColoration().estExact() ? "=" : "<=")+" "+g.getNbChromatique()+"}";
 				s += "\\end{center}\n\n";
 			}
 			
@@ -299,53 +365,110 @@ public class PanelMatrice extends JPanel implements LanguesConstantes, CouleursC
 	
 	/**
 	 * Met à jour l'affichage du panel.
+	 * Pour un graphe valué, la matrice des plus courtes distances est affichée à côté de la matrice d'adjacence
+	 * dès qu'elle est calculée : son calcul se fait en arrière-plan, la fenêtre étant mise à jour à sa fin.
 	 */
 	public void refresh(){
 		removeAll();
 		if(g!=null && !g.getSommets().isEmpty()){
 			ArrayList<Sommet> sommets = BoiteAOutil.triCopieListe(g.getSommets());
 			int[][] matrice = BoiteAOutil.matrice(sommets);
-			int longueur = g.getSommets().size()+3;
-			JLabel tmp;
 			
 		   	setBackground(COL_CENTRE);
-		   	setLayout(new GridLayout(longueur, longueur, 1, 1));
 		   	setFont(FONT_MONOSPACE_12);
 		   	setAlignmentY(CENTER_ALIGNMENT);
 		   	
-		   	if(g.getSommets().size() != 0){
-			   	for(int i=0; i<longueur; i++){
-			   		for(int j=0; j<longueur; j++){
-			   			if(i==0 || j==0 || (i==1 && j==1) || i==longueur-1 || j==longueur-1)
-			   				tmp = new JLabel("", JLabel.CENTER);
-			   			else if(i==1 && j>1){
-			   				tmp = new JLabel(sommets.get(j-2).getValeur(), JLabel.CENTER);
-			   				tmp.setBackground(COL_MATRICE_INFO);
-			   			}
-			   			else if(j==1 && i>1){
-			   				tmp = new JLabel(sommets.get(i-2).getValeur(), JLabel.CENTER);
-			   				tmp.setBackground(COL_MATRICE_INFO);
-			   			}
-			   			else{
-			   				tmp = new JLabel(""+matrice[i-2][j-2], JLabel.CENTER);
-			   				tmp.setBackground(COL_MATRICE_UN);
-			   				if(matrice[i-2][j-2] == 0){
-			   					tmp.setEnabled(false);
-			   					tmp.setBackground(COL_MATRICE_ZERO);
-			   				}
-			   				tmp.setToolTipText("<html>"+sommets.get(i-2).getValeur()+"&rarr;"+sommets.get(j-2).getValeur()+"</html>");
-			   			}
-			   			
-			   			if(!tmp.getText().equals(""))
-			   				tmp.setOpaque(true);
-			   			
-			   			add(tmp);
-			   		}
-			   	}
+		   	ResultatDistances distances = (g.getTypeArcs() == VALUE ? g.distances(false) : null);
+		   	if(distances != null){
+		   		setLayout(new GridLayout(1, 2, 10, 10));
+		   		add(creerGrille(sommets, matrice, null));
+		   		add(creerGrille(sommets, null, distances));
+		   	}
+		   	else{
+		   		setLayout(new GridLayout(1, 1));
+		   		add(creerGrille(sommets, matrice, null));
 		   	}
 		}
 	}
 	
+	/**
+	 * Créé la grille affichant la matrice d'adjacence ou la matrice des distances des sommets reçus en paramètre.
+	 * 
+	 * @param sommets Sommets triés, dans l'ordre des lignes et des colonnes
+	 * @param matrice Matrice d'adjacence à afficher, null pour afficher les distances
+	 * @param distances Distances entre les sommets, utilisées lorsque la matrice est null
+	 * 
+	 * @return Panel contenant la grille
+	 */
+	private JPanel creerGrille(ArrayList<Sommet> sommets, int[][] matrice, ResultatDistances distances){
+		int longueur = sommets.size()+3;
+		JPanel grille = new JPanel(new GridLayout(longueur, longueur, 1, 1));
+		JLabel tmp;
+		
+		grille.setBackground(COL_CENTRE);
+		grille.setFont(FONT_MONOSPACE_12);
+	   	for(int i=0; i<longueur; i++){
+	   		for(int j=0; j<longueur; j++){
+	   			if(i==0 || j==0 || (i==1 && j==1) || i==longueur-1 || j==longueur-1)
+	   				tmp = new JLabel("", JLabel.CENTER);
+	   			else if(i==1 && j>1){
+	   				tmp = new JLabel(sommets.get(j-2).getValeur(), JLabel.CENTER);
+	   				tmp.setBackground(COL_MATRICE_INFO);
+	   			}
+	   			else if(j==1 && i>1){
+	   				tmp = new JLabel(sommets.get(i-2).getValeur(), JLabel.CENTER);
+	   				tmp.setBackground(COL_MATRICE_INFO);
+	   			}
+	   			else if(matrice != null){
+	   				tmp = new JLabel(""+matrice[i-2][j-2], JLabel.CENTER);
+	   				tmp.setBackground(COL_MATRICE_UN);
+	   				if(matrice[i-2][j-2] == 0){
+	   					tmp.setEnabled(false);
+	   					tmp.setBackground(COL_MATRICE_ZERO);
+	   				}
+	   				tmp.setToolTipText("<html>"+sommets.get(i-2).getValeur()+"&rarr;"+sommets.get(j-2).getValeur()+"</html>");
+	   			}
+	   			else{
+	   				GrapheCompact compact = distances.getGraphe();
+	   				double distance = distances.getDistance(compact.getIdentifiant(sommets.get(i-2)), compact.getIdentifiant(sommets.get(j-2)));
+	   				tmp = new JLabel(formaterDistance(distance, "∞"), JLabel.CENTER);
+	   				tmp.setBackground(COL_MATRICE_UN);
+	   				if(distance == Double.POSITIVE_INFINITY){
+	   					tmp.setEnabled(false);
+	   					tmp.setBackground(COL_MATRICE_ZERO);
+	   				}
+	   				tmp.setToolTipText("<html>d("+sommets.get(i-2).getValeur()+"&rarr;"+sommets.get(j-2).getValeur()+")</html>");
+	   			}
+	   			
+	   			if(!tmp.getText().equals(""))
+	   				tmp.setOpaque(true);
+	   			
+	   			grille.add(tmp);
+	   		}
+	   	}
+	   	
+	   	return grille;
+	}
+	
+	/**
+	 * Renvoie le texte affiché pour une distance : entière si possible, infinie si aucun chemin n'existe,
+	 * et -∞ si un chemin passe par un circuit de poids négatif.
+	 * 
+	 * @param distance Distance à afficher
+	 * @param infini Texte affiché pour une distance infinie
+	 * 
+	 * @return Texte de la distance
+	 */
+	private static String formaterDistance(double distance, String infini){
+		if(distance == Double.POSITIVE_INFINITY)
+			return infini;
+		if(distance == Double.NEGATIVE_INFINITY)
+			return "-"+infini;
+		if(distance == Math.rint(distance))
+			return Long.toString((long)distance);
+		return Double.toString(distance);
+	}
+	
 	/**
 	 * Modifie le graphe rattaché au panel.
 	 * 
@@ -8,7 +8,6 @@ import java.awt.event.ActionListener;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
-import java.util.ArrayList;
 
 import javax.swing.ButtonGroup;
 import javax.swing.JMenu;
@@ -29,8 +28,6 @@ public class PopUpGraphe extends JPopupMenu implements GrapheConstantes, Langues
 	private static final long serialVersionUID = -2512571037204264340L;
     private int langue = FR;
     
-    private ArrayList<Sommet> sommets;
-    
     private Sommet sommet_selectionne;
     private Arc arc_selectionne;
     private PanelGraphe parent;
@@ -49,7 +46,6 @@ public class PopUpGraphe extends JPopupMenu implements GrapheConstantes, Langues
      */
     public PopUpGraphe(PanelGraphe g){
     	parent = g;
-        this.sommets = g.getSommets();
         init_popup();
     }
     
@@ -314,7 +310,7 @@ public class PopUpGraphe extends JPopupMenu implements GrapheConstantes, Langues
 				    parent.repaint();
 	                break;
 	            case SUPPRIMER_SOMMET_POPUP : 
-	            	sommet_selectionne.detruireSommet(sommets, parent.getTypeOrientation());
+	            	parent.supprimerSommet(sommet_selectionne);
 	            	parent.repaint();
 	                break;
 	            case CHANGER_DISTANCE_POPUP :
@@ -333,7 +329,7 @@ public class PopUpGraphe extends JPopupMenu implements GrapheConstantes, Langues
 	 					       arc_selectionne.setDistance(arc_selectionne.getDistance(), parent.getTypeOrientation(), parent.getTypeArcs());
 	                		else{
 		                		Double.parseDouble(s_arc);
-		 					    arc_selectionne.setDistance(s_arc, parent.getTypeOrientation(), parent.getTypeArcs());
+		 					    parent.modifierDistance(arc_selectionne, s_arc);
 	                		}
 	        
 	                 	}catch(NumberFormatException e){
@@ -344,7 +340,7 @@ public class PopUpGraphe extends JPopupMenu implements GrapheConstantes, Langues
 	                	if ((s_arc == null) || (s_arc.length() == 0))
 					        arc_selectionne.setDistance(arc_selectionne.getDistance(), parent.getTypeOrientation(), parent.getTypeArcs());
 					    else
-					    	arc_selectionne.setDistance(s_arc, parent.getTypeOrientation(), parent.getTypeArcs());
+					    	parent.modifierDistance(arc_selectionne, s_arc);
 	                }
 				    parent.repaint();
 	                break;
@@ -0,0 +1,169 @@
+package fr.graphmaker.gui;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Classe exécutant les algorithmes en arrière-plan pour ne pas bloquer l'interface.
+ * Une seule tâche est active à la fois : en lancer une nouvelle annule la précédente.
+ * Les longues préparations (hiérarchie de contraction par exemple) ont leur propre thread :
+ * une seule est active à la fois, mais lancer ou annuler une tâche ne l'interrompt pas.
+ * L'avancement de la tâche active est affiché par la fenêtre associée, qui permet aussi de l'annuler ;
+ * celui de la préparation n'est affiché que lorsqu'aucune tâche n'est active.
+ */
+public class ServiceAlgorithmes {
+	private ExecutorService executeur;
+	private ExecutorService executeur_preparation;
+	private TacheAlgorithme<?> tache_courante;
+	private TacheAlgorithme<?> preparation_courante;
+	private FenetreGraphe gi;
+
+	/**
+	 * Constructeur initialisant le service et son thread d'exécution.
+	 *
+	 * @param gi Fenêtre affichant l'avancement des tâches
+	 */
+	public ServiceAlgorithmes(FenetreGraphe gi){
+		this.gi = gi;
+		executeur = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable r){
+				Thread t = new Thread(r, "GraphMaker-algorithmes");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		executeur_preparation = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable r){
+				Thread t = new Thread(r, "GraphMaker-preparation");
+				t.setDaemon(true);
+				t.setPriority(Thread.MIN_PRIORITY);
+				return t;
+			}
+		});
+	}
+
+	/**
+	 * Annule la tâche en cours, si il y en a une.
+	 * Son résultat ne sera pas appliqué au graphe.
+	 */
+	public void annuler(){
+		if(tache_courante != null){
+			TacheAlgorithme<?> tache = tache_courante;
+			tache_courante = null;
+			tache.cancel(true);
+			gi.masquerProgression();
+		}
+	}
+
+	/**
+	 * Annule la tâche dont l'avancement est affiché : la tâche en cours, ou à défaut la préparation en cours.
+	 */
+	public void annulerAffichee(){
+		if(tache_courante != null)
+			annuler();
+		else
+			annulerPreparation();
+	}
+
+	/**
+	 * Annule la préparation en cours, si il y en a une.
+	 * Son résultat ne sera pas appliqué au graphe.
+	 */
+	public void annulerPreparation(){
+		if(preparation_courante != null){
+			TacheAlgorithme<?> tache = preparation_courante;
+			preparation_courante = null;
+			tache.cancel(true);
+			if(tache_courante == null)
+				gi.masquerProgression();
+		}
+	}
+
+	/**
+	 * Vérifie si une préparation est en cours d'exécution.
+	 *
+	 * @return true si une préparation est en cours, false sinon
+	 */
+	public boolean estEnPreparation(){
+		return preparation_courante != null;
+	}
+
+	/**
+	 * Vérifie si une tâche est en cours d'exécution.
+	 *
+	 * @return true si une tâche est en cours, false sinon
+	 */
+	public boolean estOccupe(){
+		return tache_courante != null;
+	}
+
+	/**
+	 * Lance la tâche reçue en paramètre en arrière-plan, après avoir annulé la tâche en cours.
+	 * Doit être appelée depuis le thread de Swing.
+	 *
+	 * @param tache Tâche à exécuter
+	 */
+	public void lancer(final TacheAlgorithme<?> tache){
+		annuler();
+		tache_courante = tache;
+		tache.setService(this);
+		tache.addPropertyChangeListener(new PropertyChangeListener(){
+			@Override
+			public void propertyChange(PropertyChangeEvent evt){
+				if("progress".equals(evt.getPropertyName()) && tache == tache_courante)
+					gi.afficherProgression((Integer)evt.getNewValue());
+			}
+		});
+		gi.afficherProgression(0);
+		executeur.execute(tache);
+	}
+
+	/**
+	 * Lance la préparation reçue en paramètre en arrière-plan, après avoir annulé la préparation en cours.
+	 * La tâche en cours, si il y en a une, n'est pas interrompue.
+	 * Doit être appelée depuis le thread de Swing.
+	 *
+	 * @param tache Préparation à exécuter
+	 */
+	public void preparer(final TacheAlgorithme<?> tache){
+		annulerPreparation();
+		preparation_courante = tache;
+		tache.setService(this);
+		tache.addPropertyChangeListener(new PropertyChangeListener(){
+			@Override
+			public void propertyChange(PropertyChangeEvent evt){
+				if("progress".equals(evt.getPropertyName()) && tache == preparation_courante && tache_courante == null)
+					gi.afficherProgression((Integer)evt.getNewValue());
+			}
+		});
+		if(tache_courante == null)
+			gi.afficherProgression(0);
+		executeur_preparation.execute(tache);
+	}
+
+	/**
+	 * Signale la fin de la tâche reçue en paramètre, une fois son résultat appliqué.
+	 * La fenêtre est alors mise à jour.
+	 * Appelée depuis le thread de Swing par la tâche elle-même.
+	 *
+	 * @param tache Tâche terminée
+	 */
+	void terminer(TacheAlgorithme<?> tache){
+		if(tache == tache_courante){
+			tache_courante = null;
+			gi.masquerProgression();
+			gi.refresh();
+		}
+		else if(tache == preparation_courante){
+			preparation_courante = null;
+			if(tache_courante == null)
+				gi.masquerProgression();
+			gi.refresh();
+		}
+	}
+}
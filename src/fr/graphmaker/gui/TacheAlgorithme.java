@@ -0,0 +1,94 @@
+package fr.graphmaker.gui;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.SwingWorker;
+
+import fr.graphmaker.algorithmes.SuiviAlgorithme;
+
+/**
+ * Classe représentant un algorithme exécuté en arrière-plan par le ServiceAlgorithmes.
+ * Le calcul se fait hors du thread de Swing, sur une copie figée du graphe,
+ * puis son résultat est appliqué au graphe affiché depuis le thread de Swing.
+ *
+ * @param <T> Type du résultat de l'algorithme
+ */
+public abstract class TacheAlgorithme<T> extends SwingWorker<T, Void> implements SuiviAlgorithme{
+	private ServiceAlgorithmes service;
+
+	/**
+	 * Indique si la tâche a été annulée.
+	 *
+	 * @return true si la tâche a été annulée, false sinon
+	 */
+	@Override
+	public boolean estAnnule(){
+		return isCancelled();
+	}
+
+	/**
+	 * Exécute directement la tâche dans le thread courant : calcul puis application du résultat.
+	 * Utilisé lorsque le résultat est nécessaire immédiatement (exportation par exemple).
+	 */
+	public void executer(){
+		appliquer(calculer());
+	}
+
+	/**
+	 * Met à jour l'avancement de la tâche, en pourcentage.
+	 *
+	 * @param fait Quantité de travail déjà réalisée
+	 * @param total Quantité de travail totale
+	 */
+	@Override
+	public void progression(int fait, int total){
+		if(total > 0)
+			setProgress((int)Math.min(100, (100L*fait)/total));
+	}
+
+	/**
+	 * Applique le résultat de l'algorithme au graphe affiché.
+	 * Appelée depuis le thread de Swing.
+	 *
+	 * @param resultat Résultat renvoyé par calculer()
+	 */
+	protected abstract void appliquer(T resultat);
+
+	/**
+	 * Calcule le résultat de l'algorithme.
+	 * Appelée hors du thread de Swing : ne doit pas modifier le graphe affiché.
+	 *
+	 * @return Résultat de l'algorithme
+	 */
+	protected abstract T calculer();
+
+	@Override
+	protected T doInBackground(){
+		return calculer();
+	}
+
+	@Override
+	protected void done(){
+		try {
+			if(!isCancelled())
+				appliquer(get());
+		} catch (InterruptedException e) {
+		} catch (ExecutionException e) {
+			if(!(e.getCause() instanceof CancellationException))
+				e.printStackTrace();
+		} finally {
+			if(service != null)
+				service.terminer(this);
+		}
+	}
+
+	/**
+	 * Rattache la tâche au service qui l'exécute.
+	 *
+	 * @param service Service exécutant la tâche
+	 */
+	void setService(ServiceAlgorithmes service){
+		this.service = service;
+	}
+}
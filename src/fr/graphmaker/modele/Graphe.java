@@ -0,0 +1,609 @@
+package fr.graphmaker.modele;
+
+import java.awt.BasicStroke;
+import java.awt.Shape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import fr.graphmaker.algorithmes.AlgoAEtoile;
+import fr.graphmaker.algorithmes.AlgoColorationParallele;
+import fr.graphmaker.algorithmes.AlgoDistances;
+import fr.graphmaker.algorithmes.AlgoMarquage;
+import fr.graphmaker.algorithmes.ComposantesConnexes;
+import fr.graphmaker.algorithmes.ResultatBrelaz;
+import fr.graphmaker.algorithmes.ResultatDistances;
+import fr.graphmaker.algorithmes.ResultatDjikstra;
+import fr.graphmaker.algorithmes.SuiviAlgorithme;
+import fr.graphmaker.constantes.GrapheConstantes;
+import fr.graphmaker.outils.Arc;
+import fr.graphmaker.outils.BoiteAOutil;
+import fr.graphmaker.outils.EcouteurGraphe;
+import fr.graphmaker.outils.Point;
+import fr.graphmaker.outils.Sommet;
+
+/**
+ * Classe contenant les données d'un graphe, indépendamment de toute interface graphique.
+ * Constitué d'un nom, d'un type d'orientation, d'un type de simplicité (boucles ou non), d'un type d'arcs et d'une liste de sommets.
+ * Peut être chargé, modifié et analysé sans affichage (traitements par lots par exemple),
+ * la classe PanelGraphe n'en étant qu'une vue.
+ */
+public class Graphe implements GrapheConstantes{
+	// Variables conservees dans la sauvegarde
+	private String nom;
+	private int type_orientation;
+	private int type_simple;
+	private int type_arcs;
+	private ArrayList<Sommet> sommets = new ArrayList<Sommet>();
+
+	// Variables ignorees dans la sauvegarde
+	private int max_sommet = 0;
+	private ArrayList<EcouteurGraphe> ecouteurs = new ArrayList<EcouteurGraphe>();
+	private EcouteurGraphe diffuseur = new Diffuseur();
+	private ComposantesConnexes composantes = new ComposantesConnexes(sommets);
+
+	/**
+	 * Constructeur initialisant le graphe à vide.
+	 *
+	 * @param nom Nom du graphe
+	 * @param type_orientation Orientation du graphe (orienté ou non)
+	 * @param type_simple Simplicité du graphe (boucles autorisées ou non)
+	 * @param type_arcs Type de valeurs des arcs (valué, non valué ou étiqueté)
+	 *
+	 * @see GrapheConstantes#ORIENTE
+	 * @see GrapheConstantes#NON_ORIENTE
+	 *
+	 * @see GrapheConstantes#SIMPLE
+	 * @see GrapheConstantes#NON_SIMPLE
+	 *
+	 * @see GrapheConstantes#VALUE
+	 * @see GrapheConstantes#NON_VALUE
+	 * @see GrapheConstantes#ETIQUETE
+	 */
+	public Graphe(String nom, int type_orientation, int type_simple, int type_arcs){
+		this.nom = nom;
+		this.type_orientation = type_orientation;
+		this.type_simple = type_simple;
+		this.type_arcs = type_arcs;
+		ecouteurs.add(composantes);
+	}
+
+	/**
+	 * Ajoute l'arc correspondant à la chaîne de caractères reçue en paramètre au graphe.
+	 * Utilisé lors du chargement.
+	 *
+	 * @param arc Chaîne de caractères correspondant à l'arc qu'on veut ajouter
+	 * @throws Exception Si la chaîne de caractères n'est pas convertible en arc, on renvoie une exception.
+	 */
+	public void addArc(String[] arc) throws Exception{
+		Arc a = Arc.stringToArc(arc);
+
+		if(a == null)
+			throw new Exception();
+
+		Sommet depart = null, arrivee = null;
+
+		for(Sommet s: sommets){
+			if(a.getDepart().equals(s))
+				depart = s;
+			if(a.getArrivee().equals(s))
+				arrivee = s;
+		}
+
+		if(depart != null && arrivee != null && !BoiteAOutil.arcExistant(depart, arrivee))
+			depart.addArcSortant(new Arc(depart, a.getBezier(), arrivee, a.getPosFleche(), a.getDistance(), a.getForme()), type_orientation);
+	}
+
+	/**
+	 * Ajoute le sommet correspondant à la chaîne de caractères reçue en paramètre au graphe.
+	 * Utilisé lors du chargement.
+	 *
+	 * @param sommet Chaîne de caractères correspondant au sommet qu'on veut ajouter
+	 * @throws Exception Si la chaîne de caractères n'est pas convertible en sommet, on renvoie une exception.
+	 */
+	public void addSommet(String[] sommet) throws Exception{
+		Sommet s = Sommet.stringToSommet(sommet);
+
+		if(s == null)
+			throw new Exception();
+
+		max_sommet++;
+		ajouterSommet(s);
+	}
+
+	/**
+	 * Créé un arc entre les deux sommets reçus en paramètre et l'ajoute au graphe.
+	 * Dans un graphe valué, la valeur de base de l'arc est 0.
+	 *
+	 * @param depart Sommet de départ
+	 * @param arrivee Sommet d'arrivée
+	 * @param forme Style de dessin de l'arc
+	 *
+	 * @return Arc créé
+	 */
+	public Arc ajouterArc(Sommet depart, Sommet arrivee, BasicStroke forme){
+		Arc a = new Arc(depart, new Point(), arrivee, forme);
+		a.calculerBezierInitial(type_orientation);
+		if(type_arcs == VALUE)
+			a.setDistance("0", type_orientation, type_arcs);
+		depart.addArcSortant(a, type_orientation);
+
+		return a;
+	}
+
+	/**
+	 * Ajoute au graphe les arcs décrits par le tableau de paires reçu en paramètre.
+	 * Les identifiants des paires font référence aux positions dans la liste references,
+	 * qui peut être une copie de la liste des sommets prise plus tôt (lors de la création d'une copie figée par exemple).
+	 * Les paires dont un sommet n'appartient plus au graphe, ou qui sont déjà reliées, sont ignorées.
+	 *
+	 * @param references Liste des sommets à laquelle font référence les identifiants
+	 * @param paires Identifiants des sommets de départ et d'arrivée, à la suite (départ, arrivée, départ, arrivée...)
+	 * @param forme Style de dessin des arcs
+	 */
+	public void ajouterArcs(ArrayList<Sommet> references, int[] paires, BasicStroke forme){
+		for(int k=0; k+1<paires.length; k+=2){
+			Sommet depart = references.get(paires[k]);
+			Sommet arrivee = references.get(paires[k+1]);
+			if(contient(depart) && contient(arrivee) && !BoiteAOutil.arcExistant(depart, arrivee))
+				ajouterArc(depart, arrivee, forme);
+		}
+	}
+
+	/**
+	 * Ajoute un écouteur prévenu de chaque modification de la structure du graphe.
+	 *
+	 * @param ecouteur Écouteur à ajouter
+	 */
+	public void ajouterEcouteur(EcouteurGraphe ecouteur){
+		ecouteurs.add(ecouteur);
+	}
+
+	/**
+	 * Renvoie les arcs à ajouter à la copie figée reçue en paramètre pour en faire une clique.
+	 * Dans un graphe non-orienté, une seule paire est renvoyée par arête (l'arc jumeau est créé à l'ajout).
+	 *
+	 * @param g Copie figée du graphe
+	 * @param suivi Suivi de l'algorithme, peut être null
+	 * @return Identifiants des sommets de départ et d'arrivée des arcs manquants, à la suite
+	 * @throws CancellationException Si le suivi a été annulé pendant le calcul
+	 */
+	public static int[] arcsClique(GrapheCompact g, SuiviAlgorithme suivi){
+		int n = g.getNbSommets();
+		boolean oriente = g.getTypeOrientation() == ORIENTE;
+		boolean[] voisins = new boolean[n];
+		int[] paires = new int[16];
+		int nb = 0;
+
+		for(int depart=0; depart<n; depart++){
+			if(suivi != null){
+				if(suivi.estAnnule())
+					throw new CancellationException();
+				suivi.progression(depart, n);
+			}
+
+			for(int k=g.debutSortants(depart); k<g.finSortants(depart); k++)
+				voisins[g.getCible(k)] = true;
+
+			for(int arrivee=(oriente ? 0 : depart+1); arrivee<n; arrivee++){
+				if(!voisins[arrivee] && (depart != arrivee || oriente)){
+					if(nb+2 > paires.length)
+						paires = Arrays.copyOf(paires, paires.length*2);
+					paires[nb++] = depart;
+					paires[nb++] = arrivee;
+				}
+			}
+
+			for(int k=g.debutSortants(depart); k<g.finSortants(depart); k++)
+				voisins[g.getCible(k)] = false;
+		}
+
+		return Arrays.copyOf(paires, nb);
+	}
+
+	/**
+	 * Construis la chaîne maximale du graphe.
+	 * La chaîne a pour point de départ le premier sommet de la liste des sommets,
+	 * et pour arrivée le dernier sommets de cette liste.
+	 */
+	public void buildChaine(){
+		for(int i=0; i<sommets.size()-1; i++)
+			if(!BoiteAOutil.arcExistant(sommets.get(i), sommets.get(i+1)))
+				ajouterArc(sommets.get(i), sommets.get(i+1), STYLE_ARC_SIMPLE_PLEIN);
+	}
+
+	/**
+	 * Construis la clique maximale du graphe.
+	 */
+	public void buildClique(){
+		ajouterArcs(sommets, arcsClique(figer(), null), STYLE_ARC_SIMPLE_PLEIN);
+	}
+
+	/**
+	 * Construis le cycle maximal du graphe.
+	 * Le cycle a pour point de départ et d'arrivée le premier sommet de la liste des sommets.
+	 */
+	public void buildCycle(){
+		buildChaine();
+		if(!BoiteAOutil.arcExistant(sommets.get(sommets.size()-1), sommets.get(0)))
+			ajouterArc(sommets.get(sommets.size()-1), sommets.get(0), STYLE_ARC_SIMPLE_PLEIN);
+	}
+
+	/**
+	 * Colore le graphe en parallèle sur une copie figée, pour les très grands graphes traités sans interface (traitements par lots).
+	 * Le travail est réparti entre les coeurs disponibles ; la coloration utilise en général plus de couleurs que l'algorithme de Brélaz.
+	 *
+	 * @return Résultat de la coloration
+	 * @throws IllegalStateException Si le graphe est orienté
+	 *
+	 * @see AlgoColorationParallele#coloration(GrapheCompact)
+	 */
+	public ResultatBrelaz colorationParallele(){
+		if(type_orientation == ORIENTE)
+			throw new IllegalStateException("Graphe orienté");
+		return AlgoColorationParallele.coloration(figer());
+	}
+
+	/**
+	 * Vérifie que le sommet reçu en paramètre appartient (toujours) au graphe.
+	 * La vérification se fait en temps constant grâce à l'identifiant du sommet.
+	 *
+	 * @param s Sommet à vérifier
+	 * @return true si le sommet appartient au graphe, false sinon
+	 */
+	public boolean contient(Sommet s){
+		int id = s.getIdentifiant();
+		return id >= 0 && id < sommets.size() && sommets.get(id) == s;
+	}
+
+	/**
+	 * Créé un nouveau sommet aux coordonnées reçues et l'ajoute au graphe.
+	 * Sa valeur de base est son numéro de création.
+	 *
+	 * @param x Abscisse du sommet
+	 * @param y Ordonnée du sommet
+	 * @param forme Forme du sommet
+	 *
+	 * @return Sommet créé
+	 */
+	public Sommet creerSommet(double x, double y, Shape forme){
+		Sommet s = new Sommet(x, y, ""+(max_sommet+1), forme);
+		max_sommet++;
+		ajouterSommet(s);
+
+		return s;
+	}
+
+	/**
+	 * Déplace le graphe entier (sommets et arcs) selon les paramètres reçus.
+	 *
+	 * @param change_x Modification d'abscisse
+	 * @param change_y Modification d'ordonnée
+	 */
+	public void deplacer(double change_x, double change_y){
+		for(Sommet s: sommets)
+			s.setLocation(s.getX()+change_x, s.getY()+change_y, type_orientation);
+	}
+
+	/**
+	 * Calcule les plus courtes distances entre tous les couples de sommets, sur une copie figée du graphe.
+	 *
+	 * @return Résultat contenant la matrice des distances
+	 * @throws IllegalArgumentException Si le graphe a trop de sommets pour que la matrice tienne dans un tableau
+	 */
+	public ResultatDistances distances(){
+		return AlgoDistances.distances(figer());
+	}
+
+	/**
+	 * Vérifie que le graphe est connexe ou non.
+	 * Dans un graphe non-orienté, la réponse est tenue à jour au fil des modifications.
+	 *
+	 * @return true si le graphe est connexe, false sinon
+	 */
+	public boolean estConnexe(){
+		if(type_orientation == ORIENTE)
+			return AlgoMarquage.connexite(figer());
+		else
+			return composantes.estConnexe();
+	}
+
+	/**
+	 * Renvoie une copie figée du graphe dans sa forme actuelle, destinée aux algorithmes.
+	 * Les sommets y sont désignés par leur identifiant.
+	 *
+	 * @return Copie figée du graphe
+	 */
+	public GrapheCompact figer(){
+		return new GrapheCompact(sommets, type_orientation);
+	}
+
+	/**
+	 * Renvoie la liste de tous les arcs du graphe.
+	 *
+	 * @return Liste des arcs du graphe
+	 */
+	public ArrayList<Arc> getArcs(){
+		ArrayList<Arc> arcs = new ArrayList<Arc>();
+
+		for(Sommet s: sommets)
+			for(Arc a: s.getArcsSortants())
+				arcs.add(a);
+
+		return arcs;
+	}
+
+	/**
+	 * Renvoie le nombre d'arcs du graphe (chaque arête d'un graphe non-orienté compte pour ses deux arcs).
+	 *
+	 * @return Nombre d'arcs
+	 */
+	public int getNbArcs(){
+		int nb_arcs = 0;
+		for(Sommet s: sommets)
+			nb_arcs += s.getArcsSortants().size();
+		return nb_arcs;
+	}
+
+	/**
+	 * Renvoie le nombre de composantes connexes du graphe, les arcs étant pris sans leur orientation.
+	 * Tenu à jour au fil des ajouts, il n'est recalculé qu'après une suppression.
+	 *
+	 * @return Nombre de composantes connexes
+	 */
+	public int getNbComposantes(){
+		return composantes.getNbComposantes();
+	}
+
+	/**
+	 * Renvoie le nom du graphe.
+	 *
+	 * @return Nom du graphe
+	 */
+	public String getNom(){
+		return nom;
+	}
+
+	/**
+	 * Renvoie la liste de tous les sommets du graphe.
+	 *
+	 * @return Liste des sommets du graphe
+	 */
+	public ArrayList<Sommet> getSommets(){
+		return sommets;
+	}
+
+	/**
+	 * Renvoie le type d'arcs du graphe.
+	 *
+	 * @return Type de valeur des arcs
+	 *
+	 * @see GrapheConstantes#VALUE
+	 * @see GrapheConstantes#NON_VALUE
+	 * @see GrapheConstantes#ETIQUETE
+	 */
+	public int getTypeArcs(){
+		return type_arcs;
+	}
+
+	/**
+	 * Renvoie le type d'orientation du graphe.
+	 *
+	 * @return Orientation du graphe
+	 *
+	 * @see GrapheConstantes#ORIENTE
+	 * @see GrapheConstantes#NON_ORIENTE
+	 */
+	public int getTypeOrientation(){
+		return type_orientation;
+	}
+
+	/**
+	 * Renvoie le type de simplicité du graphe (autorisation des boucles ou non).
+	 *
+	 * @return Simplicité du graphe
+	 *
+	 * @see GrapheConstantes#SIMPLE
+	 * @see GrapheConstantes#NON_SIMPLE
+	 */
+	public int getTypeSimple(){
+		return type_simple;
+	}
+
+	/**
+	 * Renvoie la matrice correspondant au graphe.
+	 *
+	 * @return Matrice du graphe
+	 */
+	public int[][] matrice(){
+		return BoiteAOutil.matrice(sommets);
+	}
+
+	/**
+	 * Réinitialise la courbe de tous les arcs du graphe.
+	 * Chaque point manipulable est remis à sa position initiale.
+	 */
+	public void resetArcs(){
+		for(Sommet s: sommets)
+			s.resetArcs(type_orientation);
+	}
+
+	/**
+	 * Retire un écouteur du graphe.
+	 *
+	 * @param ecouteur Écouteur à retirer
+	 */
+	public void retirerEcouteur(EcouteurGraphe ecouteur){
+		ecouteurs.remove(ecouteur);
+	}
+
+	/**
+	 * Fait tourner l'algorithme de djikstra selon les paramètres reçus, sur une copie figée du graphe.
+	 * La recherche est guidée par la position des sommets (A*) lorsque les poids des arcs le permettent,
+	 * ce qui donne le même chemin en traitant moins de sommets.
+	 * Chaque appel fige à nouveau tout le graphe, les déplacements de sommets et changements de poids n'étant pas signalés au graphe :
+	 * pour enchaîner plusieurs recherches sur un graphe qui ne change pas, mieux vaut le figer une fois
+	 * et appeler directement AlgoAEtoile.aEtoile sur la copie obtenue.
+	 *
+	 * @param depart Sommet de départ de l'algorithme
+	 * @param arrivee Sommet d'arrivée de l'algorithme
+	 *
+	 * @return Résultat de l'algorithme, contenant le chemin tracé si il existe
+	 *
+	 * @see #figer()
+	 * @see AlgoAEtoile#aEtoile(GrapheCompact, int, int)
+	 */
+	public ResultatDjikstra runDjikstra(Sommet depart, Sommet arrivee){
+		return AlgoAEtoile.aEtoile(figer(), depart.getIdentifiant(), arrivee.getIdentifiant());
+	}
+
+	/**
+	 * Modifie le nom du graphe.
+	 *
+	 * @param nom Nouveau nom
+	 */
+	public void setNom(String nom){
+		this.nom = nom;
+	}
+
+	/**
+	 * Modifie le type d'arcs du graphe.
+	 *
+	 * @param type_arcs Nouveau type d'arcs
+	 *
+	 * @see GrapheConstantes#VALUE
+	 * @see GrapheConstantes#NON_VALUE
+	 * @see GrapheConstantes#ETIQUETE
+	 */
+	public void setTypeArcs(int type_arcs){
+		this.type_arcs = type_arcs;
+	}
+
+	/**
+	 * Modifie l'orientation du graphe.
+	 * Un graphe désorienté devient simple et chacun de ses arcs reçoit son jumeau.
+	 *
+	 * @param type_orientation Nouvelle orientation
+	 *
+	 * @see GrapheConstantes#ORIENTE
+	 * @see GrapheConstantes#NON_ORIENTE
+	 */
+	public void setTypeOrientation(int type_orientation){
+		this.type_orientation = type_orientation;
+
+		if(type_orientation == NON_ORIENTE){
+			setTypeSimple(SIMPLE);
+			for(Arc a: getArcs())
+				a.desorienter();
+		}
+	}
+
+	/**
+	 * Modifie la simplicité (boucles autorisées ou non) du graphe.
+	 *
+	 * @param type_simple Nouvelle simplicité
+	 *
+	 * @see GrapheConstantes#SIMPLE
+	 * @see GrapheConstantes#NON_SIMPLE
+	 */
+	public void setTypeSimple(int type_simple){
+		this.type_simple = type_simple;
+
+		if(type_simple == SIMPLE)
+			for(Sommet s: sommets)
+				s.simplifier();
+	}
+
+	/**
+	 * Supprime le sommet reçu en paramètre ainsi que tous les arcs qui y sont rattachés.
+	 * Les identifiants des sommets restants sont ensuite renumérotés pour rester denses.
+	 *
+	 * @param s Sommet à supprimer
+	 */
+	public void supprimerSommet(Sommet s){
+		s.detruireSommet(sommets, type_orientation);
+		numeroterSommets();
+	}
+
+	/**
+	 * Renvoie une chaîne de caractères représentant le graphe.
+	 * Cette chaîne est utilisée pour sauvegarder le graphe.
+	 *
+	 * @return Chaîne représentant le Graphe
+	 */
+	@Override
+	public String toString(){
+		ArrayList<Arc> arcs = getArcs();
+		StringBuilder s = new StringBuilder(nom +","+ type_orientation+","+type_simple+","+type_arcs+","+sommets.size()+","+arcs.size()+"\n");
+
+		for(Sommet sommmet: sommets)
+			s.append(sommmet).append("\n");
+		for(Arc arc: arcs)
+			s.append(arc).append("\n");
+
+		return s.toString();
+	}
+
+	/**
+	 * Vide le graphe de tous ses composants (sommets et arcs).
+	 */
+	public void vider(){
+		max_sommet = 0;
+		ArrayList<Sommet> supprimes = new ArrayList<Sommet>(sommets);
+		sommets.clear();
+		for(Sommet s: supprimes){
+			s.setEcouteur(null);
+			diffuseur.sommetSupprime(s);
+		}
+	}
+
+	/**
+	 * Ajoute le sommet reçu en paramètre à la fin de la liste des sommets.
+	 * Son identifiant est sa position dans cette liste.
+	 *
+	 * @param s Sommet à ajouter
+	 */
+	private void ajouterSommet(Sommet s){
+		s.setIdentifiant(sommets.size());
+		s.setEcouteur(diffuseur);
+		sommets.add(s);
+		diffuseur.sommetAjoute(s);
+	}
+
+	/**
+	 * Renumérote les sommets du graphe pour que chaque identifiant corresponde à la position du sommet dans la liste.
+	 */
+	private void numeroterSommets(){
+		for(int i=0; i<sommets.size(); i++)
+			sommets.get(i).setIdentifiant(i);
+	}
+
+	/**
+	 * Écouteur rattaché à chaque sommet du graphe, transmettant les modifications à tous les écouteurs du graphe.
+	 */
+	private class Diffuseur implements EcouteurGraphe{
+		@Override
+		public void arcAjoute(Arc a){
+			for(EcouteurGraphe e: ecouteurs)
+				e.arcAjoute(a);
+		}
+
+		@Override
+		public void arcSupprime(Arc a){
+			for(EcouteurGraphe e: ecouteurs)
+				e.arcSupprime(a);
+		}
+
+		@Override
+		public void sommetAjoute(Sommet s){
+			for(EcouteurGraphe e: ecouteurs)
+				e.sommetAjoute(s);
+		}
+
+		@Override
+		public void sommetSupprime(Sommet s){
+			for(EcouteurGraphe e: ecouteurs)
+				e.sommetSupprime(s);
+		}
+	}
+}
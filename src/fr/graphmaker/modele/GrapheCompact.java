@@ -0,0 +1,290 @@
+package fr.graphmaker.modele;
+
+import java.util.ArrayList;
+
+import fr.graphmaker.constantes.GrapheConstantes;
+import fr.graphmaker.outils.Arc;
+import fr.graphmaker.outils.Sommet;
+
+/**
+ * Classe représentant une copie figée (en lecture seule) d'un graphe, destinée aux algorithmes.
+ * Les listes d'adjacence sont rangées dans des tableaux contigus (format CSR) :
+ * 		- Tableau d'entiers : Pour chaque sommet, l'indice de début de ses arcs sortants (taille nombre de sommets + 1)
+ * 		- Tableau d'entiers : Les identifiants des sommets d'arrivée de chaque arc sortant
+ * 		- Tableau de réels : Le poids de chaque arc sortant (NaN si l'arc n'a pas de valeur numérique)
+ * 		- Les mêmes tableaux pour les arcs entrants, afin de parcourir les prédécesseurs (et de remonter les arcs à l'envers)
+ * 		- Tableaux de réels : Les coordonnées de chaque sommet au moment de la copie
+ * Les sommets y sont désignés par leur identifiant, qui correspond à leur position dans la liste du graphe.
+ * La copie retient aussi quel Sommet correspond à chaque identifiant, pour relier les résultats des algorithmes au graphe affiché.
+ * Toute modification du graphe après la création de la copie n'y est pas répercutée.
+ */
+public class GrapheCompact implements GrapheConstantes{
+	private final int nb_sommets;
+	private final int type_orientation;
+	private final int[] debuts;
+	private final int[] cibles;
+	private final double[] poids;
+	private final int[] debuts_entrants;
+	private final int[] sources;
+	private final double[] poids_entrants;
+	private final double[] abscisses;
+	private final double[] ordonnees;
+	private final Sommet[] sommets;
+	private final boolean poids_negatif;
+	private volatile double rapport_poids_longueur = Double.NaN;
+
+	/**
+	 * Construit la copie figée de la liste de sommets reçue en paramètre.
+	 *
+	 * @param sommets Liste de sommets dont les identifiants correspondent aux positions dans la liste
+	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
+	 *
+	 * @see GrapheConstantes#ORIENTE
+	 * @see GrapheConstantes#NON_ORIENTE
+	 */
+	public GrapheCompact(ArrayList<Sommet> sommets, int type_orientation){
+		this.type_orientation = type_orientation;
+		nb_sommets = sommets.size();
+		this.sommets = sommets.toArray(new Sommet[nb_sommets]);
+		debuts = new int[nb_sommets+1];
+		debuts_entrants = new int[nb_sommets+1];
+
+		for(int i=0; i<nb_sommets; i++){
+			debuts[i+1] = debuts[i] + sommets.get(i).getArcsSortants().size();
+			debuts_entrants[i+1] = debuts_entrants[i] + sommets.get(i).getArcsEntrants().size();
+		}
+
+		boolean negatif = false;
+		cibles = new int[debuts[nb_sommets]];
+		poids = new double[debuts[nb_sommets]];
+		sources = new int[debuts_entrants[nb_sommets]];
+		poids_entrants = new double[debuts_entrants[nb_sommets]];
+		abscisses = new double[nb_sommets];
+		ordonnees = new double[nb_sommets];
+
+		for(int i=0; i<nb_sommets; i++){
+			abscisses[i] = sommets.get(i).getX();
+			ordonnees[i] = sommets.get(i).getY();
+
+			int k = debuts[i];
+			for(Arc a: sommets.get(i).getArcsSortants()){
+				cibles[k] = a.getArrivee().getIdentifiant();
+				poids[k] = a.getPoids();
+				negatif |= poids[k] < 0.0;
+				k++;
+			}
+
+			k = debuts_entrants[i];
+			for(Arc a: sommets.get(i).getArcsEntrants()){
+				sources[k] = a.getDepart().getIdentifiant();
+				poids_entrants[k] = a.getPoids();
+				k++;
+			}
+		}
+		poids_negatif = negatif;
+	}
+
+	/**
+	 * Vérifie si au moins un arc de la copie a un poids négatif.
+	 * Les algorithmes de Djikstra et A* ne donnent alors plus les plus courts chemins.
+	 *
+	 * @return true si un arc a un poids négatif, false sinon
+	 */
+	public boolean aPoidsNegatif(){
+		return poids_negatif;
+	}
+
+	/**
+	 * Renvoie l'indice de début des arcs entrants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de début des arcs entrants dans le tableau des sources
+	 */
+	public int debutEntrants(int sommet){
+		return debuts_entrants[sommet];
+	}
+
+	/**
+	 * Renvoie l'indice de début des arcs sortants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de début des arcs sortants dans le tableau des cibles
+	 */
+	public int debutSortants(int sommet){
+		return debuts[sommet];
+	}
+
+	/**
+	 * Renvoie l'indice de fin (exclu) des arcs entrants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de fin des arcs entrants dans le tableau des sources
+	 */
+	public int finEntrants(int sommet){
+		return debuts_entrants[sommet+1];
+	}
+
+	/**
+	 * Renvoie l'indice de fin (exclu) des arcs sortants du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Indice de fin des arcs sortants dans le tableau des cibles
+	 */
+	public int finSortants(int sommet){
+		return debuts[sommet+1];
+	}
+
+	/**
+	 * Renvoie l'identifiant du sommet d'arrivée de l'arc sortant à l'indice reçu.
+	 *
+	 * @param arc Indice de l'arc dans le tableau des cibles
+	 * @return Identifiant du sommet d'arrivée
+	 */
+	public int getCible(int arc){
+		return cibles[arc];
+	}
+
+	/**
+	 * Renvoie le degré sortant du sommet reçu en paramètre.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Nombre d'arcs sortants du sommet
+	 */
+	public int getDegre(int sommet){
+		return debuts[sommet+1] - debuts[sommet];
+	}
+
+	/**
+	 * Renvoie l'identifiant, dans la copie, du sommet reçu en paramètre.
+	 *
+	 * @param s Sommet recherché
+	 * @return Identifiant du sommet s'il faisait partie du graphe lors de la copie (à la même position), -1 sinon
+	 */
+	public int getIdentifiant(Sommet s){
+		int id = s.getIdentifiant();
+		if(id >= 0 && id < nb_sommets && sommets[id] == s)
+			return id;
+		return -1;
+	}
+
+	/**
+	 * Renvoie le nombre d'arcs de la copie.
+	 *
+	 * @return Nombre d'arcs
+	 */
+	public int getNbArcs(){
+		return cibles.length;
+	}
+
+	/**
+	 * Renvoie le nombre de sommets de la copie.
+	 *
+	 * @return Nombre de sommets
+	 */
+	public int getNbSommets(){
+		return nb_sommets;
+	}
+
+	/**
+	 * Renvoie le poids de l'arc sortant à l'indice reçu.
+	 *
+	 * @param arc Indice de l'arc dans le tableau des cibles
+	 * @return Poids de l'arc, NaN si l'arc n'a pas de valeur numérique
+	 */
+	public double getPoids(int arc){
+		return poids[arc];
+	}
+
+	/**
+	 * Renvoie le poids de l'arc entrant à l'indice reçu.
+	 *
+	 * @param arc Indice de l'arc dans le tableau des sources
+	 * @return Poids de l'arc, NaN si l'arc n'a pas de valeur numérique
+	 */
+	public double getPoidsEntrant(int arc){
+		return poids_entrants[arc];
+	}
+
+	/**
+	 * Renvoie le plus petit rapport entre le poids d'un arc et la distance séparant ses extrémités.
+	 * Les boucles et les arcs entre sommets superposés ne comptent pas.
+	 * Le rapport n'est calculé qu'au premier appel, la copie ne changeant plus ensuite.
+	 *
+	 * @return Plus petit rapport, 0 si un arc a un poids négatif ou non numérique,
+	 * l'infini positif si aucun arc ne relie deux sommets distincts
+	 */
+	public double getRapportPoidsLongueur(){
+		double rapport = rapport_poids_longueur;
+		if(!Double.isNaN(rapport))
+			return rapport;
+
+		rapport = Double.POSITIVE_INFINITY;
+		for(int s=0; s<nb_sommets && rapport > 0.0; s++){
+			for(int k=debuts[s]; k<debuts[s+1]; k++){
+				if(!(poids[k] >= 0.0)){
+					rapport = 0.0;
+					break;
+				}
+
+				double longueur = Math.hypot(abscisses[cibles[k]] - abscisses[s], ordonnees[cibles[k]] - ordonnees[s]);
+				if(longueur > 0.0)
+					rapport = Math.min(rapport, poids[k] / longueur);
+			}
+		}
+
+		rapport_poids_longueur = rapport;
+		return rapport;
+	}
+
+	/**
+	 * Renvoie le Sommet correspondant à l'identifiant reçu lors de la création de la copie.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Sommet correspondant
+	 */
+	public Sommet getSommet(int sommet){
+		return sommets[sommet];
+	}
+
+	/**
+	 * Renvoie l'identifiant du sommet de départ de l'arc entrant à l'indice reçu.
+	 *
+	 * @param arc Indice de l'arc dans le tableau des sources
+	 * @return Identifiant du sommet de départ
+	 */
+	public int getSource(int arc){
+		return sources[arc];
+	}
+
+	/**
+	 * Renvoie le type d'orientation du graphe copié.
+	 *
+	 * @return Orientation du graphe
+	 *
+	 * @see GrapheConstantes#ORIENTE
+	 * @see GrapheConstantes#NON_ORIENTE
+	 */
+	public int getTypeOrientation(){
+		return type_orientation;
+	}
+
+	/**
+	 * Renvoie l'abscisse du sommet reçu en paramètre au moment de la copie.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Abscisse du sommet
+	 */
+	public double getX(int sommet){
+		return abscisses[sommet];
+	}
+
+	/**
+	 * Renvoie l'ordonnée du sommet reçu en paramètre au moment de la copie.
+	 *
+	 * @param sommet Identifiant du sommet
+	 * @return Ordonnée du sommet
+	 */
+	public double getY(int sommet){
+		return ordonnees[sommet];
+	}
+}
@@ -20,6 +20,7 @@ import fr.graphmaker.constantes.SauvegardeConstantes;
  * 		- Point : Le Point manipulable de la courbe, utilisé pour modifier l'allure de la courbe
  * 		- Point : Le point correspondant à la position de la flèche si le Graphe est orienté
  * 		- Chaîne de caractères : Valuation, étiquette de l'Arc si le Graphe est valué ou étiqueté  
+ * 		- Réel : Valuation numérique de l'Arc, déduite de la chaîne précédente (NaN si elle n'est pas numérique)
  * 		- Forme : Style de tracé de l'Arc
  */
 public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursConstantes{
@@ -32,6 +33,7 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	private BasicStroke forme = STYLE_ARC_SIMPLE_PLEIN;
 	
 	// Variables ignorees dans la sauvegarde
+	private double poids = Double.NaN;
 	private Point ctrl_arrivee;
 	private Point ctrl_depart;
 	private boolean selectionne;
@@ -109,6 +111,7 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	public Arc(Sommet depart, Point bezier, Sommet arrivee, String distance){
 		this(depart, bezier, arrivee);
 		this.distance = distance;
+		this.poids = parsePoids(distance);
 	}
 	
 	/**
@@ -131,38 +134,33 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 		
 		setBezierLocation(x, y, type_orientation);
 		
-		if(type_orientation == ORIENTE && depart!=arrivee){
-			for(Arc a: arrivee.getArcsSortants()){
-				if(a.arrivee == depart){
-					a.bezier.setLocation(x, y);
-					bezier.setLocation(x, y);
-					if((depart.getX() < arrivee.getX() && depart.getY() < arrivee.getY())
-							|| (depart.getX() > arrivee.getX() && depart.getY() > arrivee.getY())){
-						a.changeBezier(25, -25, MVT_DEPART, type_orientation);
-						changeBezier(-25, 25, MVT_ARRIVEE, type_orientation);
-					}
-					else{
-						a.changeBezier(25, 25, MVT_DEPART, type_orientation);
-						changeBezier(-25, -25, MVT_ARRIVEE, type_orientation);
-					}
-					a.pos_fleche.setLocation(a.bezier);
-				}
+		Arc jumeau = arrivee.getArcSortant(depart);
+		if(type_orientation == ORIENTE && depart!=arrivee && jumeau != null){
+			jumeau.bezier.setLocation(x, y);
+			bezier.setLocation(x, y);
+			if((depart.getX() < arrivee.getX() && depart.getY() < arrivee.getY())
+					|| (depart.getX() > arrivee.getX() && depart.getY() > arrivee.getY())){
+				jumeau.changeBezier(25, -25, MVT_DEPART, type_orientation);
+				changeBezier(-25, 25, MVT_ARRIVEE, type_orientation);
+			}
+			else{
+				jumeau.changeBezier(25, 25, MVT_DEPART, type_orientation);
+				changeBezier(-25, -25, MVT_ARRIVEE, type_orientation);
 			}
+			jumeau.pos_fleche.setLocation(jumeau.bezier);
 		}
 		
 		pos_fleche.setLocation(bezier);
 		refreshCourbes();
-		if(type_orientation == NON_ORIENTE)
-			for(Arc a: arrivee.getArcsSortants())
-				if(a.getArrivee() == depart){
-					a.bezier = new Point(bezier);
-					a.calculerCtrl();
-					a.forme = forme;
-					a.pos_fleche = new Point(pos_fleche);
-					a.distance = distance;
-					a.refreshCourbes();
-				}
-				
+		if(type_orientation == NON_ORIENTE && jumeau != null){
+			jumeau.bezier = new Point(bezier);
+			jumeau.calculerCtrl();
+			jumeau.forme = forme;
+			jumeau.pos_fleche = new Point(pos_fleche);
+			jumeau.distance = distance;
+			jumeau.poids = poids;
+			jumeau.refreshCourbes();
+		}
 	}
 	
 	/**
@@ -285,19 +283,17 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	 * Créé son jumeau s'il n'existe pas déjà pour pouvoir utiliser les algorithmes sur la version non-orienteée du graphe.
 	 */
 	public void desorienter(){
-		boolean deja_double = false;
 		if(depart != arrivee){
-			for(Arc a: arrivee.getArcsSortants()){
-				deja_double |= (a.getArrivee() == depart);
-				if(a.getArrivee() == depart){
-					a.bezier = new Point(bezier);
-					a.calculerCtrl();
-					a.forme = forme;
-					a.pos_fleche = new Point(pos_fleche);
-					a.distance = distance;
-				}
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null){
+				jumeau.bezier = new Point(bezier);
+				jumeau.calculerCtrl();
+				jumeau.forme = forme;
+				jumeau.pos_fleche = new Point(pos_fleche);
+				jumeau.distance = distance;
+				jumeau.poids = poids;
 			}
-			if(!deja_double){
+			else{
 				Arc a = new Arc(arrivee, new Point(bezier), depart, pos_fleche, distance, forme);
 				a.refreshCourbes();
 				arrivee.addArcSortant(a, NON_ORIENTE);
@@ -316,23 +312,22 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	public void detruireArc(int type_orientation){
 		depart.removeArcSortant(this);
 		if(type_orientation == NON_ORIENTE){
-			for(Arc a: arrivee.getArcsSortants()){
-				if(a.arrivee == depart){
-					arrivee.removeArcSortant(a);
-					break;
-				}
-			}
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null)
+				arrivee.removeArcSortant(jumeau);
 		}
 	}
 	
 	/**
 	 * Dessine l'Arc sur l'objet Graphics2D fourni en paramètre.
+	 * L'état de l'Arc vis-à-vis de l'algorithme en cours est fourni par le résultat de cet algorithme.
 	 * 
 	 * @param g2d Objet graphique servant au dessin de l'Arc
 	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
 	 * @param mode Mode dans lequel est l'interface utilisateur (Djikstra, ou Déplacer par exemple)
 	 * @param type_simple Simplicité du Graphe concerné, si il accepte (NON_SIMPLE) ou non les boucles (SIMPLE)
 	 * @param type_arc Type d'Arc dans le Graphe concerné, VALUE, NON_VALUE ou ETIQUETE
+	 * @param marque true si l'Arc fait partie du résultat de l'algorithme (chemin de Djikstra, marquage)
 	 * 
 	 * @see GrapheConstantes#ORIENTE
 	 * @see GrapheConstantes#NON_ORIENTE
@@ -359,13 +354,13 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
      * @see GrapheConstantes#VALUE
      * @see GrapheConstantes#ETIQUETE
 	 */
-	public void draw(Graphics2D g2d, int type_orientation, int mode, int type_simple, int type_arc){
+	public void draw(Graphics2D g2d, int type_orientation, int mode, int type_simple, int type_arc, boolean marque){
 		dessine = true;
 		
 		if(type_orientation == NON_ORIENTE){
-			for(Arc a: arrivee.getArcsSortants())
-				if(a.arrivee == depart)
-					a.dessine = true;
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null)
+				jumeau.dessine = true;
 		}
 		
 		/* Dessine les droites et points vers les points d'influence de la courbe de bezier
@@ -384,7 +379,7 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 		*/
 		
 		if(type_simple == NON_SIMPLE || (type_simple == SIMPLE && depart != arrivee)){
-			if(selectionne && (mode == DJIKSTRA || mode == MARQUAGE)){
+			if((selectionne || marque) && (mode == DJIKSTRA || mode == MARQUAGE)){
 				if(mode == DJIKSTRA)
 					g2d.setColor(COL_DJIKSTRA);
 				else if(mode == MARQUAGE)
@@ -402,7 +397,7 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	    	g2d.draw(courbe_arrivee);
 	    	
 	    	if(forme.equals(STYLE_ARC_DOUBLE_PLEIN) || forme.equals(STYLE_ARC_DOUBLE_POINTILLE)){
-	    		if(selectionne && (mode == DJIKSTRA || mode == MARQUAGE)){
+	    		if((selectionne || marque) && (mode == DJIKSTRA || mode == MARQUAGE)){
 	    			if(mode == DJIKSTRA)
 						g2d.setColor(COL_DJIKSTRA);
 					else if(mode == MARQUAGE)
@@ -476,6 +471,16 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 		return distance;
 	}
 
+	/**
+	 * Renvoie la valuation numérique de l'Arc.
+	 * Elle est calculée une seule fois, à chaque modification de la valeur de l'Arc.
+	 * 
+	 * @return Valuation numérique de l'Arc, NaN si sa valeur n'est pas numérique
+	 */
+	public double getPoids(){
+		return poids;
+	}
+
 	/**
 	 * Renvoie le style de tracé de l'Arc.
 	 * 
@@ -551,14 +556,12 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 		calculerPosFleche(change_x, change_y);
 		
 		if(type_orientation == NON_ORIENTE){
-			for(Arc a: arrivee.getArcsSortants()){
-				if(a.arrivee == depart){
-					a.bezier.setLocation(x, y);
-					a.calculerCtrl();
-					a.refreshCourbes();
-					a.pos_fleche.setLocation(pos_fleche);
-					break;
-				}
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null){
+				jumeau.bezier.setLocation(x, y);
+				jumeau.calculerCtrl();
+				jumeau.refreshCourbes();
+				jumeau.pos_fleche.setLocation(pos_fleche);
 			}
 		}
 	}
@@ -576,12 +579,9 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	public void setDessine(boolean dessin, int type_orientation){
 		dessine = dessin;
 		if(type_orientation == NON_ORIENTE){
-			for(Arc a: arrivee.getArcsSortants()){
-				if(a.arrivee == depart){
-					a.dessine = dessin;
-					break;
-				}
-			}
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null)
+				jumeau.dessine = dessin;
 		}
 	}
 	
@@ -602,10 +602,13 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	public void setDistance(String distance, int type_orientation, int type_arc){
 		if(type_arc != NON_VALUE){
 			this.distance = distance;
+			this.poids = parsePoids(distance);
 			if(type_orientation == NON_ORIENTE){
-				for(Arc a: arrivee.getArcsSortants())
-					if(a.arrivee ==depart)
-						a.distance = distance;
+				Arc jumeau = arrivee.getArcSortant(depart);
+				if(jumeau != null){
+					jumeau.distance = distance;
+					jumeau.poids = poids;
+				}
 			}
 		}
 	}
@@ -622,9 +625,9 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	public void setForme(BasicStroke forme, int type_orientation){
 		this.forme = forme;
 		if(type_orientation == NON_ORIENTE){
-			for(Arc a: arrivee.getArcsSortants())
-				if(a.arrivee == depart)
-					a.forme = forme;
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null)
+				jumeau.forme = forme;
 		}
 	}
 	
@@ -646,12 +649,9 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 		if(contains(x, y, mode) && depart!=arrivee){
 			pos_fleche = findPoint(x, y, mode);
 			if(type_orientation == NON_ORIENTE){
-				for(Arc a: arrivee.getArcsSortants()){
-					if(a.arrivee == depart){
-						a.pos_fleche = new Point(pos_fleche);
-						break;
-					}
-				}
+				Arc jumeau = arrivee.getArcSortant(depart);
+				if(jumeau != null)
+					jumeau.pos_fleche = new Point(pos_fleche);
 			}
 		}
 	}
@@ -668,12 +668,9 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 	public void setSelectionne(boolean select, int type_orientation){
 		selectionne = select;
 		if(type_orientation == NON_ORIENTE){
-			for(Arc a: arrivee.getArcsSortants()){
-				if(a.arrivee == depart){
-					a.selectionne = select;
-					break;
-				}
-			}
+			Arc jumeau = arrivee.getArcSortant(depart);
+			if(jumeau != null)
+				jumeau.selectionne = select;
 		}
 	}
 	
@@ -994,6 +991,25 @@ public class Arc implements GrapheConstantes, SauvegardeConstantes, CouleursCons
 		courbe_arrivee = buildCourbe(COURBE_ARRIVEE);
 	}
 	
+	/**
+	 * Convertit la valeur d'un Arc en valuation numérique.
+	 * 
+	 * @param distance Valeur, étiquette de l'Arc
+	 * @return Valuation numérique correspondante, NaN si la valeur n'est pas numérique
+	 */
+	private static double parsePoids(String distance){
+		double poids = Double.NaN;
+		
+		if(distance != null){
+			try{
+				poids = Double.parseDouble(distance);
+			}
+			catch(NumberFormatException e){ }
+		}
+		
+		return poids;
+	}
+	
 	/**
 	 * Transforme une chaîne de caractères en un Arc.
 	 * Utilisé lors du chargement.
@@ -4,6 +4,7 @@ import java.awt.Toolkit;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 
@@ -104,6 +105,7 @@ public class BoiteAOutil {
 	
 	/**
 	 * Vérifie s'il existe un arc entre les deux sommets reçus en paramètre.
+	 * La vérification se fait en temps constant grâce à l'index des successeurs du sommet de départ.
 	 * 
 	 * @param depart Sommet de départ
 	 * @param arrivee Sommet d'arrivée
@@ -111,16 +113,7 @@ public class BoiteAOutil {
 	 * @return true si il y a un arc entre les deux sommets, false sinon
 	 */
 	public static boolean arcExistant(Sommet depart, Sommet arrivee){
-    	boolean existe = false;
-	
-    	for(Arc a: depart.getArcsSortants()){
-    		if(a.getArrivee() == arrivee){
-    			existe = true;
-    			break;
-    		}
-    	}
-    	
-    	return existe;
+    	return depart.getArcSortant(arrivee) != null;
     }
 	
 	/**
@@ -155,6 +148,8 @@ public class BoiteAOutil {
 	
 	/**
 	 * Renvoie la matrice de la liste reçues en paramètre.
+	 * Les lignes et colonnes suivent l'ordre de la liste, qui peut être différent de l'ordre des identifiants des sommets.
+	 * La matrice est remplie en un seul parcours des listes d'arcs.
 	 * 
 	 * @param sommets Liste de sommets dont on veut la matrice
 	 * 
@@ -162,11 +157,26 @@ public class BoiteAOutil {
 	 */
 	public static int[][] matrice(ArrayList<Sommet> sommets){
 		int[][] matrice = new int[sommets.size()][sommets.size()];
+		int max_identifiant = -1;
+		
+		for(Sommet s: sommets)
+			max_identifiant = Math.max(max_identifiant, s.getIdentifiant());
+		
+		/*
+		 * rangs[identifiant] donne la ligne (et la colonne) du sommet dans la matrice,
+		 * ou -1 si le sommet n'appartient pas à la liste.
+		 */
+		int[] rangs = new int[max_identifiant+1];
+		Arrays.fill(rangs, -1);
+		for(int i=0; i<sommets.size(); i++)
+			rangs[sommets.get(i).getIdentifiant()] = i;
 		
-		for(Sommet depart: sommets)
-			for(Sommet arrivee: sommets)
-				if(arcExistant(depart, arrivee))
-					matrice[sommets.indexOf(depart)][sommets.indexOf(arrivee)] = 1;
+		for(int i=0; i<sommets.size(); i++)
+			for(Arc a: sommets.get(i).getArcsSortants()){
+				int id_arrivee = a.getArrivee().getIdentifiant();
+				if(id_arrivee <= max_identifiant && rangs[id_arrivee] != -1)
+					matrice[i][rangs[id_arrivee]] = 1;
+			}
 		
 		return matrice;
 	}
@@ -0,0 +1,36 @@
+package fr.graphmaker.outils;
+
+/**
+ * Interface permettant d'être prévenu des modifications de la structure d'un graphe.
+ * Les Sommets signalent chaque arc ajouté ou supprimé, dans un graphe non-orienté l'arc jumeau l'est donc aussi.
+ * Les méthodes sont appelées une fois la modification faite, depuis le thread qui modifie le graphe.
+ */
+public interface EcouteurGraphe {
+	/**
+	 * Signale qu'un arc vient d'être ajouté au graphe.
+	 *
+	 * @param a Arc ajouté
+	 */
+	public void arcAjoute(Arc a);
+
+	/**
+	 * Signale qu'un arc vient d'être supprimé du graphe.
+	 *
+	 * @param a Arc supprimé
+	 */
+	public void arcSupprime(Arc a);
+
+	/**
+	 * Signale qu'un sommet vient d'être ajouté au graphe.
+	 *
+	 * @param s Sommet ajouté
+	 */
+	public void sommetAjoute(Sommet s);
+
+	/**
+	 * Signale qu'un sommet vient d'être supprimé du graphe (ses arcs l'ont été avant lui).
+	 *
+	 * @param s Sommet supprimé
+	 */
+	public void sommetSupprime(Sommet s);
+}
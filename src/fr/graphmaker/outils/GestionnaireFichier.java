@@ -5,24 +5,29 @@ import java.awt.Frame;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 
 import javax.imageio.ImageIO;
 import javax.swing.JOptionPane;
 
+import fr.graphmaker.algorithmes.HierarchieContraction;
 import fr.graphmaker.constantes.LanguesConstantes;
 import fr.graphmaker.constantes.SauvegardeConstantes;
 import fr.graphmaker.gui.PanelGraphe;
 import fr.graphmaker.gui.PanelMatrice;
+import fr.graphmaker.modele.Graphe;
 
 /**
  * Classe gérant la sauvegarde et le chargement.
  * La gestion se fait par des methodes de classe pour ne pas avoir à instancier d'objets.
- * 
+ * Les méthodes chargerGraphe, sauvegarderGraphe, chargerHierarchie et sauvegarderHierarchie n'utilisent aucun composant graphique
+ * et peuvent donc être appelées sans affichage.
  */
 public class GestionnaireFichier implements SauvegardeConstantes,LanguesConstantes{
 	/**
@@ -44,6 +49,85 @@ public class GestionnaireFichier implements SauvegardeConstantes,LanguesConstant
 		return fileName+".png";
 	}
 	
+	/**
+	 * Lit un graphe depuis le flux reçu en paramètre, au format de sauvegarde de GraphMaker.
+	 * Le flux n'est pas fermé par cette méthode.
+	 * 
+	 * @param r Flux contenant le graphe sauvegardé
+	 * @return Graphe lu depuis le flux
+	 * @throws Exception Si le flux est vide ou que son contenu n'est pas un graphe valide
+	 */
+	public static Graphe chargerGraphe(Reader r) throws Exception{
+		BufferedReader br = new BufferedReader(r);
+		Graphe g = null;
+		String line = "", splitter = ",";
+		String[] tmp_datas;
+		int num_line = 0, infos_arcs = 0;
+		
+		while ((line = br.readLine()) != null) {
+			tmp_datas = line.split(splitter);
+			if(num_line == INFOS_GRAPHE){
+				g = new Graphe(tmp_datas[NOM_GRAPHE], 
+								Integer.parseInt(tmp_datas[TYPE_ORIENTATION_GRAPHE]), 
+								Integer.parseInt(tmp_datas[TYPE_SIMPLE_GRAPHE]), 
+								Integer.parseInt(tmp_datas[TYPE_ARCS_GRAPHE])
+								);
+				infos_arcs = Integer.parseInt(tmp_datas[NOMBRE_SOMMETS])+1;
+			}
+			else if(num_line >= INFOS_SOMMETS && num_line < infos_arcs)
+				g.addSommet(tmp_datas);
+			else
+				g.addArc(tmp_datas);
+			
+			num_line++;
+		}
+		
+		if(g == null)
+			throw new Exception();
+		
+		return g;
+	}
+	
+	/**
+	 * Lit le graphe sauvegardé dans le fichier reçu en paramètre.
+	 * 
+	 * @param fileName Chemin du fichier à lire
+	 * @return Graphe contenu dans le fichier
+	 * @throws Exception Si le fichier est illisible, n'a pas un format valide ou ne contient pas un graphe valide
+	 * 
+	 * @see SauvegardeConstantes#SAVE_FORMAT
+	 * @see SauvegardeConstantes#OTHER_SAVE_FORMAT
+	 */
+	public static Graphe chargerGraphe(String fileName) throws Exception{
+		if(!isValidFormat(fileName))
+			throw new IOException(fileName);
+		
+		FileReader r = new FileReader(fileName);
+		try {
+			return chargerGraphe(r);
+		} finally {
+			r.close();
+		}
+	}
+	
+	/**
+	 * Lit la hiérarchie de contraction enregistrée dans le fichier reçu en paramètre.
+	 * 
+	 * @param fileName Chemin du fichier à lire
+	 * @return Hiérarchie contenue dans le fichier
+	 * @throws Exception Si le fichier est illisible ou ne contient pas une hiérarchie valide
+	 * 
+	 * @see SauvegardeConstantes#HIERARCHIE_FORMAT
+	 */
+	public static HierarchieContraction chargerHierarchie(String fileName) throws Exception{
+		FileReader r = new FileReader(fileName);
+		try {
+			return HierarchieContraction.lire(r);
+		} finally {
+			r.close();
+		}
+	}
+	
 	/**
 	 * Exporte le graphe correspondant à la matrice reçue en paramètre dans un fichier choisi par l'utilisateur.
 	 * L'exportation se fait dans un fichier LaTeX au format .tex
@@ -81,6 +165,7 @@ public class GestionnaireFichier implements SauvegardeConstantes,LanguesConstant
 	
 	/**
 	 * Renvoie un objet correspondant au graphe à charger choisi par l'utilisateur.
+	 * La hiérarchie de contraction enregistrée à côté du fichier est rechargée si elle correspond toujours au graphe.
 	 * 
 	 * @param langue Langue de l'interface qui va recevoir le graphe après le chargement
 	 * @return PanelGraphe dans lequel est chargé le fichier choisi par l'utilisateur
@@ -97,51 +182,30 @@ public class GestionnaireFichier implements SauvegardeConstantes,LanguesConstant
 		
 		String fileName = nav.getDirectory()+nav.getFile();
 		
-		if(nav.getFile()!=null  && isValidFormat(fileName)){
-			BufferedReader br = null;
-
+		if(nav.getFile()!=null){
 			try {
-				br = new BufferedReader(new FileReader(fileName));
-			} catch (FileNotFoundException e) { }
+				g = new PanelGraphe(chargerGraphe(fileName));
+			} catch (Exception e) {
+				JOptionPane.showMessageDialog(null, LOC[LOC_CHARGEMENT_ECHOUE][langue], LOC[LOC_ERREUR][langue], JOptionPane.ERROR_MESSAGE);
+			}
 			
-		    try {
-		        String line = "", splitter = ",";
-				String[] tmp_datas;
-				int num_line = 0, infos_arcs = 0;
-		        try {
-					while ((line = br.readLine()) != null) {
-						tmp_datas = line.split(splitter);
-						if(num_line == INFOS_GRAPHE){
-							g = new PanelGraphe(tmp_datas[NOM_GRAPHE], 
-											Integer.parseInt(tmp_datas[TYPE_ORIENTATION_GRAPHE]), 
-											Integer.parseInt(tmp_datas[TYPE_SIMPLE_GRAPHE]), 
-											Integer.parseInt(tmp_datas[TYPE_ARCS_GRAPHE])
-											);
-							infos_arcs = Integer.parseInt(tmp_datas[NOMBRE_SOMMETS])+1;
-						}
-						else if(num_line >= INFOS_SOMMETS && num_line < infos_arcs)
-							g.addSommet(tmp_datas);
-						else
-							g.addArc(tmp_datas);
-						
-						num_line++;
-					}
-				} catch (Exception e) { 
-					JOptionPane.showMessageDialog(null, LOC[LOC_CHARGEMENT_ECHOUE][langue], LOC[LOC_ERREUR][langue], JOptionPane.ERROR_MESSAGE); 
+			/*
+			 * La hiérarchie enregistrée à côté du graphe est facultative : absente, illisible ou ne correspondant plus au graphe,
+			 * elle est simplement ignorée.
+			 */
+			if(g != null){
+				try {
+					g.setHierarchie(chargerHierarchie(nav.getDirectory()+nav.getFile().replaceAll("\\..*", "")+HIERARCHIE_FORMAT));
+				} catch (Exception e) {
 				}
-		    } finally {
-		        try {
-					br.close();
-				} catch (IOException e) { } 
-		    }
+			}
 		}
-		else if(nav.getFile()!=null && !isValidFormat(fileName))
-			JOptionPane.showMessageDialog(null, LOC[LOC_CHARGEMENT_ECHOUE][langue], LOC[LOC_ERREUR][langue], JOptionPane.ERROR_MESSAGE);
 		return g;
 	}
 	
 	/**
 	 * Sauvegarde le graphe reçu en paramètre dans un fichier choisi par l'utilisateur.
+	 * Si le graphe a une hiérarchie de contraction à jour, elle est enregistrée à côté, sous le même nom au format HIERARCHIE_FORMAT.
 	 * 
 	 * @param g Graphe à sauvegarder
 	 * @param langue Langue de l'interface qui demande la sauvegarde du graphe
@@ -157,22 +221,64 @@ public class GestionnaireFichier implements SauvegardeConstantes,LanguesConstant
 		
 		if(nav.getFile()!=null){
 			String fileName = nav.getDirectory()+nav.getFile().replaceAll("\\..*", "");
-	    	File f_save = new File(fileName+SAVE_FORMAT); 
 			try {
-				f_save.createNewFile();
-				FileWriter w_save = new FileWriter(f_save);
-				try {
-					w_save.write(""+g);
-					JOptionPane.showMessageDialog(null, LOC[LOC_SAUVEGARDE_REUSSIE][langue]);
-				} finally {
-					w_save.close();
-				}
+				sauvegarderGraphe(g.getModele(), fileName+SAVE_FORMAT);
+				if(g.getHierarchie() != null)
+					sauvegarderHierarchie(g.getHierarchie(), fileName+HIERARCHIE_FORMAT);
+				JOptionPane.showMessageDialog(null, LOC[LOC_SAUVEGARDE_REUSSIE][langue]);
 			} catch (Exception e) {
 				JOptionPane.showMessageDialog(null, LOC[LOC_SAUVEGARDE_ECHOUEE][langue], LOC[LOC_ERREUR][langue], JOptionPane.ERROR_MESSAGE);
 			}
 		}
 	}
 	
+	/**
+	 * Écrit le graphe reçu en paramètre dans le flux fourni, au format de sauvegarde de GraphMaker.
+	 * Le flux n'est pas fermé par cette méthode.
+	 * 
+	 * @param g Graphe à sauvegarder
+	 * @param w Flux de sortie
+	 * @throws IOException Si l'écriture échoue
+	 */
+	public static void sauvegarderGraphe(Graphe g, Writer w) throws IOException{
+		w.write(""+g);
+		w.flush();
+	}
+	
+	/**
+	 * Sauvegarde le graphe reçu en paramètre dans le fichier indiqué.
+	 * 
+	 * @param g Graphe à sauvegarder
+	 * @param fileName Chemin du fichier de sortie
+	 * @throws IOException Si l'écriture échoue
+	 */
+	public static void sauvegarderGraphe(Graphe g, String fileName) throws IOException{
+		FileWriter w_save = new FileWriter(new File(fileName));
+		try {
+			sauvegarderGraphe(g, w_save);
+		} finally {
+			w_save.close();
+		}
+	}
+	
+	/**
+	 * Enregistre la hiérarchie de contraction reçue en paramètre dans le fichier indiqué.
+	 * 
+	 * @param h Hiérarchie à enregistrer
+	 * @param fileName Chemin du fichier de sortie
+	 * @throws IOException Si l'écriture échoue
+	 * 
+	 * @see SauvegardeConstantes#HIERARCHIE_FORMAT
+	 */
+	public static void sauvegarderHierarchie(HierarchieContraction h, String fileName) throws IOException{
+		BufferedWriter w_save = new BufferedWriter(new FileWriter(new File(fileName)));
+		try {
+			h.ecrire(w_save);
+		} finally {
+			w_save.close();
+		}
+	}
+	
 	/**
 	 * Vérifie la validité du format de sauvegarde.
 	 * 
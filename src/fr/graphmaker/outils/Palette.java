@@ -0,0 +1,38 @@
+package fr.graphmaker.outils;
+
+import java.awt.Color;
+import java.util.ArrayList;
+
+import fr.graphmaker.constantes.CouleursConstantes;
+
+/**
+ * Classe associant une couleur à chaque classe de couleur (entier positif) produite par l'algorithme de Brélaz.
+ * Les premières classes reprennent la liste COULEURS, les suivantes sont générées à la demande
+ * en faisant tourner la teinte du nombre d'or, ce qui les répartit régulièrement sur le cercle chromatique,
+ * et en alternant plusieurs niveaux de saturation et de luminosité pour les distinguer davantage.
+ * Les couleurs générées restent claires afin que la valeur des sommets reste lisible.
+ */
+public class Palette implements CouleursConstantes{
+	private static final float NOMBRE_OR = 0.618033988749895f;
+	private static final float[] SATURATIONS = {0.55f, 0.35f, 0.70f};
+	private static final float[] LUMINOSITES = {1.0f, 0.90f, 0.80f};
+	private static final ArrayList<Color> couleurs = new ArrayList<Color>(COULEURS);
+
+	/**
+	 * Renvoie la couleur associée à la classe de couleur reçue en paramètre.
+	 * Les couleurs manquantes sont générées et conservées lors du premier appel qui les demande.
+	 *
+	 * @param classe Classe de couleur (0 pour la première)
+	 * @return Couleur de la classe
+	 */
+	public static synchronized Color getCouleur(int classe){
+		while(couleurs.size() <= classe){
+			int rang = couleurs.size() - COULEURS.size();
+			float teinte = (rang * NOMBRE_OR) % 1.0f;
+			int niveau = rang % SATURATIONS.length;
+			couleurs.add(Color.getHSBColor(teinte, SATURATIONS[niveau], LUMINOSITES[niveau]));
+		}
+
+		return couleurs.get(classe);
+	}
+}
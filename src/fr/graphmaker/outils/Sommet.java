@@ -10,6 +10,7 @@ import java.awt.geom.Rectangle2D;
 import java.awt.geom.RectangularShape;
 import java.awt.geom.RoundRectangle2D;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 
 import fr.graphmaker.constantes.CouleursConstantes;
 import fr.graphmaker.constantes.GrapheConstantes;
@@ -19,22 +20,22 @@ import fr.graphmaker.constantes.SauvegardeConstantes;
  * Classe permettant de créer des Sommets du Graphe.
  * 		- Chaîne de caractères : Une valeur, un nom, une étiquette qu'on donne au Sommet
  * 		- Liste d'Arc : La liste des arcs partants du Sommet (utile pour connaitre les descendants directs)
+ * 		- Liste d'Arc : La liste des arcs arrivant au Sommet (utile pour connaitre les ascendants directs)
  * 		- Forme : La forme servant à dessiner le Sommet
  */
-public class Sommet extends Point implements GrapheConstantes, SauvegardeConstantes, Comparable<Sommet>, CouleursConstantes{
+public class Sommet extends Point implements GrapheConstantes, SauvegardeConstantes, CouleursConstantes{
 	// Variables conservees dans la sauvegarde
 	private String valeur;
 	private ArrayList<Arc> arcsSortants;
 	private Shape forme = new Ellipse2D.Double();
 	
 	// Variables ignorees dans la sauvegarde
+	private ArrayList<Arc> arcsEntrants = new ArrayList<Arc>();
+	private IdentityHashMap<Sommet, Arc> successeurs = new IdentityHashMap<Sommet, Arc>();
 	private boolean selectionne = false;
 	private int printed_size;
-	private double distance_djikstra = java.lang.Double.POSITIVE_INFINITY;
-	private Sommet precedent_djikstra;
-	private int tmp_couleurs_proches;
-	private int nb_couleurs_proches;
-	private Color couleur;
+	private int identifiant;
+	private EcouteurGraphe ecouteur;
 	
 	/**
 	 * Initialise le Sommet avec les coordonnées (x, y) et la valeur reçue en paramètre.
@@ -61,6 +62,10 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 		super.setLocation(x, y);
 		this.valeur = valeur;
 		this.arcsSortants = arcsSortants;
+		for(Arc a: arcsSortants){
+			a.getArrivee().arcsEntrants.add(a);
+			successeurs.put(a.getArrivee(), a);
+		}
 		if(forme instanceof Ellipse2D)
 			this.forme = new Ellipse2D.Double();
 		else if(forme instanceof Rectangle2D)
@@ -85,7 +90,8 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	}
 	
 	/**
-	 * Ajoute l'Arc reçu en paramètre à la liste des Arcs partants du Sommet.
+	 * Ajoute l'Arc reçu en paramètre à la liste des Arcs partants du Sommet,
+	 * ainsi qu'à la liste des Arcs arrivant à son Sommet d'arrivée.
 	 * 
 	 * @param arcSortant Arc à ajouter a la liste
 	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
@@ -96,26 +102,17 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	public void addArcSortant(Arc arcSortant, int type_orientation){
 		boolean double_arc = false;
 		arcsSortants.add(arcSortant);
+		arcSortant.getArrivee().arcsEntrants.add(arcSortant);
+		successeurs.put(arcSortant.getArrivee(), arcSortant);
 		
 		if(type_orientation == NON_ORIENTE){
-			for(Arc arc: arcSortant.getArrivee().getArcsSortants())
-				double_arc |= (arc.getArrivee() == this);
+			double_arc = arcSortant.getArrivee().successeurs.containsKey(this);
 			if(!double_arc)
 				arcSortant.getArrivee().addArcSortant(new Arc(arcSortant.getArrivee(), new Point(arcSortant.getBezier()), this, arcSortant.getDistance()), type_orientation);
 		}
-	}
-	
-	@Override
-	/**
-	 * Compare les distance des Sommet pour l'algorithme de Djikstra.
-	 * Aucun appel direct à cette methode ne doit être fait, 
-	 * elle est automatiquement appelée par la classe Djikstra à chaque comparaison dans la file de priorité utilisée.
-	 * 
-	 * @param s Sommet à comparer au Sommet courant
-	 * @return Un entier, négatif si s a une plus grande distance que le sommet courant, nul si les distances sont égales, positif sinon. 
-	 */
-	public int compareTo(Sommet s) {
-		return java.lang.Double.compare(distance_djikstra, s.distance_djikstra);
+		
+		if(ecouteur != null)
+			ecouteur.arcAjoute(arcSortant);
 	}
 	
 	/**
@@ -130,31 +127,42 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	public void detruireSommet(ArrayList<Sommet> sommets, int type_orientation){
 		ArrayList<Arc> arcs = new ArrayList<Arc>();
 			
-		for(Sommet s: sommets)
-			for(Arc a: s.getArcsSortants())
-				if(a.getArrivee() == this && a.getDepart() != this)
-					arcs.add(a);
+		for(Arc a: arcsEntrants)
+			if(a.getDepart() != this)
+				arcs.add(a);
 
 		for(Arc a: arcs)
 			a.detruireArc(type_orientation);
 		
+		/*
+		 * Les arcs partants du Sommet disparaissent avec lui,
+		 * on les retire donc aussi des arcs entrants de leurs sommets d'arrivée.
+		 */
+		for(Arc a: new ArrayList<Arc>(arcsSortants))
+			removeArcSortant(a);
+		
 		sommets.remove(this);
+		if(ecouteur != null)
+			ecouteur.sommetSupprime(this);
 	}
 	
 	/**
 	 * Dessine le Sommet avec l'objet Graphics2D fourni en paramètre.
+	 * L'état du Sommet vis-à-vis de l'algorithme en cours (marquage, couleur) est fourni par le résultat de cet algorithme.
 	 * 
 	 * @param g2d Objet graphique servant au dessin du Sommet
 	 * @param mode Mode dans lequel est l'interface utilisateur (Djikstra, ou Déplacer par exemple)
+	 * @param marque true si le Sommet fait partie du résultat de l'algorithme (chemin de Djikstra, marquage)
+	 * @param couleur Couleur du Sommet pour l'algorithme de Brélaz ou des composantes, null si il n'est pas coloré
 	 */
-	public void draw(Graphics2D g2d, int mode){
+	public void draw(Graphics2D g2d, int mode, boolean marque, Color couleur){
 		printed_size = g2d.getFontMetrics().stringWidth(valeur)+2;
 		
-		if(isSelectionne() && mode == DJIKSTRA){
+		if((isSelectionne() || marque) && mode == DJIKSTRA){
 			g2d.setPaint(COL_DJIKSTRA);
 			g2d.fill(buildForme(SELECTION));
 		}
-		else if(isSelectionne() && mode == MARQUAGE){
+		else if((isSelectionne() || marque) && mode == MARQUAGE){
 			g2d.setPaint(COL_MARQUAGE);
 			g2d.fill(buildForme(SELECTION));
 		}
@@ -166,7 +174,7 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 		g2d.fill(buildForme(BORDURE));
 		g2d.setPaint(COL_CENTRE);
 
-		if(mode == BRELAZ){
+		if((mode == BRELAZ || mode == COMPOSANTES) && couleur != null){
 			g2d.setPaint(couleur);
 		}
 
@@ -187,30 +195,32 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	}
 
 	/**
-	 * Renvoie la liste des Arcs partants du Sommet.
+	 * Renvoie la liste des Arcs arrivant au Sommet.
 	 * 
-	 * @return Liste des Arcs partants du Sommet
+	 * @return Liste des Arcs arrivant au Sommet
 	 */
-	public ArrayList<Arc> getArcsSortants() {
-		return arcsSortants;
+	public ArrayList<Arc> getArcsEntrants() {
+		return arcsEntrants;
 	}
-	
+
 	/**
-	 * Renvoie la couleur du Sommet dans le cadre de l'algorithme de Brélaz.
+	 * Renvoie l'Arc partant du Sommet et allant vers le Sommet reçu en paramètre.
+	 * La recherche se fait en temps constant grâce à l'index des successeurs.
 	 * 
-	 * @return Couleur pour colorer le Sommet pour l'algorithme de Brélaz
+	 * @param arrivee Sommet d'arrivée de l'Arc recherché
+	 * @return Arc allant du Sommet courant à arrivee s'il existe, null sinon
 	 */
-	public Color getCouleur(){
-		return couleur;
+	public Arc getArcSortant(Sommet arrivee) {
+		return successeurs.get(arrivee);
 	}
-	
+
 	/**
-	 * Renvoie la distance du Sommet dans le cadre de l'algorithme de Djikstra.
+	 * Renvoie la liste des Arcs partants du Sommet.
 	 * 
-	 * @return Distance pour l'algorithme de Djikstra
+	 * @return Liste des Arcs partants du Sommet
 	 */
-	public double getDistanceDjikstra(){
-		return distance_djikstra;
+	public ArrayList<Arc> getArcsSortants() {
+		return arcsSortants;
 	}
 	
 	/**
@@ -244,21 +254,13 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	}
 	
 	/**
-	 * Renvoie le nombre de Sommets colorés liés au Sommet courant dans le cadre de l'algorithme de Brélaz.
+	 * Renvoie l'identifiant du Sommet.
+	 * Cet identifiant est attribué par le graphe et correspond à la position du Sommet dans sa liste de sommets.
 	 * 
-	 * @return Nombre de Sommets colorés liés au Sommet courant
+	 * @return Identifiant du Sommet
 	 */
-	public int getNbCouleursProches(){
-		return nb_couleurs_proches;
-	}
-	
-	/**
-	 * Renvoie le Sommet calculé comme prédécésseur optimal direct au Sommet courant par l'algorithme de Djikstra.
-	 * 
-	 * @return Prédécésseur optimal au Sommet courant pour l'algorithme de Djikstra
-	 */
-	public Sommet getPrecedentDjikstra(){
-		return precedent_djikstra;
+	public int getIdentifiant(){
+		return identifiant;
 	}
 	
 	/**
@@ -298,15 +300,6 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 		return rayon;
 	}
 	
-	/**
-	 * Renvoie le nombre présumé de Sommets colorés liés au Sommet courant dans le cadre de l'algorithme de Brélaz.
-	 * 
-	 * @return Nombre présumé de Sommets colorés liés
-	 */
-	public int getTmpCouleursProches(){
-		return tmp_couleurs_proches;
-	}
-	
 	/**
 	 * Renvoie la valeur du Sommet.
 	 * 
@@ -344,12 +337,19 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	}
 	
 	/**
-	 * Supprime l'Arc reçu en paramètre de la liste des Arcs partants du Sommet.
+	 * Supprime l'Arc reçu en paramètre de la liste des Arcs partants du Sommet,
+	 * ainsi que de la liste des Arcs arrivant à son Sommet d'arrivée.
 	 * 
 	 * @param arcSortant Arc à supprimer de la liste.
 	 */
 	public void removeArcSortant(Arc arcSortant){
-		arcsSortants.remove(arcSortant);
+		if(arcsSortants.remove(arcSortant)){
+			arcSortant.getArrivee().arcsEntrants.remove(arcSortant);
+			if(successeurs.get(arcSortant.getArrivee()) == arcSortant)
+				successeurs.remove(arcSortant.getArrivee());
+			if(ecouteur != null)
+				ecouteur.arcSupprime(arcSortant);
+		}
 	}
 	
 	/**
@@ -381,53 +381,47 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	}
 	
 	/**
-	 * Réinitialise les attributs du Sommet courant utilisés pour l'algorithme de Djikstra.
-	 * La distance est remise à l'infini et le prédécésseur est remis à null.
-	 */
-	public void resetDjikstra(){
-		distance_djikstra = java.lang.Double.POSITIVE_INFINITY;
-		precedent_djikstra = null;
-	}
-	
-	/**
-	 * Modifie la couleur du Sommet pour l'algorithme de Brélaz
+	 * Modifie l'écouteur prévenu des arcs ajoutés ou supprimés à partir du Sommet, et de sa destruction.
+	 * Ne doit être appelée que par le graphe auquel appartient le Sommet.
 	 * 
-	 * @param couleur Nouvelle couleur pour l'algorithme de Brélaz
+	 * @param ecouteur Écouteur du graphe, null pour n'en avoir aucun
 	 */
-	public void setCouleur(Color couleur){
-		this.couleur = couleur;
+	public void setEcouteur(EcouteurGraphe ecouteur){
+		this.ecouteur = ecouteur;
 	}
 	
 	/**
-	 * Modifie la distance du Sommet pour l'algorithme de Djikstra.
+	 * Modifie la forme du Sommet dessiné.
 	 * 
-	 * @param distance_djikstra Nouvelle distance pour l'algorithme de Djikstra
+	 * @param forme Nouvelle forme du Sommet
 	 */
-	public void setDistanceDjikstra(double distance_djikstra){
-		this.distance_djikstra = distance_djikstra;
+	public void setForme(Shape forme){
+		this.forme = forme;
 	}
 	
 	/**
-	 * Modifie la forme du Sommet dessiné.
+	 * Modifie l'identifiant du Sommet.
+	 * Ne doit être appelée que par le graphe auquel appartient le Sommet.
 	 * 
-	 * @param forme Nouvelle forme du Sommet
+	 * @param identifiant Nouvel identifiant
 	 */
-	public void setForme(Shape forme){
-		this.forme = forme;
+	public void setIdentifiant(int identifiant){
+		this.identifiant = identifiant;
 	}
 	
 	/**
 	 * Modifie les coordonnées du Sommet courant et de tous ses Arcs sortants pour qu'ils suivent le mouvement.
 	 * 
+	 * Les Arcs arrivant au Sommet sont retrouvés grâce à la liste des Arcs entrants.
+	 * 
 	 * @param x Nouvelle abscisse
 	 * @param y Nouvelle ordonnée
-	 * @param sommets Liste des sommets dans laquelle se trouve le Sommet courant, utilisée pour la modification de tous les arcs liés au Sommet
 	 * @param type_orientation Type du Graphe concerné (Orienté ou non)
 	 * 
 	 * @see GrapheConstantes#ORIENTE
 	 * @see GrapheConstantes#NON_ORIENTE
 	 */
-	public void setLocation(double x, double y, ArrayList<Sommet> sommets, int type_orientation){
+	public void setLocation(double x, double y, int type_orientation){
 		double change_x = x-getX();
 		double change_y = y-getY();
 		
@@ -436,28 +430,9 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 		for(Arc a: arcsSortants)
 			a.changeBezier(change_x, change_y, MVT_DEPART, type_orientation);
 		
-		for(Sommet s: sommets)
-			for(Arc a: s.getArcsSortants())
-				if(a.getArrivee() == this && a.getDepart() != this)
-						a.changeBezier(change_x, change_y, MVT_ARRIVEE, type_orientation);
-	}
-	
-	/**
-	 * Modifie le nombre de couleurs proches du sommet.
-	 * 
-	 * @param nb_couleur_proche Nouveau nombre de couleurs proches
-	 */
-	public void setNbCouleurProche(int nb_couleur_proche){
-		this.nb_couleurs_proches = nb_couleur_proche;
-	}
-	
-	/**
-	 * Remplace le Sommet prédécésseur dans Djikstra par celui reçu en paramètre.
-	 * 
-	 * @param precedent_djikstra Nouveau prédécésseur pour Djikstra
-	 */
-	public void setPrecedentDjikstra(Sommet precedent_djikstra){
-		this.precedent_djikstra = precedent_djikstra;
+		for(Arc a: arcsEntrants)
+			if(a.getDepart() != this)
+				a.changeBezier(change_x, change_y, MVT_ARRIVEE, type_orientation);
 	}
 	
 	/**
@@ -476,15 +451,6 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 				a.setSelectionne(select, type_orientation);
 	}
 	
-	/**
-	 * Modifie le nombre présumé de Sommets colores liés au Sommet courant pour l'algorithme de Brélaz.
-	 * 
-	 * @param couleur_brelaz Nouveau nombre présumé de Sommets colores liés
-	 */
-	public void setTmpCouleursProches(int couleur_brelaz){
-		this.tmp_couleurs_proches = couleur_brelaz;
-	}
-	
 	/**
 	 * Modifie la valeur du Sommet par celle reçue en paramètre.
 	 * 
@@ -498,14 +464,10 @@ public class Sommet extends Point implements GrapheConstantes, SauvegardeConstan
 	 * Supprime l'arc boucle du sommet s'il en a un.
 	 */
 	public void simplifier(){
-		Arc toDelete = null;
-		
-		for(Arc a: arcsSortants)
-			if(a.getArrivee() == this)
-				toDelete = a;
+		Arc toDelete = getArcSortant(this);
 		
 		if(toDelete != null)
-			arcsSortants.remove(toDelete);
+			removeArcSortant(toDelete);
 	}
 	
 	/**
@@ -0,0 +1,203 @@
+package fr.graphmaker.outils;
+
+import java.util.Arrays;
+
+/**
+ * Classe implémentant un tas binaire (file de priorité) indexé par des entiers.
+ * Chaque élément est identifié par un indice compris entre 0 et la capacité du tas,
+ * ce qui permet de modifier la clé d'un élément déjà présent en O(log n)
+ * au lieu de devoir le retirer puis le réinsérer.
+ * 		- Tableau d'entiers : Les indices des éléments rangés selon l'ordre du tas
+ * 		- Tableau d'entiers : La position de chaque indice dans le tas (-1 s'il n'y est pas)
+ * 		- Tableau de réels : La clé associée à chaque indice
+ */
+public class TasIndexe {
+	private int[] tas;
+	private int[] positions;
+	private double[] cles;
+	private int taille = 0;
+
+	/**
+	 * Initialise un tas vide pouvant contenir les indices de 0 à capacite-1.
+	 *
+	 * @param capacite Nombre maximal d'indices gérés par le tas
+	 */
+	public TasIndexe(int capacite){
+		tas = new int[capacite];
+		positions = new int[capacite];
+		cles = new double[capacite];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Ajoute l'indice reçu en paramètre au tas avec la clé fournie.
+	 * Si l'indice est déjà présent, sa clé est simplement diminuée.
+	 *
+	 * @param indice Indice de l'élément à ajouter
+	 * @param cle Clé (priorité) de l'élément
+	 */
+	public void ajouter(int indice, double cle){
+		if(contient(indice)){
+			diminuerCle(indice, cle);
+			return;
+		}
+
+		tas[taille] = indice;
+		positions[indice] = taille;
+		cles[indice] = cle;
+		remonter(taille);
+		taille++;
+	}
+
+	/**
+	 * Vérifie si l'indice reçu en paramètre est présent dans le tas.
+	 *
+	 * @param indice Indice à vérifier
+	 * @return true si l'indice est dans le tas, false sinon
+	 */
+	public boolean contient(int indice){
+		return positions[indice] != -1;
+	}
+
+	/**
+	 * Diminue la clé de l'indice reçu en paramètre.
+	 * Ne fait rien si la nouvelle clé n'est pas plus petite que l'ancienne.
+	 *
+	 * @param indice Indice de l'élément à modifier
+	 * @param cle Nouvelle clé de l'élément
+	 */
+	public void diminuerCle(int indice, double cle){
+		if(cle < cles[indice]){
+			cles[indice] = cle;
+			remonter(positions[indice]);
+		}
+	}
+
+	/**
+	 * Vérifie si le tas est vide.
+	 *
+	 * @return true si le tas ne contient aucun élément, false sinon
+	 */
+	public boolean estVide(){
+		return taille == 0;
+	}
+
+	/**
+	 * Retire et renvoie l'indice ayant la plus petite clé du tas.
+	 *
+	 * @return Indice de plus petite clé, -1 si le tas est vide
+	 */
+	public int extraireMin(){
+		if(taille == 0)
+			return -1;
+
+		int min = tas[0];
+		taille--;
+		echanger(0, taille);
+		positions[min] = -1;
+		if(taille > 0)
+			descendre(0);
+
+		return min;
+	}
+
+	/**
+	 * Renvoie la clé actuellement associée à l'indice reçu en paramètre.
+	 *
+	 * @param indice Indice dont on veut la clé
+	 * @return Clé de l'indice
+	 */
+	public double getCle(int indice){
+		return cles[indice];
+	}
+
+	/**
+	 * Renvoie la plus petite clé du tas, sans retirer l'élément correspondant.
+	 *
+	 * @return Plus petite clé, infinie si le tas est vide
+	 */
+	public double getCleMin(){
+		return (taille == 0 ? Double.POSITIVE_INFINITY : cles[tas[0]]);
+	}
+
+	/**
+	 * Renvoie le nombre d'éléments présents dans le tas.
+	 *
+	 * @return Taille du tas
+	 */
+	public int getTaille(){
+		return taille;
+	}
+
+	/**
+	 * Remplace la clé de l'indice reçu en paramètre, qu'elle augmente ou diminue.
+	 *
+	 * @param indice Indice de l'élément à modifier, présent dans le tas
+	 * @param cle Nouvelle clé de l'élément
+	 */
+	public void modifierCle(int indice, double cle){
+		if(cle < cles[indice])
+			diminuerCle(indice, cle);
+		else{
+			cles[indice] = cle;
+			descendre(positions[indice]);
+		}
+	}
+
+	/**
+	 * Retire tous les éléments du tas, en un temps proportionnel à leur nombre.
+	 */
+	public void vider(){
+		for(int i=0; i<taille; i++)
+			positions[tas[i]] = -1;
+		taille = 0;
+	}
+
+	/**
+	 * Fait descendre l'élément à la position reçue jusqu'à ce que l'ordre du tas soit respecté.
+	 *
+	 * @param position Position de l'élément dans le tas
+	 */
+	private void descendre(int position){
+		int fils = 2*position+1;
+
+		while(fils < taille){
+			if(fils+1 < taille && cles[tas[fils+1]] < cles[tas[fils]])
+				fils++;
+			if(cles[tas[position]] <= cles[tas[fils]])
+				break;
+			echanger(position, fils);
+			position = fils;
+			fils = 2*position+1;
+		}
+	}
+
+	/**
+	 * Échange les éléments aux positions reçues en paramètre en mettant à jour leurs positions.
+	 *
+	 * @param i Première position
+	 * @param j Seconde position
+	 */
+	private void echanger(int i, int j){
+		int tmp = tas[i];
+		tas[i] = tas[j];
+		tas[j] = tmp;
+		positions[tas[i]] = i;
+		positions[tas[j]] = j;
+	}
+
+	/**
+	 * Fait remonter l'élément à la position reçue jusqu'à ce que l'ordre du tas soit respecté.
+	 *
+	 * @param position Position de l'élément dans le tas
+	 */
+	private void remonter(int position){
+		int pere = (position-1)/2;
+
+		while(position > 0 && cles[tas[position]] < cles[tas[pere]]){
+			echanger(position, pere);
+			position = pere;
+			pere = (position-1)/2;
+		}
+	}
+}